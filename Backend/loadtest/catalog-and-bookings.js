@@ -0,0 +1,35 @@
+// k6 load test comparing platform-thread and virtual-thread mode.
+//
+//   ./mvnw spring-boot:run -Dspring-boot.run.arguments=--spring.threads.virtual.enabled=false
+//   k6 run -e TOKEN=<jwt> loadtest/catalog-and-bookings.js
+//
+// then restart with --spring.threads.virtual.enabled=true (Java 21+) and run again.
+// Compare http_req_duration p95/p99, http_reqs rate and the hikaricp_connections_pending
+// gauge on /actuator/prometheus between the two runs.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE = __ENV.BASE_URL || 'http://localhost:8080';
+const params = { headers: { Authorization: `Bearer ${__ENV.TOKEN}` } };
+
+export const options = {
+    scenarios: {
+        clients: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: 2000 },
+                { duration: '2m', target: 2000 },
+                { duration: '15s', target: 0 },
+            ],
+        },
+    },
+};
+
+export default function () {
+    // mix of cached catalog reads and DB-bound listings
+    const res = Math.random() < 0.5
+        ? http.get(`${BASE}/api/vehicles`, params)
+        : http.get(`${BASE}/api/rentals/page?limit=50`, params);
+    check(res, { 'status is 200': (r) => r.status === 200 });
+}
@@ -0,0 +1,68 @@
+package com.example.demo.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Serialization cost of the list endpoints' response bodies, with the same mapper defaults Spring MVC uses
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class JsonSerializationBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int rows;
+
+    private ObjectMapper objectMapper;
+    private List<Vehicle> vehicles;
+    private List<Rental> rentals;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        LocalDate start = LocalDate.of(2025, 1, 1);
+
+        vehicles = new ArrayList<>(rows);
+        rentals = new ArrayList<>(rows);
+        for (int i = 1; i <= rows; i++) {
+            Vehicle vehicle = new Vehicle("Vehicle " + i, "Model " + (i % 20), "KA-01-" + i,
+                    BigDecimal.valueOf(500 + i % 1000), i % 2 == 0 ? VehicleType.CAR : VehicleType.BIKE);
+            vehicle.setId((long) i);
+            vehicles.add(vehicle);
+
+            Rental rental = new Rental();
+            rental.setId((long) i);
+            rental.setUserId((long) (i % 500));
+            rental.setUserName("User " + (i % 500));
+            rental.setUserEmail("user" + (i % 500) + "@example.com");
+            rental.setVehicleId((long) i);
+            rental.setVehicleName(vehicle.getName());
+            rental.setVehicleType(vehicle.getType().name());
+            rental.setStartDate(start.plusDays(i % 365));
+            rental.setEndDate(start.plusDays(i % 365 + 3));
+            rental.setTotalCost(1500.0 + i % 1000);
+            rental.setStatus(RentalStatus.CONFIRMED);
+            rental.setPickupLocation("Chennai");
+            rental.setBookingDate(start);
+            rentals.add(rental);
+        }
+    }
+
+    @Benchmark
+    public byte[] vehicles() throws Exception {
+        return objectMapper.writeValueAsBytes(vehicles);
+    }
+
+    @Benchmark
+    public byte[] rentals() throws Exception {
+        return objectMapper.writeValueAsBytes(rentals);
+    }
+}
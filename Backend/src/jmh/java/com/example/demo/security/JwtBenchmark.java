@@ -0,0 +1,49 @@
+package com.example.demo.security;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JwtBenchmark {
+
+    private JwtUtil jwtUtil;
+    private VerifiedClaimsCache claimsCache;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "environment", new MockEnvironment());
+        ReflectionTestUtils.setField(jwtUtil, "secret", "benchmark_secret_key_of_at_least_32_bytes");
+        ReflectionTestUtils.setField(jwtUtil, "activeKeyId", "default");
+        ReflectionTestUtils.setField(jwtUtil, "accessTokenTtl", Duration.ofMinutes(15));
+        ReflectionTestUtils.setField(jwtUtil, "refreshTokenTtl", Duration.ofDays(14));
+        jwtUtil.init();
+        claimsCache = new VerifiedClaimsCache(jwtUtil, 10_000);
+        token = jwtUtil.generateToken("user@example.com", "USER");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("user@example.com", "USER");
+    }
+
+    @Benchmark
+    public String extractEmail() {
+        return jwtUtil.extractEmail(token);
+    }
+
+    // What JwtAuthenticationFilter pays per request once the token has been seen
+    @Benchmark
+    public Object cachedClaims() {
+        return claimsCache.get(token);
+    }
+}
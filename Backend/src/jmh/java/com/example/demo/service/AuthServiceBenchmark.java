@@ -0,0 +1,34 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.UserDTO;
+import com.example.demo.model.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class AuthServiceBenchmark {
+
+    private AuthService authService;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        authService = new AuthService();
+        user = new User();
+        user.setId(42L);
+        user.setName("Benchmark User");
+        user.setEmail("user@example.com");
+        user.setPassword("$2a$10$notARealHashButLongEnoughForTheBenchmark");
+        user.setRole("USER");
+    }
+
+    @Benchmark
+    public UserDTO convertToDTO() {
+        return authService.convertToDTO(user);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.VehicleResponse;
+import com.example.demo.model.Rental;
+import com.example.demo.model.RentalStatus;
+import com.example.demo.model.VehicleType;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class AvailabilityBenchmark {
+
+    private static final LocalDate BASE = LocalDate.of(2025, 1, 1);
+
+    @Param({"1000"})
+    private int vehicles;
+
+    @Param({"10", "100"})
+    private int rentalsPerVehicle;
+
+    private AvailabilityService availabilityService;
+    private RentalIntervalIndex singleVehicleIndex;
+    private List<VehicleResponse> fleet;
+    private LocalDate from;
+    private LocalDate to;
+
+    @Setup
+    public void setUp() {
+        availabilityService = new AvailabilityService();
+        fleet = new ArrayList<>(vehicles);
+        long rentalId = 1;
+        for (long v = 1; v <= vehicles; v++) {
+            fleet.add(new VehicleResponse(v, "Vehicle " + v, "2024", "NUM" + v, BigDecimal.TEN, VehicleType.CAR,
+                    true, false));
+            for (int r = 0; r < rentalsPerVehicle; r++) {
+                Rental rental = new Rental();
+                rental.setId(rentalId++);
+                rental.setVehicleId(v);
+                rental.setStatus(RentalStatus.CONFIRMED);
+                // three-day rentals with a gap, staggered per vehicle
+                rental.setStartDate(BASE.plusDays(r * 5L + v % 5));
+                rental.setEndDate(BASE.plusDays(r * 5L + v % 5 + 2));
+                availabilityService.index(rental);
+            }
+        }
+
+        long[] ids = new long[rentalsPerVehicle];
+        long[] starts = new long[rentalsPerVehicle];
+        long[] ends = new long[rentalsPerVehicle];
+        for (int r = 0; r < rentalsPerVehicle; r++) {
+            ids[r] = r + 1;
+            starts[r] = BASE.plusDays(r * 5L).toEpochDay();
+            ends[r] = starts[r] + 2;
+        }
+        singleVehicleIndex = RentalIntervalIndex.of(ids, starts, ends);
+
+        from = BASE.plusDays(rentalsPerVehicle * 5L / 2);
+        to = from.plusDays(1);
+    }
+
+    @Benchmark
+    public boolean overlapSingleVehicle() {
+        return singleVehicleIndex.overlaps(from, to);
+    }
+
+    // The /api/vehicles/available?from&to hot path over the whole fleet
+    @Benchmark
+    public List<VehicleResponse> filterFleet() {
+        return availabilityService.filterAvailable(fleet, from, to);
+    }
+}
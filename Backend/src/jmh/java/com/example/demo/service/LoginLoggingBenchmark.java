@@ -0,0 +1,110 @@
+package com.example.demo.service;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logging cost of one login request, before and after the move off System.out.
+ *
+ * systemOutPrintln replays the lines the old login path printed (autoflushed, and
+ * serialized on the stream's lock); the slf4j variants issue the same messages through
+ * a logger that is either below DEBUG or behind a non-blocking AsyncAppender.
+ * Output goes to /dev/null so only the logging path itself is measured.
+ *
+ * Run: mvn -Pjmh test-compile exec:exec -Djmh.args="LoginLoggingBenchmark -f 1"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+public class LoginLoggingBenchmark {
+
+    private static final String EMAIL = "user@example.com";
+
+    private PrintStream devNull;
+    private LoggerContext context;
+    private Logger infoLogger;
+    private Logger asyncDebugLogger;
+
+    @Setup
+    public void setUp() throws FileNotFoundException {
+        devNull = new PrintStream(new FileOutputStream("/dev/null"), true);
+
+        context = new LoggerContext();
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d %-5level [%X{requestId}] %logger - %msg%n");
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> sink = new OutputStreamAppender<>();
+        sink.setContext(context);
+        sink.setEncoder(encoder);
+        sink.setOutputStream(new FileOutputStream("/dev/null"));
+        sink.start();
+
+        AsyncAppender async = new AsyncAppender();
+        async.setContext(context);
+        async.setQueueSize(8192);
+        async.setNeverBlock(true);
+        async.setIncludeCallerData(false);
+        async.addAppender(sink);
+        async.start();
+
+        asyncDebugLogger = context.getLogger("bench.async");
+        asyncDebugLogger.setLevel(Level.DEBUG);
+        asyncDebugLogger.setAdditive(false);
+        asyncDebugLogger.addAppender(async);
+
+        infoLogger = context.getLogger("bench.info");
+        infoLogger.setLevel(Level.INFO);
+        infoLogger.setAdditive(false);
+        infoLogger.addAppender(async);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.stop();
+        devNull.close();
+    }
+
+    @Benchmark
+    public void systemOutPrintln() {
+        devNull.println("🔐 Login attempt for: " + EMAIL);
+        devNull.println("🎯 Requested role: " + "USER");
+        devNull.println("✅ User found: " + EMAIL);
+        devNull.println("🔑 Password matches: " + true);
+        devNull.println("🔐 JWT Token generated");
+        devNull.println("✅ Login successful for: " + EMAIL);
+    }
+
+    @Benchmark
+    public void slf4jDebugDisabled() {
+        logLogin(infoLogger);
+    }
+
+    @Benchmark
+    public void slf4jAsync() {
+        logLogin(asyncDebugLogger);
+    }
+
+    private static void logLogin(Logger log) {
+        log.debug("Login attempt for {} as {}", EMAIL, "USER");
+        log.debug("User found: {}", EMAIL);
+        log.debug("Password matches for {}: {}", EMAIL, true);
+        log.debug("Token issued for {}", EMAIL);
+        log.info("Login successful for {}", EMAIL);
+    }
+}
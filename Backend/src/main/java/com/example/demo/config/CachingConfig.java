@@ -0,0 +1,13 @@
+package com.example.demo.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+// Caches are Caffeine-backed; names, size and TTL live in application.properties (spring.cache.*)
+@Configuration
+@EnableCaching
+public class CachingConfig {
+
+    // Read-mostly vehicle catalog, cleared by CatalogVersions once a vehicle write commits
+    public static final String VEHICLES = "vehicles";
+}
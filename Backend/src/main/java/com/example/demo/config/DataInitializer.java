@@ -2,6 +2,8 @@ package com.example.demo.config;
 
 import com.example.demo.model.*;
 import com.example.demo.repository.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.core.annotation.Order;
@@ -14,6 +16,8 @@ import java.time.LocalDate;
 @Order(1) // Ensures this runs before other runners if you have multiple
 public class DataInitializer implements CommandLineRunner {
     
+    private static final Logger log = LoggerFactory.getLogger(DataInitializer.class);
+    
     @Autowired
     private UserRepository userRepository;
     
@@ -29,18 +33,17 @@ public class DataInitializer implements CommandLineRunner {
     @Override
     public void run(String... args) throws Exception {
         try {
-            System.out.println("🚀 Starting data initialization...");
+            log.info("Starting data initialization");
             
             initializeAdminUser();
             initializeSampleUser();
             initializeVehicles();
             initializeOffers();
             
-            System.out.println("🎉 Data initialization completed successfully!");
+            log.info("Data initialization completed");
             
         } catch (Exception e) {
-            System.err.println("❌ Critical error during data initialization: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Data initialization failed", e);
             // Consider re-throwing if initialization is critical for app operation
             // throw new RuntimeException("Data initialization failed", e);
         }
@@ -56,9 +59,9 @@ public class DataInitializer implements CommandLineRunner {
             admin.setPhone("+91 9876543210");
             admin.setAddress("RentX Headquarters");
             userRepository.save(admin);
-            System.out.println("✅ Admin user created: admin@rentx.com / admin123");
+            log.info("Admin user created: admin@rentx.com");
         } else {
-            System.out.println("ℹ️  Admin user already exists");
+            log.debug("Admin user already exists");
         }
     }
     
@@ -72,9 +75,9 @@ public class DataInitializer implements CommandLineRunner {
             user.setAddress("123 Main Street, City");
             user.setRole(Role.USER);
             userRepository.save(user);
-            System.out.println("✅ Sample user created: user@rentx.com / user123");
+            log.info("Sample user created: user@rentx.com");
         } else {
-            System.out.println("ℹ️  Sample user already exists");
+            log.debug("Sample user already exists");
         }
     }
     
@@ -89,9 +92,9 @@ public class DataInitializer implements CommandLineRunner {
             Vehicle bike2 = new Vehicle("Yamaha R1", "2023", "PQ456R", new BigDecimal("50"), VehicleType.BIKE);
             
             vehicleRepository.saveAll(java.util.Arrays.asList(car1, car2, bike1, bike2));
-            System.out.println("✅ Sample vehicles created");
+            log.info("Sample vehicles created");
         } else {
-            System.out.println("ℹ️  Vehicles already initialized");
+            log.debug("Vehicles already initialized");
         }
     }
     
@@ -102,9 +105,9 @@ public class DataInitializer implements CommandLineRunner {
             Offer offer3 = new Offer("First Time User", "20%", LocalDate.now().plusDays(60));
             
             offerRepository.saveAll(java.util.Arrays.asList(offer1, offer2, offer3));
-            System.out.println("✅ Sample offers created");
+            log.info("Sample offers created");
         } else {
-            System.out.println("ℹ️  Offers already initialized");
+            log.debug("Offers already initialized");
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.example.demo.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration
+public class DataSourceProxyConfig {
+
+    // Wraps the pooled DataSource so each statement is seen by SlowQueryListener and the sampled SQL log
+    @Bean
+    public static BeanPostProcessor slowQueryDataSourcePostProcessor(
+            @Value("${db.slow-query.threshold:200ms}") Duration threshold,
+            @Value("${db.sql-log.sample-rate:0.01}") double sqlLogSampleRate,
+            @Value("${db.sql-log.max-per-second:10}") int sqlLogMaxPerSecond,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource)) {
+                    return bean;
+                }
+                return ProxyDataSourceBuilder.create(dataSource)
+                        .name(beanName)
+                        .listener(new SlowQueryListener(threshold, meterRegistry))
+                        .listener(new SampledQueryLogListener(sqlLogSampleRate, sqlLogMaxPerSecond))
+                        .build();
+            }
+        };
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.demo.config;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Replaces spring.jpa.show-sql: logs a random sample of statements at DEBUG,
+ * at most maxPerSecond of them, with parameter shapes instead of values.
+ * Costs one level check per statement when this logger is not at DEBUG.
+ */
+public class SampledQueryLogListener implements QueryExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(SampledQueryLogListener.class);
+
+    private final double sampleRate;
+    private final int maxPerSecond;
+
+    // Fixed one-second window: the second being counted and the statements logged in it
+    private final AtomicLong windowSecond = new AtomicLong();
+    private final AtomicInteger loggedInWindow = new AtomicInteger();
+
+    public SampledQueryLogListener(double sampleRate, int maxPerSecond) {
+        this.sampleRate = sampleRate;
+        this.maxPerSecond = maxPerSecond;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (!log.isDebugEnabled() || ThreadLocalRandom.current().nextDouble() >= sampleRate || !tryAcquire()) {
+            return;
+        }
+        for (QueryInfo query : queryInfoList) {
+            List<List<ParameterSetOperation>> parameters = query.getParametersList();
+            log.debug("SQL ({} ms, batch size {}): {} params={}",
+                    execInfo.getElapsedTime(), Math.max(1, parameters.size()),
+                    query.getQuery(), parameters.isEmpty() ? "[]" : SlowQueryListener.shapeOf(parameters.get(0)));
+        }
+    }
+
+    private boolean tryAcquire() {
+        long second = System.currentTimeMillis() / 1000;
+        long current = windowSecond.get();
+        if (current != second && windowSecond.compareAndSet(current, second)) {
+            loggedInWindow.set(0);
+        }
+        return loggedInWindow.incrementAndGet() <= maxPerSecond;
+    }
+}
@@ -4,20 +4,32 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+
+import com.example.demo.security.JwtAuthenticationFilter;
+import com.example.demo.security.RevokedTokenStore;
+import com.example.demo.security.VerifiedClaimsCache;
 
 @Configuration
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, VerifiedClaimsCache claimsCache,
+                                           RevokedTokenStore revokedTokens) throws Exception {
         http
             .csrf(csrf -> csrf.disable()) // disable CSRF using lambda
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/api/auth/**").permitAll()
+                .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
+                .requestMatchers("/api/admin/**", "/api/analytics/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
             )
+            // bearer tokens are verified once and cached, no password check per request
+            .addFilterBefore(new JwtAuthenticationFilter(claimsCache, revokedTokens), UsernamePasswordAuthenticationFilter.class)
             .httpBasic(Customizer.withDefaults()); // enable basic auth for testing
 
         return http.build();
@@ -0,0 +1,62 @@
+package com.example.demo.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Logs statements slower than the threshold with the types of their bound
+ * parameters ("shapes"), never the values, so the log carries no user data.
+ */
+public class SlowQueryListener implements QueryExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryListener.class);
+
+    private final long thresholdMillis;
+
+    // Resolved lazily: the DataSource is wrapped before the registry necessarily exists
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public SlowQueryListener(Duration threshold, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.thresholdMillis = threshold.toMillis();
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (execInfo.getElapsedTime() < thresholdMillis) {
+            return;
+        }
+        meterRegistry.ifAvailable(registry -> registry.counter("db.slow.queries").increment());
+        for (QueryInfo query : queryInfoList) {
+            List<List<ParameterSetOperation>> parameters = query.getParametersList();
+            log.warn("Slow query ({} ms, batch size {}): {} params={}",
+                    execInfo.getElapsedTime(), Math.max(1, parameters.size()),
+                    query.getQuery(), parameters.isEmpty() ? "[]" : shapeOf(parameters.get(0)));
+        }
+    }
+
+    // e.g. [Long, String, null] in bind order
+    static String shapeOf(List<ParameterSetOperation> operations) {
+        StringJoiner shape = new StringJoiner(", ", "[", "]");
+        for (ParameterSetOperation op : operations) {
+            Object[] args = op.getArgs();
+            boolean isNull = "setNull".equals(op.getMethod().getName()) || args.length < 2 || args[1] == null;
+            shape.add(isNull ? "null" : args[1].getClass().getSimpleName());
+        }
+        return shape.toString();
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.demo.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Virtual-thread mode, opt-in with spring.threads.virtual.enabled=true (needs a Java 21+ runtime).
+ *
+ * Spring Boot then runs Tomcat request handling, @Async methods and the MVC
+ * async executor on virtual threads. This class only adds the part Boot does not:
+ * a semaphore in front of the connection pool sized to the pool itself.
+ */
+@Configuration
+@EnableAsync
+public class VirtualThreadConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+    public static BeanPostProcessor connectionLimitingDataSourcePostProcessor(
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maxPoolSize,
+            @Value("${spring.datasource.hikari.connection-timeout:30000}") long connectionTimeoutMillis) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConnectionLimitingDataSource) {
+                    return bean;
+                }
+                return new ConnectionLimitingDataSource(dataSource, maxPoolSize,
+                        Duration.ofMillis(connectionTimeoutMillis));
+            }
+        };
+    }
+}
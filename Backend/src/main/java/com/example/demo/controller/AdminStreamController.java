@@ -0,0 +1,52 @@
+package com.example.demo.controller;
+
+import com.example.demo.security.JwtUtil;
+import com.example.demo.service.auth.TokenService;
+import com.example.demo.service.events.AdminStreamService;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin")
+@CrossOrigin(origins = "http://localhost:5173")
+public class AdminStreamController {
+
+    @Autowired
+    private AdminStreamService adminStreamService;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    // Live rental, payment and vehicle changes for the admin UI (EventSource); ADMIN only, see SecurityConfig.
+    // EventSource resends Last-Event-ID on reconnect; lastEventId is the same for clients that cannot set headers.
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventIdHeader,
+                             @RequestParam(required = false) Long lastEventId) {
+        return adminStreamService.connect(lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
+    }
+
+    // Short-lived token for new EventSource("/api/admin/stream?stream_token=..."), requested with the bearer
+    // token. It only opens the stream; fetch a new one (and pass lastEventId) before reconnecting.
+    @PostMapping("/stream/token")
+    public ResponseEntity<Map<String, String>> streamToken(Authentication authentication) {
+        if (!(authentication.getDetails() instanceof Claims claims)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        Map<String, String> body = new LinkedHashMap<>();
+        body.put("streamToken", tokenService.issueStreamToken(claims));
+        body.put("expiresIn", String.valueOf(jwtUtil.getStreamTokenTtl().toSeconds()));
+        return ResponseEntity.ok(body);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.DailyRevenue;
+import com.example.demo.dto.RollupTotals;
+import com.example.demo.model.RollupDimension;
+import com.example.demo.service.analytics.AnalyticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/analytics")
+@CrossOrigin(origins = "http://localhost:5173")
+public class AnalyticsController {
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    // Revenue, utilization % and damage rate % per vehicle, vehicle type, pickup location or the whole fleet
+    @GetMapping("/summary")
+    public ResponseEntity<List<RollupTotals>> getSummary(
+            @RequestParam(defaultValue = "VEHICLE_TYPE") RollupDimension groupBy,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return ResponseEntity.ok(analyticsService.totals(groupBy, from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Daily revenue series, by vehicle type unless groupBy says otherwise
+    @GetMapping("/revenue/daily")
+    public ResponseEntity<List<DailyRevenue>> getDailyRevenue(
+            @RequestParam(defaultValue = "VEHICLE_TYPE") RollupDimension groupBy,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return ResponseEntity.ok(analyticsService.dailyRevenue(groupBy, from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -1,10 +1,18 @@
 package com.example.demo.controller;
 
+import com.example.demo.exception.InvalidTokenException;
+import com.example.demo.exception.LoginThrottledException;
 import com.example.demo.model.User;
-import com.example.demo.repository.UserRepository;
-import com.example.demo.security.JwtUtil;
+import com.example.demo.service.UserService;
+import com.example.demo.service.auth.LoginThrottle;
+import com.example.demo.service.auth.PasswordHasher;
+import com.example.demo.service.auth.TokenPair;
+import com.example.demo.service.auth.TokenService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.*;
@@ -15,33 +23,90 @@ import java.util.*;
 public class AuthController {
 
     @Autowired
-    private UserRepository userRepository;
+    private UserService userService;
 
     @Autowired
-    private JwtUtil jwtUtil;
+    private TokenService tokenService;
 
-    private BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private LoginThrottle loginThrottle;
 
     @PostMapping("/register")
     public Map<String, String> register(@RequestBody User user) {
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
-        userRepository.save(user);
+        user.setPassword(passwordHasher.encode(user.getPassword()));
+        userService.saveUser(user);
         return Map.of("message", "User registered successfully");
     }
 
+    // Rate-limited per email and client IP; the password check runs on the bounded hashing pool
     @PostMapping("/login")
-    public Map<String, String> login(@RequestBody Map<String, String> request) {
+    public ResponseEntity<Map<String, String>> login(@RequestBody Map<String, String> request,
+                                                     HttpServletRequest httpRequest) {
         String email = request.get("email");
         String password = request.get("password");
 
-        User user = userRepository.findByEmail(email).orElseThrow(() -> new RuntimeException("User not found"));
+        try {
+            loginThrottle.acquire(email, httpRequest.getRemoteAddr());
+
+            User user = userService.getUserByEmail(email).orElseThrow(() -> new RuntimeException("User not found"));
+
+            if (!passwordHasher.matches(password, user.getPassword())) {
+                throw new RuntimeException("Invalid password");
+            }
+            rehashIfNeeded(user, password);
+
+            return ResponseEntity.ok(tokenResponse(tokenService.issue(user)));
+        } catch (LoginThrottledException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .build();
+        }
+    }
 
-        if (!passwordEncoder.matches(password, user.getPassword())) {
-            throw new RuntimeException("Invalid password");
+    // Exchange a refresh token for a new access/refresh pair; the old refresh token stops working
+    @PostMapping("/refresh")
+    public ResponseEntity<Map<String, String>> refresh(@RequestBody Map<String, String> request) {
+        try {
+            TokenPair tokens = tokenService.refresh(request.get("refreshToken"));
+            return ResponseEntity.ok(tokenResponse(tokens));
+        } catch (InvalidTokenException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
+    }
 
-        String token = jwtUtil.generateToken(user.getEmail(), user.getRole());
+    // Revoke the session of the bearer token and/or the refresh token in the body
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestBody(required = false) Map<String, String> request,
+                                       @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        String accessToken = authorization != null && authorization.startsWith("Bearer ")
+                ? authorization.substring("Bearer ".length()).trim()
+                : null;
+        tokenService.logout(accessToken, request == null ? null : request.get("refreshToken"));
+        return ResponseEntity.noContent().build();
+    }
 
-        return Map.of("token", token, "role", user.getRole());
+    private static Map<String, String> tokenResponse(TokenPair tokens) {
+        Map<String, String> body = new LinkedHashMap<>();
+        body.put("token", tokens.accessToken());
+        body.put("refreshToken", tokens.refreshToken());
+        body.put("role", tokens.role());
+        body.put("expiresIn", String.valueOf(tokens.expiresInSeconds()));
+        return body;
+    }
+
+    // Brings the stored hash up to the current cost; if the pool is busy it is left for a later login
+    private void rehashIfNeeded(User user, String password) {
+        if (!passwordHasher.needsRehash(user.getPassword())) {
+            return;
+        }
+        try {
+            user.setPassword(passwordHasher.encode(password));
+            userService.saveUser(user);
+        } catch (LoginThrottledException e) {
+            // keep the old hash
+        }
     }
 }
@@ -1,10 +1,18 @@
 package com.example.demo.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import com.example.demo.dto.BookingResponse;
+import com.example.demo.dto.CursorPage;
+import com.example.demo.exception.BookingConflictException;
 import com.example.demo.model.Booking;
+import com.example.demo.model.BookingStatus;
 import com.example.demo.service.BookingService;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -20,18 +28,37 @@ public class BookingController {
         try {
             Booking savedBooking = bookingService.createBooking(booking);
             return ResponseEntity.ok(savedBooking);
+        } catch (BookingConflictException | OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
     }
     
     @GetMapping
-    public ResponseEntity<List<Booking>> getAllBookings() {
+    public ResponseEntity<List<BookingResponse>> getAllBookings() {
         return ResponseEntity.ok(bookingService.getAllBookings());
     }
     
+    // One page of bookings (keyset pagination, newest first; by date then id when from/to is set) with optional filters
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<BookingResponse>> getBookingPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) BookingStatus status,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) Long vehicleId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return ResponseEntity.ok(bookingService.getBookingPage(cursor, limit, status, userId, vehicleId, from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Booking>> getUserBookings(@PathVariable Long userId) {
+    public ResponseEntity<List<BookingResponse>> getUserBookings(@PathVariable Long userId) {
         return ResponseEntity.ok(bookingService.getBookingsByUserId(userId));
     }
 }
\ No newline at end of file
@@ -2,12 +2,20 @@ package com.example.demo.controller;
 
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.WebRequest;
 
 import com.example.demo.model.Offer;
 import com.example.demo.repository.OfferRepository;
+import com.example.demo.service.CatalogVersions;
+import com.example.demo.service.pricing.QuoteEngine;
 
+import java.time.Duration;
 import java.util.List;
 
 @RestController
@@ -18,13 +26,37 @@ public class OfferController {
  @Autowired
  private OfferRepository offerRepository;
  
+ @Autowired
+ private QuoteEngine quoteEngine;
+ 
+ @Autowired
+ private CatalogVersions catalogVersions;
+ 
+ @Autowired
+ private TransactionTemplate transactionTemplate;
+ 
+ @Value("${catalog.http-cache.max-age:30s}")
+ private Duration cacheMaxAge;
+ 
+ // A matching If-None-Match is answered with 304 without querying
  @GetMapping
- public ResponseEntity<List<Offer>> getActiveOffers() {
-     return ResponseEntity.ok(offerRepository.findByActive(true));
+ public ResponseEntity<List<Offer>> getActiveOffers(WebRequest webRequest) {
+     String eTag = catalogVersions.offersTag();
+     CacheControl cacheControl = CacheControl.maxAge(cacheMaxAge).cachePublic().mustRevalidate();
+     if (webRequest.checkNotModified(eTag)) {
+         return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(cacheControl).build();
+     }
+     return ResponseEntity.ok().eTag(eTag).cacheControl(cacheControl).body(offerRepository.findByActive(true));
  }
  
  @PostMapping
  public ResponseEntity<Offer> createOffer(@RequestBody Offer offer) {
-     return ResponseEntity.ok(offerRepository.save(offer));
+     Offer saved = transactionTemplate.execute(tx -> {
+         Offer result = offerRepository.save(offer);
+         catalogVersions.offersChanged();
+         return result;
+     });
+     quoteEngine.reload();
+     return ResponseEntity.ok(saved);
  }
 }
\ No newline at end of file
@@ -1,13 +1,26 @@
 // controller/PaymentController.java
 package com.example.demo.controller;
 
+import com.example.demo.dto.BatchRequest;
+import com.example.demo.dto.BatchTransitionResult;
+import com.example.demo.dto.CursorPage;
+import com.example.demo.dto.PaymentResponse;
+import com.example.demo.exception.InvalidStatusTransitionException;
 import com.example.demo.model.Payment;
 import com.example.demo.model.PaymentStatus;
+import com.example.demo.service.ExportFormat;
+import com.example.demo.service.ExportService;
 import com.example.demo.service.PaymentService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -18,13 +31,51 @@ public class PaymentController {
     @Autowired
     private PaymentService paymentService;
 
+    @Autowired
+    private ExportService exportService;
+
     // Get all payments
     @GetMapping
-    public ResponseEntity<List<Payment>> getAllPayments() {
-        List<Payment> payments = paymentService.findAll();
+    public ResponseEntity<List<PaymentResponse>> getAllPayments() {
+        List<PaymentResponse> payments = paymentService.findAll();
         return ResponseEntity.ok(payments);
     }
 
+    // Get one page of payments (keyset pagination, newest first; by date then id when from/to is set) with optional filters
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<PaymentResponse>> getPaymentPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) PaymentStatus status,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return ResponseEntity.ok(paymentService.findPage(cursor, limit, status, userId, from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Stream payments as NDJSON or CSV (for finance exports of large ranges)
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportPayments(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.fromParam(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = out -> exportService.exportPayments(out, exportFormat, from, to);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"payments." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
     // Get payment by ID
     @GetMapping("/{id}")
     public ResponseEntity<Payment> getPaymentById(@PathVariable Long id) {
@@ -38,15 +89,15 @@ public class PaymentController {
 
     // Get payments by status
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Payment>> getPaymentsByStatus(@PathVariable PaymentStatus status) {
-        List<Payment> payments = paymentService.findByStatus(status);
+    public ResponseEntity<List<PaymentResponse>> getPaymentsByStatus(@PathVariable PaymentStatus status) {
+        List<PaymentResponse> payments = paymentService.findByStatus(status);
         return ResponseEntity.ok(payments);
     }
 
     // Get payments by user ID
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Payment>> getPaymentsByUserId(@PathVariable Long userId) {
-        List<Payment> payments = paymentService.findByUserId(userId);
+    public ResponseEntity<List<PaymentResponse>> getPaymentsByUserId(@PathVariable Long userId) {
+        List<PaymentResponse> payments = paymentService.findByUserId(userId);
         return ResponseEntity.ok(payments);
     }
 
@@ -56,6 +107,8 @@ public class PaymentController {
         try {
             Payment approvedPayment = paymentService.approvePayment(id);
             return ResponseEntity.ok(approvedPayment);
+        } catch (InvalidStatusTransitionException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -67,16 +120,48 @@ public class PaymentController {
         try {
             Payment rejectedPayment = paymentService.rejectPayment(id);
             return ResponseEntity.ok(rejectedPayment);
+        } catch (InvalidStatusTransitionException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
 
-    // Create new payment
+    // Approve many payments at once; per-id outcomes, safe to retry
+    @PutMapping("/batch/approve")
+    public ResponseEntity<BatchTransitionResult> approvePayments(@RequestBody BatchRequest request) {
+        try {
+            return ResponseEntity.ok(paymentService.approvePayments(request.getIds()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Reject many payments at once
+    @PutMapping("/batch/reject")
+    public ResponseEntity<BatchTransitionResult> rejectPayments(@RequestBody BatchRequest request) {
+        try {
+            return ResponseEntity.ok(paymentService.rejectPayments(request.getIds()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Refund many completed payments at once
+    @PutMapping("/batch/refund")
+    public ResponseEntity<BatchTransitionResult> refundPayments(@RequestBody BatchRequest request) {
+        try {
+            return ResponseEntity.ok(paymentService.refundPayments(request.getIds()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Create new payment - returns at once with the PENDING payment; poll GET /{id} for the outcome
     @PostMapping
     public ResponseEntity<Payment> createPayment(@RequestBody Payment payment) {
         Payment createdPayment = paymentService.createPayment(payment);
-        return ResponseEntity.ok(createdPayment);
+        return ResponseEntity.accepted().body(createdPayment);
     }
 
     // Update payment
@@ -85,6 +170,8 @@ public class PaymentController {
         try {
             Payment updatedPayment = paymentService.updatePayment(id, paymentDetails);
             return ResponseEntity.ok(updatedPayment);
+        } catch (InvalidStatusTransitionException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
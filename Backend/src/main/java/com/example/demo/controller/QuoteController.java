@@ -0,0 +1,32 @@
+package com.example.demo.controller;
+
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.example.demo.dto.QuoteRequest;
+import com.example.demo.dto.QuoteResponse;
+import com.example.demo.service.pricing.QuoteEngine;
+
+import java.security.Principal;
+
+@RestController
+@RequestMapping("/api/quotes")
+@CrossOrigin(origins = "http://localhost:5173")
+public class QuoteController {
+ 
+ @Autowired
+ private QuoteEngine quoteEngine;
+ 
+ // Price a vehicle for a date range with the best active offer applied; first-time offers follow the caller
+ @PostMapping
+ public ResponseEntity<?> quote(@RequestBody QuoteRequest request, Principal principal) {
+     try {
+         QuoteResponse quote = quoteEngine.quote(request, principal != null ? principal.getName() : null);
+         return ResponseEntity.ok(quote);
+     } catch (IllegalArgumentException e) {
+         return ResponseEntity.badRequest().body(e.getMessage());
+     }
+ }
+}
@@ -1,11 +1,27 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.BatchRequest;
+import com.example.demo.dto.BatchTransitionResult;
+import com.example.demo.dto.CursorPage;
+import com.example.demo.exception.BookingConflictException;
+import com.example.demo.exception.InvalidStatusTransitionException;
 import com.example.demo.model.Rental;
+import com.example.demo.model.RentalStatus;
+import com.example.demo.service.ExportFormat;
+import com.example.demo.service.ExportService;
 import com.example.demo.service.RentalService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.security.Principal;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -16,6 +32,9 @@ public class RentalController {
     @Autowired
     private RentalService rentalService;
 
+    @Autowired
+    private ExportService exportService;
+
     // Get all rentals - THIS FIXES THE 404 ERROR
     @GetMapping("/rentals")
     public ResponseEntity<List<Rental>> getAllRentals() {
@@ -23,6 +42,42 @@ public class RentalController {
         return ResponseEntity.ok(rentals);
     }
 
+    // Get one page of rentals (keyset pagination, newest first; by date then id when from/to is set) with optional filters
+    @GetMapping("/rentals/page")
+    public ResponseEntity<CursorPage<Rental>> getRentalPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) RentalStatus status,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) Long vehicleId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return ResponseEntity.ok(rentalService.findPage(cursor, limit, status, userId, vehicleId, from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Stream rentals as NDJSON or CSV (for finance exports of large ranges)
+    @GetMapping("/rentals/export")
+    public ResponseEntity<StreamingResponseBody> exportRentals(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.fromParam(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = out -> exportService.exportRentals(out, exportFormat, from, to);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"rentals." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
     // Get rental by ID
     @GetMapping("/rentals/{id}")
     public ResponseEntity<Rental> getRentalById(@PathVariable Long id) {
@@ -36,7 +91,7 @@ public class RentalController {
 
     // Get rentals by status
     @GetMapping("/rentals/status/{status}")
-    public ResponseEntity<List<Rental>> getRentalsByStatus(@PathVariable String status) {
+    public ResponseEntity<List<Rental>> getRentalsByStatus(@PathVariable RentalStatus status) {
         List<Rental> rentals = rentalService.findByStatus(status);
         return ResponseEntity.ok(rentals);
     }
@@ -47,6 +102,8 @@ public class RentalController {
         try {
             Rental confirmedRental = rentalService.confirmRental(id);
             return ResponseEntity.ok(confirmedRental);
+        } catch (BookingConflictException | InvalidStatusTransitionException | OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -58,6 +115,8 @@ public class RentalController {
         try {
             Rental rejectedRental = rentalService.rejectRental(id);
             return ResponseEntity.ok(rejectedRental);
+        } catch (BookingConflictException | InvalidStatusTransitionException | OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -69,24 +128,66 @@ public class RentalController {
         try {
             Rental completedRental = rentalService.completeRental(id);
             return ResponseEntity.ok(completedRental);
+        } catch (BookingConflictException | InvalidStatusTransitionException | OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
 
+    // Confirm many rentals at once; per-id outcomes, safe to retry
+    @PutMapping("/rentals/batch/confirm")
+    public ResponseEntity<BatchTransitionResult> confirmRentals(@RequestBody BatchRequest request) {
+        try {
+            return ResponseEntity.ok(rentalService.confirmRentals(request.getIds()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Reject many rentals at once
+    @PutMapping("/rentals/batch/reject")
+    public ResponseEntity<BatchTransitionResult> rejectRentals(@RequestBody BatchRequest request) {
+        try {
+            return ResponseEntity.ok(rentalService.rejectRentals(request.getIds()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Complete many rentals at once
+    @PutMapping("/rentals/batch/complete")
+    public ResponseEntity<BatchTransitionResult> completeRentals(@RequestBody BatchRequest request) {
+        try {
+            return ResponseEntity.ok(rentalService.completeRentals(request.getIds()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     // Create new rental
     @PostMapping("/rentals")
-    public ResponseEntity<Rental> createRental(@RequestBody Rental rental) {
-        Rental createdRental = rentalService.createRental(rental);
-        return ResponseEntity.ok(createdRental);
+    public ResponseEntity<Rental> createRental(@RequestBody Rental rental, Principal principal) {
+        try {
+            Rental createdRental = rentalService.createRental(rental, principal != null ? principal.getName() : null);
+            return ResponseEntity.ok(createdRental);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     // Update rental
     @PutMapping("/rentals/{id}")
-    public ResponseEntity<Rental> updateRental(@PathVariable Long id, @RequestBody Rental rentalDetails) {
+    public ResponseEntity<Rental> updateRental(@PathVariable Long id, @RequestBody Rental rentalDetails,
+                                               Principal principal) {
         try {
-            Rental updatedRental = rentalService.updateRental(id, rentalDetails);
+            Rental updatedRental = rentalService.updateRental(id, rentalDetails,
+                    principal != null ? principal.getName() : null);
             return ResponseEntity.ok(updatedRental);
+        } catch (BookingConflictException | InvalidStatusTransitionException | OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -4,8 +4,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import com.example.demo.dto.CursorPage;
+import com.example.demo.dto.UserDTO;
 import com.example.demo.model.User;
+import com.example.demo.model.UserSummary;
 import com.example.demo.service.UserService;
+import com.example.demo.service.UserSummaryService;
 
 import java.util.List;
 
@@ -17,15 +21,39 @@ public class UserController {
  @Autowired
  private UserService userService;
  
+ @Autowired
+ private UserSummaryService userSummaryService;
+ 
  @GetMapping
  public ResponseEntity<List<User>> getAllUsers() {
      return ResponseEntity.ok(userService.getAllUsers());
  }
  
+ // One page of users (keyset pagination, newest first, without password hashes), optionally filtered by role
+ @GetMapping("/page")
+ public ResponseEntity<CursorPage<UserDTO>> getUserPage(
+         @RequestParam(required = false) String cursor,
+         @RequestParam(required = false) Integer limit,
+         @RequestParam(required = false) String role) {
+     try {
+         return ResponseEntity.ok(userService.getUserPage(cursor, limit, role));
+     } catch (IllegalArgumentException e) {
+         return ResponseEntity.badRequest().build();
+     }
+ }
+ 
  @GetMapping("/{id}")
  public ResponseEntity<User> getUserById(@PathVariable Long id) {
      return userService.getUserById(id)
              .map(ResponseEntity::ok)
              .orElse(ResponseEntity.notFound().build());
  }
+ 
+ // Dashboard summary: bookings, active rental, spend, pending payments and recent rentals in one lookup
+ @GetMapping("/{id}/summary")
+ public ResponseEntity<UserSummary> getUserSummary(@PathVariable Long id) {
+     return userSummaryService.getSummary(id)
+             .map(ResponseEntity::ok)
+             .orElse(ResponseEntity.notFound().build());
+ }
 }
\ No newline at end of file
@@ -2,13 +2,27 @@ package com.example.demo.controller;
 
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import com.example.demo.dto.VehicleImportResult;
+import com.example.demo.dto.VehicleResponse;
 import com.example.demo.model.Vehicle;
 import com.example.demo.model.VehicleType;
+import com.example.demo.service.AvailabilityService;
+import com.example.demo.service.CatalogVersions;
+import com.example.demo.service.VehicleImportService;
 import com.example.demo.service.VehicleService;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -21,25 +35,66 @@ public class VehicleController {
  @Autowired
  private VehicleService vehicleService;
  
+ @Autowired
+ private AvailabilityService availabilityService;
+ 
+ @Autowired
+ private VehicleImportService vehicleImportService;
+ 
+ @Autowired
+ private CatalogVersions catalogVersions;
+ 
+ @Value("${catalog.http-cache.max-age:30s}")
+ private Duration cacheMaxAge;
+ 
+ // Catalog GETs carry an ETag from CatalogVersions; a matching If-None-Match is answered with 304
+ // before any query runs or anything is serialized
  @GetMapping
- public ResponseEntity<Map<String, List<Vehicle>>> getAllVehicles() {
-     List<Vehicle> cars = vehicleService.getVehiclesByType(VehicleType.CAR);
-     List<Vehicle> bikes = vehicleService.getVehiclesByType(VehicleType.BIKE);
+ public ResponseEntity<Map<String, List<VehicleResponse>>> getAllVehicles(WebRequest webRequest) {
+     String eTag = catalogVersions.vehiclesTag();
+     if (webRequest.checkNotModified(eTag)) {
+         return notModified(eTag, catalogCacheControl());
+     }
+     List<VehicleResponse> cars = vehicleService.getVehiclesByType(VehicleType.CAR);
+     List<VehicleResponse> bikes = vehicleService.getVehiclesByType(VehicleType.BIKE);
      
-     Map<String, List<Vehicle>> response = new HashMap<>();
+     Map<String, List<VehicleResponse>> response = new HashMap<>();
      response.put("cars", cars);
      response.put("bikes", bikes);
      
-     return ResponseEntity.ok(response);
+     return ResponseEntity.ok().eTag(eTag).cacheControl(catalogCacheControl()).body(response);
  }
  
+ // Without a date range this is the plain "in service" list; with one, booked vehicles are filtered out in memory
  @GetMapping("/available")
- public ResponseEntity<List<Vehicle>> getAvailableVehicles() {
-     return ResponseEntity.ok(vehicleService.getAvailableVehicles());
+ public ResponseEntity<List<VehicleResponse>> getAvailableVehicles(
+         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+         @RequestParam(required = false) VehicleType type,
+         WebRequest webRequest) {
+     if ((from == null) != (to == null) || (from != null && to.isBefore(from))) {
+         return ResponseEntity.badRequest().build();
+     }
+     boolean dateRange = from != null;
+     
+     // Bookings change date-range results at any time, so those are always revalidated
+     String eTag = dateRange ? catalogVersions.vehiclesTag(availabilityService.version()) : catalogVersions.vehiclesTag();
+     CacheControl cacheControl = dateRange ? CacheControl.noCache().cachePublic() : catalogCacheControl();
+     if (webRequest.checkNotModified(eTag)) {
+         return notModified(eTag, cacheControl);
+     }
+     
+     List<VehicleResponse> vehicles = type != null
+             ? vehicleService.getAvailableVehiclesByType(type)
+             : vehicleService.getAvailableVehicles();
+     if (dateRange) {
+         vehicles = availabilityService.filterAvailable(vehicles, from, to);
+     }
+     return ResponseEntity.ok().eTag(eTag).cacheControl(cacheControl).body(vehicles);
  }
  
  @GetMapping("/damaged")
- public ResponseEntity<List<Vehicle>> getDamagedVehicles() {
+ public ResponseEntity<List<VehicleResponse>> getDamagedVehicles() {
      return ResponseEntity.ok(vehicleService.getDamagedVehicles());
  }
  
@@ -48,6 +103,28 @@ public class VehicleController {
      return ResponseEntity.ok(vehicleService.saveVehicle(vehicle));
  }
  
+ // Bulk onboarding: CSV with a header row (name,model,number,rentCost,type[,available,damaged])
+ @PostMapping(value = "/import", consumes = "text/csv")
+ public ResponseEntity<?> importVehiclesCsv(InputStream body) {
+     try {
+         VehicleImportResult result = vehicleImportService.importCsv(body);
+         return ResponseEntity.ok(result);
+     } catch (IllegalArgumentException | IOException e) {
+         return ResponseEntity.badRequest().body(e.getMessage());
+     }
+ }
+ 
+ // Bulk onboarding: a JSON array (or newline-delimited objects) with the same fields as POST /api/vehicles
+ @PostMapping(value = "/import", consumes = {"application/json", "application/x-ndjson"})
+ public ResponseEntity<?> importVehiclesJson(InputStream body) {
+     try {
+         VehicleImportResult result = vehicleImportService.importJson(body);
+         return ResponseEntity.ok(result);
+     } catch (IOException e) {
+         return ResponseEntity.badRequest().body(e.getMessage());
+     }
+ }
+ 
  @PutMapping("/{id}/damage")
  public ResponseEntity<Vehicle> markAsDamaged(@PathVariable Long id) {
      Vehicle vehicle = vehicleService.markAsDamaged(id);
@@ -59,4 +136,13 @@ public class VehicleController {
      Vehicle vehicle = vehicleService.markAsRepaired(id);
      return vehicle != null ? ResponseEntity.ok(vehicle) : ResponseEntity.notFound().build();
  }
+ 
+ // Shared caches may keep the catalog for max-age, then must revalidate with the ETag
+ private CacheControl catalogCacheControl() {
+     return CacheControl.maxAge(cacheMaxAge).cachePublic().mustRevalidate();
+ }
+ 
+ private static <T> ResponseEntity<T> notModified(String eTag, CacheControl cacheControl) {
+     return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(cacheControl).build();
+ }
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+// dto/BatchRequest.java
+package com.example.demo.dto;
+
+import java.util.List;
+
+public class BatchRequest {
+    private List<Long> ids;
+
+    // Getters and Setters
+    public List<Long> getIds() { return ids; }
+    public void setIds(List<Long> ids) { this.ids = ids; }
+}
@@ -0,0 +1,61 @@
+// dto/BatchTransitionResult.java
+package com.example.demo.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Per-id outcome of a batch status change, in request order; safe to retry with the same ids
+public class BatchTransitionResult {
+
+    public enum Outcome {
+        UPDATED,          // moved to the target status by this call
+        ALREADY_APPLIED,  // already in the target status (e.g. a retried request)
+        INVALID_STATE,    // in a status the transition does not start from
+        NOT_FOUND
+    }
+
+    public static class Item {
+        private Long id;
+        private Outcome outcome;
+
+        public Item(Long id, Outcome outcome) {
+            this.id = id;
+            this.outcome = outcome;
+        }
+
+        public Long getId() { return id; }
+        public Outcome getOutcome() { return outcome; }
+    }
+
+    private String fromStatus;
+    private String toStatus;
+    private List<Item> results = new ArrayList<>();
+    private int updated;
+    private int alreadyApplied;
+    private int invalidState;
+    private int notFound;
+
+    public BatchTransitionResult(String fromStatus, String toStatus) {
+        this.fromStatus = fromStatus;
+        this.toStatus = toStatus;
+    }
+
+    public void add(Long id, Outcome outcome) {
+        results.add(new Item(id, outcome));
+        switch (outcome) {
+            case UPDATED -> updated++;
+            case ALREADY_APPLIED -> alreadyApplied++;
+            case INVALID_STATE -> invalidState++;
+            case NOT_FOUND -> notFound++;
+        }
+    }
+
+    // Getters
+    public String getFromStatus() { return fromStatus; }
+    public String getToStatus() { return toStatus; }
+    public List<Item> getResults() { return results; }
+    public int getUpdated() { return updated; }
+    public int getAlreadyApplied() { return alreadyApplied; }
+    public int getInvalidState() { return invalidState; }
+    public int getNotFound() { return notFound; }
+}
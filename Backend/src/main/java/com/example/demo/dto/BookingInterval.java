@@ -0,0 +1,23 @@
+package com.example.demo.dto;
+
+import java.time.LocalDateTime;
+
+// Lightweight (bookingId, vehicleId, startDate, endDate) row used to add bookings to the availability index
+public class BookingInterval {
+    private final Long bookingId;
+    private final Long vehicleId;
+    private final LocalDateTime startDate;
+    private final LocalDateTime endDate;
+
+    public BookingInterval(Long bookingId, Long vehicleId, LocalDateTime startDate, LocalDateTime endDate) {
+        this.bookingId = bookingId;
+        this.vehicleId = vehicleId;
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    public Long getBookingId() { return bookingId; }
+    public Long getVehicleId() { return vehicleId; }
+    public LocalDateTime getStartDate() { return startDate; }
+    public LocalDateTime getEndDate() { return endDate; }
+}
@@ -0,0 +1,91 @@
+// dto/BookingResponse.java
+package com.example.demo.dto;
+
+import com.example.demo.model.Booking;
+import com.example.demo.model.BookingStatus;
+import com.example.demo.model.User;
+import com.example.demo.model.Vehicle;
+import com.example.demo.model.VehicleType;
+import java.time.LocalDateTime;
+
+public class BookingResponse {
+    private Long id;
+    private Long userId;
+    private String userName;
+    private String userEmail;
+    private Long vehicleId;
+    private String vehicleName;
+    private VehicleType vehicleType;
+    private LocalDateTime bookingDate;
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+    private BookingStatus status;
+
+    public BookingResponse() {}
+
+    // Used by the single-query projections in BookingRepository
+    public BookingResponse(Long id, Long userId, String userName, String userEmail,
+                           Long vehicleId, String vehicleName, VehicleType vehicleType,
+                           LocalDateTime bookingDate, LocalDateTime startDate, LocalDateTime endDate,
+                           BookingStatus status) {
+        this.id = id;
+        this.userId = userId;
+        this.userName = userName;
+        this.userEmail = userEmail;
+        this.vehicleId = vehicleId;
+        this.vehicleName = vehicleName;
+        this.vehicleType = vehicleType;
+        this.bookingDate = bookingDate;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.status = status;
+    }
+
+    // For bookings loaded with their user and vehicle already fetched
+    public static BookingResponse from(Booking booking) {
+        User user = booking.getUser();
+        Vehicle vehicle = booking.getVehicle();
+        return new BookingResponse(booking.getId(),
+                user != null ? user.getId() : null,
+                user != null ? user.getName() : null,
+                user != null ? user.getEmail() : null,
+                vehicle != null ? vehicle.getId() : null,
+                vehicle != null ? vehicle.getName() : null,
+                vehicle != null ? vehicle.getType() : null,
+                booking.getBookingDate(), booking.getStartDate(), booking.getEndDate(), booking.getStatus());
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public String getUserName() { return userName; }
+    public void setUserName(String userName) { this.userName = userName; }
+
+    public String getUserEmail() { return userEmail; }
+    public void setUserEmail(String userEmail) { this.userEmail = userEmail; }
+
+    public Long getVehicleId() { return vehicleId; }
+    public void setVehicleId(Long vehicleId) { this.vehicleId = vehicleId; }
+
+    public String getVehicleName() { return vehicleName; }
+    public void setVehicleName(String vehicleName) { this.vehicleName = vehicleName; }
+
+    public VehicleType getVehicleType() { return vehicleType; }
+    public void setVehicleType(VehicleType vehicleType) { this.vehicleType = vehicleType; }
+
+    public LocalDateTime getBookingDate() { return bookingDate; }
+    public void setBookingDate(LocalDateTime bookingDate) { this.bookingDate = bookingDate; }
+
+    public LocalDateTime getStartDate() { return startDate; }
+    public void setStartDate(LocalDateTime startDate) { this.startDate = startDate; }
+
+    public LocalDateTime getEndDate() { return endDate; }
+    public void setEndDate(LocalDateTime endDate) { this.endDate = endDate; }
+
+    public BookingStatus getStatus() { return status; }
+    public void setStatus(BookingStatus status) { this.status = status; }
+}
@@ -0,0 +1,38 @@
+// dto/CursorPage.java
+package com.example.demo.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+// One page of a keyset-paginated listing; pass nextCursor back unchanged as ?cursor= (with the same
+// filters) to get the following page. The cursor is opaque: an id, or "date~id" for date-filtered listings.
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasMore;
+
+    public CursorPage(List<T> items, String nextCursor, boolean hasMore) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    // Builds a page from a query that fetched limit + 1 rows in keyset order
+    public static <E, T> CursorPage<T> of(List<E> rows, int limit, Function<E, String> cursorOf,
+                                          Function<E, T> mapper) {
+        boolean hasMore = rows.size() > limit;
+        List<E> pageRows = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = hasMore ? cursorOf.apply(pageRows.get(pageRows.size() - 1)) : null;
+        return new CursorPage<>(pageRows.stream().map(mapper).toList(), nextCursor, hasMore);
+    }
+
+    // Getters and Setters
+    public List<T> getItems() { return items; }
+    public void setItems(List<T> items) { this.items = items; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+}
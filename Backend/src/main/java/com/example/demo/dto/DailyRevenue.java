@@ -0,0 +1,28 @@
+package com.example.demo.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// One point of the daily revenue series for one key
+public class DailyRevenue {
+    private LocalDate date;
+    private String key;
+    private BigDecimal rentalRevenue;
+    private BigDecimal paymentRevenue;
+
+    public DailyRevenue(LocalDate date, String key, BigDecimal rentalRevenue, BigDecimal paymentRevenue) {
+        this.date = date;
+        this.key = key;
+        this.rentalRevenue = rentalRevenue == null ? BigDecimal.ZERO : rentalRevenue;
+        this.paymentRevenue = paymentRevenue == null ? BigDecimal.ZERO : paymentRevenue;
+    }
+
+    public LocalDate getDate() { return date; }
+    public String getKey() { return key; }
+    public BigDecimal getRentalRevenue() { return rentalRevenue; }
+    public BigDecimal getPaymentRevenue() { return paymentRevenue; }
+
+    public BigDecimal getRevenue() {
+        return rentalRevenue.add(paymentRevenue);
+    }
+}
@@ -1,7 +1,10 @@
 // dto/PaymentResponse.java
 package com.example.demo.dto;
 
+import com.example.demo.model.Booking;
+import com.example.demo.model.Payment;
 import com.example.demo.model.PaymentStatus;
+import com.example.demo.model.User;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
@@ -18,6 +21,35 @@ public class PaymentResponse {
     // Constructors, getters, and setters
     public PaymentResponse() {}
 
+    // Used by the single-query projections in PaymentRepository
+    public PaymentResponse(Long id, String userName, String userEmail,
+                           Long bookingId, String vehicleName, LocalDateTime startDate, LocalDateTime endDate,
+                           BigDecimal amount, LocalDateTime paymentDate, PaymentStatus status, String paymentMethod) {
+        this.id = id;
+        this.userName = userName;
+        this.userEmail = userEmail;
+        this.bookingDetails = bookingId == null ? null
+                : "Booking #" + bookingId + " - " + vehicleName + " (" + startDate + " to " + endDate + ")";
+        this.amount = amount;
+        this.paymentDate = paymentDate;
+        this.status = status;
+        this.paymentMethod = paymentMethod;
+    }
+
+    // For payments loaded with their user, booking and vehicle already fetched
+    public static PaymentResponse from(Payment payment) {
+        User user = payment.getUser();
+        Booking booking = payment.getBooking();
+        return new PaymentResponse(payment.getId(),
+                user != null ? user.getName() : null,
+                user != null ? user.getEmail() : null,
+                booking != null ? booking.getId() : null,
+                booking != null && booking.getVehicle() != null ? booking.getVehicle().getName() : null,
+                booking != null ? booking.getStartDate() : null,
+                booking != null ? booking.getEndDate() : null,
+                payment.getAmount(), payment.getPaymentDate(), payment.getStatus(), payment.getPaymentMethod());
+    }
+
     // Getters and setters for all fields
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -0,0 +1,20 @@
+// dto/QuoteRequest.java
+package com.example.demo.dto;
+
+import java.time.LocalDate;
+
+public class QuoteRequest {
+    private Long vehicleId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+
+    // Getters and Setters
+    public Long getVehicleId() { return vehicleId; }
+    public void setVehicleId(Long vehicleId) { this.vehicleId = vehicleId; }
+
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+
+    public LocalDate getEndDate() { return endDate; }
+    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+}
@@ -0,0 +1,45 @@
+// dto/QuoteResponse.java
+package com.example.demo.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class QuoteResponse {
+    private Long vehicleId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private long days;
+    private BigDecimal dailyRate;
+    private BigDecimal baseAmount;
+    private BigDecimal discount;
+    private BigDecimal totalCost;
+    private Long offerId;      // null when no offer applies
+    private String offerTitle;
+
+    public QuoteResponse(Long vehicleId, LocalDate startDate, LocalDate endDate, long days,
+                         BigDecimal dailyRate, BigDecimal baseAmount, BigDecimal discount,
+                         BigDecimal totalCost, Long offerId, String offerTitle) {
+        this.vehicleId = vehicleId;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.days = days;
+        this.dailyRate = dailyRate;
+        this.baseAmount = baseAmount;
+        this.discount = discount;
+        this.totalCost = totalCost;
+        this.offerId = offerId;
+        this.offerTitle = offerTitle;
+    }
+
+    // Getters
+    public Long getVehicleId() { return vehicleId; }
+    public LocalDate getStartDate() { return startDate; }
+    public LocalDate getEndDate() { return endDate; }
+    public long getDays() { return days; }
+    public BigDecimal getDailyRate() { return dailyRate; }
+    public BigDecimal getBaseAmount() { return baseAmount; }
+    public BigDecimal getDiscount() { return discount; }
+    public BigDecimal getTotalCost() { return totalCost; }
+    public Long getOfferId() { return offerId; }
+    public String getOfferTitle() { return offerTitle; }
+}
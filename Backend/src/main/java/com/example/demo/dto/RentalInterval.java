@@ -0,0 +1,26 @@
+package com.example.demo.dto;
+
+import java.time.LocalDate;
+
+// Lightweight (rentalId, vehicleId, userId, startDate, endDate) row used to build the availability index
+public class RentalInterval {
+    private final Long rentalId;
+    private final Long vehicleId;
+    private final Long userId;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+
+    public RentalInterval(Long rentalId, Long vehicleId, Long userId, LocalDate startDate, LocalDate endDate) {
+        this.rentalId = rentalId;
+        this.vehicleId = vehicleId;
+        this.userId = userId;
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    public Long getRentalId() { return rentalId; }
+    public Long getVehicleId() { return vehicleId; }
+    public Long getUserId() { return userId; }
+    public LocalDate getStartDate() { return startDate; }
+    public LocalDate getEndDate() { return endDate; }
+}
@@ -0,0 +1,68 @@
+package com.example.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Rollup counters summed over a date range for one key, with the derived rates
+public class RollupTotals {
+    private String key;
+    private long rentalsStarted;
+    private long rentalsCompleted;
+    private long rentedDays;
+    private BigDecimal rentalRevenue;
+    private BigDecimal paymentRevenue;
+    private long damageReports;
+    private Long fleetDays;
+    private Long capacityDays;
+
+    public RollupTotals(String key, Long rentalsStarted, Long rentalsCompleted, Long rentedDays,
+                        BigDecimal rentalRevenue, BigDecimal paymentRevenue, Long damageReports, Long fleetDays) {
+        this.key = key;
+        this.rentalsStarted = rentalsStarted == null ? 0 : rentalsStarted;
+        this.rentalsCompleted = rentalsCompleted == null ? 0 : rentalsCompleted;
+        this.rentedDays = rentedDays == null ? 0 : rentedDays;
+        this.rentalRevenue = rentalRevenue == null ? BigDecimal.ZERO : rentalRevenue;
+        this.paymentRevenue = paymentRevenue == null ? BigDecimal.ZERO : paymentRevenue;
+        this.damageReports = damageReports == null ? 0 : damageReports;
+        this.fleetDays = fleetDays;
+    }
+
+    public String getKey() { return key; }
+    public long getRentalsStarted() { return rentalsStarted; }
+    public long getRentalsCompleted() { return rentalsCompleted; }
+    public long getRentedDays() { return rentedDays; }
+    public BigDecimal getRentalRevenue() { return rentalRevenue; }
+    public BigDecimal getPaymentRevenue() { return paymentRevenue; }
+    public long getDamageReports() { return damageReports; }
+
+    // Sum of the daily fleet-size snapshots (FLEET and VEHICLE_TYPE rows only)
+    @JsonIgnore
+    public Long getFleetDays() { return fleetDays; }
+
+    // Vehicle-days that could have been rented; null where it is not defined (pickup locations)
+    public Long getCapacityDays() { return capacityDays; }
+    public void setCapacityDays(Long capacityDays) { this.capacityDays = capacityDays; }
+
+    public BigDecimal getRevenue() {
+        return rentalRevenue.add(paymentRevenue);
+    }
+
+    // Rented vehicle-days as a percentage of capacity
+    public BigDecimal getUtilizationPercent() {
+        return percent(rentedDays, capacityDays);
+    }
+
+    // Damage reports per completed rental, as a percentage
+    public BigDecimal getDamageRatePercent() {
+        return percent(damageReports, rentalsCompleted);
+    }
+
+    private static BigDecimal percent(long part, Long whole) {
+        if (whole == null || whole == 0) {
+            return null;
+        }
+        return BigDecimal.valueOf(part * 100).divide(BigDecimal.valueOf(whole), 2, RoundingMode.HALF_UP);
+    }
+}
@@ -2,6 +2,8 @@
 // dto/UserDTO.java
 package com.example.demo.dto;
 
+import com.example.demo.model.User;
+
 import java.time.LocalDateTime;
 
 public class UserDTO {
@@ -14,6 +16,16 @@ public class UserDTO {
     private LocalDateTime joinDate;
     private int totalBookings;
     
+    // Public profile of a user for listings; never carries the password hash
+    public static UserDTO from(User user) {
+        UserDTO dto = new UserDTO();
+        dto.setId(user.getId());
+        dto.setName(user.getName());
+        dto.setEmail(user.getEmail());
+        dto.setRole(user.getRole());
+        return dto;
+    }
+    
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -0,0 +1,46 @@
+// dto/VehicleImportResult.java
+package com.example.demo.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Outcome of a bulk vehicle import; rows are 1-based (for CSV, the header is row 1)
+public class VehicleImportResult {
+    private long received;
+    private long imported;
+    private long failed;
+    private List<RowError> errors = new ArrayList<>();
+    private boolean errorsTruncated;
+
+    public static class RowError {
+        private long row;
+        private String number;
+        private String message;
+
+        public RowError(long row, String number, String message) {
+            this.row = row;
+            this.number = number;
+            this.message = message;
+        }
+
+        public long getRow() { return row; }
+        public String getNumber() { return number; }
+        public String getMessage() { return message; }
+    }
+
+    // Getters and Setters
+    public long getReceived() { return received; }
+    public void setReceived(long received) { this.received = received; }
+
+    public long getImported() { return imported; }
+    public void setImported(long imported) { this.imported = imported; }
+
+    public long getFailed() { return failed; }
+    public void setFailed(long failed) { this.failed = failed; }
+
+    public List<RowError> getErrors() { return errors; }
+    public void setErrors(List<RowError> errors) { this.errors = errors; }
+
+    public boolean isErrorsTruncated() { return errorsTruncated; }
+    public void setErrorsTruncated(boolean errorsTruncated) { this.errorsTruncated = errorsTruncated; }
+}
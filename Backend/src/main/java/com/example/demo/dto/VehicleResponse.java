@@ -0,0 +1,45 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.Vehicle;
+import com.example.demo.model.VehicleType;
+
+import java.math.BigDecimal;
+
+// Immutable catalog view of a vehicle; the cached VehicleService reads hand the same instance to every
+// caller, so it must not be a managed (or mutable) entity. Serializes like Vehicle.
+public final class VehicleResponse {
+    private final Long id;
+    private final String name;
+    private final String model;
+    private final String number;
+    private final BigDecimal rentCost;
+    private final VehicleType type;
+    private final boolean available;
+    private final boolean damaged;
+
+    public VehicleResponse(Long id, String name, String model, String number, BigDecimal rentCost,
+                           VehicleType type, boolean available, boolean damaged) {
+        this.id = id;
+        this.name = name;
+        this.model = model;
+        this.number = number;
+        this.rentCost = rentCost;
+        this.type = type;
+        this.available = available;
+        this.damaged = damaged;
+    }
+
+    public static VehicleResponse from(Vehicle vehicle) {
+        return new VehicleResponse(vehicle.getId(), vehicle.getName(), vehicle.getModel(), vehicle.getNumber(),
+                vehicle.getRentCost(), vehicle.getType(), vehicle.isAvailable(), vehicle.isDamaged());
+    }
+
+    public Long getId() { return id; }
+    public String getName() { return name; }
+    public String getModel() { return model; }
+    public String getNumber() { return number; }
+    public BigDecimal getRentCost() { return rentCost; }
+    public VehicleType getType() { return type; }
+    public boolean isAvailable() { return available; }
+    public boolean isDamaged() { return damaged; }
+}
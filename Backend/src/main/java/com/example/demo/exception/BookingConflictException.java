@@ -0,0 +1,15 @@
+package com.example.demo.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// Thrown when a reservation overlaps an existing rental or booking of the same vehicle
+@ResponseStatus(HttpStatus.CONFLICT)
+public class BookingConflictException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public BookingConflictException(String message) {
+        super(message);
+    }
+}
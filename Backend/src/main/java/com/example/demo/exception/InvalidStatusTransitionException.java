@@ -0,0 +1,15 @@
+package com.example.demo.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// Thrown when a status change is not allowed from the current status, or lost to a concurrent change
+@ResponseStatus(HttpStatus.CONFLICT)
+public class InvalidStatusTransitionException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidStatusTransitionException(String message) {
+        super(message);
+    }
+}
@@ -1,21 +1,33 @@
 // model/Booking.java
 package com.example.demo.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings", indexes = {
+    @Index(name = "idx_bookings_status_id", columnList = "status, id"),
+    @Index(name = "idx_bookings_user_id", columnList = "user_id, id"),
+    @Index(name = "idx_bookings_vehicle_id", columnList = "vehicle_id, id"),
+    @Index(name = "idx_bookings_booking_date_id", columnList = "booking_date, id"),
+    @Index(name = "idx_bookings_vehicle_dates", columnList = "vehicle_id, start_date, end_date")
+})
+@NamedEntityGraph(name = "Booking.details", attributeNodes = {
+    @NamedAttributeNode("user"),
+    @NamedAttributeNode("vehicle")
+})
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Booking {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "vehicle_id")
     private Vehicle vehicle;
     
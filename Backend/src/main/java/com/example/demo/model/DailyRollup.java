@@ -0,0 +1,76 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// One day of rental, revenue and damage counters for one vehicle, vehicle type, pickup location or the whole fleet
+@Entity
+@Table(name = "analytics_daily_rollups",
+    uniqueConstraints = @UniqueConstraint(name = "uk_rollups_dimension_key_date",
+        columnNames = {"dimension", "dim_key", "rollup_date"}),
+    indexes = @Index(name = "idx_rollups_dimension_date", columnList = "dimension, rollup_date"))
+public class DailyRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private RollupDimension dimension;
+
+    @Column(nullable = false, length = 100)
+    private String dimKey;
+
+    @Column(nullable = false)
+    private LocalDate rollupDate;
+
+    private int rentalsStarted;
+    private int rentalsCompleted;
+    private int rentedDays;
+
+    @Column(precision = 14, scale = 2)
+    private BigDecimal rentalRevenue = BigDecimal.ZERO;
+
+    @Column(precision = 14, scale = 2)
+    private BigDecimal paymentRevenue = BigDecimal.ZERO;
+
+    private int damageReports;
+
+    // Vehicles in the fleet (or of the type) that day; only set on FLEET and VEHICLE_TYPE rows
+    private Integer fleetSize;
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public RollupDimension getDimension() { return dimension; }
+    public void setDimension(RollupDimension dimension) { this.dimension = dimension; }
+
+    public String getDimKey() { return dimKey; }
+    public void setDimKey(String dimKey) { this.dimKey = dimKey; }
+
+    public LocalDate getRollupDate() { return rollupDate; }
+    public void setRollupDate(LocalDate rollupDate) { this.rollupDate = rollupDate; }
+
+    public int getRentalsStarted() { return rentalsStarted; }
+    public void setRentalsStarted(int rentalsStarted) { this.rentalsStarted = rentalsStarted; }
+
+    public int getRentalsCompleted() { return rentalsCompleted; }
+    public void setRentalsCompleted(int rentalsCompleted) { this.rentalsCompleted = rentalsCompleted; }
+
+    public int getRentedDays() { return rentedDays; }
+    public void setRentedDays(int rentedDays) { this.rentedDays = rentedDays; }
+
+    public BigDecimal getRentalRevenue() { return rentalRevenue; }
+    public void setRentalRevenue(BigDecimal rentalRevenue) { this.rentalRevenue = rentalRevenue; }
+
+    public BigDecimal getPaymentRevenue() { return paymentRevenue; }
+    public void setPaymentRevenue(BigDecimal paymentRevenue) { this.paymentRevenue = paymentRevenue; }
+
+    public int getDamageReports() { return damageReports; }
+    public void setDamageReports(int damageReports) { this.damageReports = damageReports; }
+
+    public Integer getFleetSize() { return fleetSize; }
+    public void setFleetSize(Integer fleetSize) { this.fleetSize = fleetSize; }
+}
@@ -0,0 +1,39 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+// One counted damage report, keyed by its outbox event id so a redelivered event is counted once
+@Entity
+@Table(name = "analytics_damage_facts")
+public class DamageFact {
+    @Id
+    private Long eventId;
+
+    private Long vehicleId;
+    private String vehicleType;
+    private LocalDate reportedOn;
+
+    // Constructors
+    public DamageFact() {}
+
+    public DamageFact(Long eventId, Long vehicleId, String vehicleType, LocalDate reportedOn) {
+        this.eventId = eventId;
+        this.vehicleId = vehicleId;
+        this.vehicleType = vehicleType;
+        this.reportedOn = reportedOn;
+    }
+
+    // Getters and Setters
+    public Long getEventId() { return eventId; }
+    public void setEventId(Long eventId) { this.eventId = eventId; }
+
+    public Long getVehicleId() { return vehicleId; }
+    public void setVehicleId(Long vehicleId) { this.vehicleId = vehicleId; }
+
+    public String getVehicleType() { return vehicleType; }
+    public void setVehicleType(String vehicleType) { this.vehicleType = vehicleType; }
+
+    public LocalDate getReportedOn() { return reportedOn; }
+    public void setReportedOn(LocalDate reportedOn) { this.reportedOn = reportedOn; }
+}
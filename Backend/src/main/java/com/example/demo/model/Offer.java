@@ -5,7 +5,7 @@ import jakarta.persistence.*;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "offers")
+@Table(name = "offers", indexes = @Index(name = "idx_offers_active", columnList = "active"))
 public class Offer {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
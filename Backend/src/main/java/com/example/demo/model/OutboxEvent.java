@@ -0,0 +1,90 @@
+// model/OutboxEvent.java
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// A domain event written in the same transaction as the change it describes; relayed later by OutboxRelay
+@Entity
+@Table(name = "outbox_events", indexes = {
+    @Index(name = "idx_outbox_published_id", columnList = "published_at, id"),
+    @Index(name = "idx_outbox_publish_seq", columnList = "publish_seq", unique = true)
+})
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String eventType;
+
+    @Column(nullable = false, length = 32)
+    private String aggregateType;
+
+    private Long aggregateId;
+
+    @Column(columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime publishedAt;
+
+    // Publication order, assigned by the relay; ids are allocated at insert and can commit out of order
+    private Long publishSeq;
+
+    // Failed deliveries so far; the relay parks the event at outbox.relay.max-attempts
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    private LocalDateTime parkedAt;
+
+    // Constructors
+    public OutboxEvent() {}
+
+    public OutboxEvent(String eventType, String aggregateType, Long aggregateId, String payload) {
+        this.eventType = eventType;
+        this.aggregateType = aggregateType;
+        this.aggregateId = aggregateId;
+        this.payload = payload;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getEventType() { return eventType; }
+    public void setEventType(String eventType) { this.eventType = eventType; }
+
+    public String getAggregateType() { return aggregateType; }
+    public void setAggregateType(String aggregateType) { this.aggregateType = aggregateType; }
+
+    public Long getAggregateId() { return aggregateId; }
+    public void setAggregateId(Long aggregateId) { this.aggregateId = aggregateId; }
+
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getPublishedAt() { return publishedAt; }
+    public void setPublishedAt(LocalDateTime publishedAt) { this.publishedAt = publishedAt; }
+
+    public Long getPublishSeq() { return publishSeq; }
+    public void setPublishSeq(Long publishSeq) { this.publishSeq = publishSeq; }
+
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+
+    public LocalDateTime getParkedAt() { return parkedAt; }
+    public void setParkedAt(LocalDateTime parkedAt) { this.parkedAt = parkedAt; }
+}
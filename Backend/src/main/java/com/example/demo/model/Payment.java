@@ -1,22 +1,36 @@
 // model/Payment.java
 package com.example.demo.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "payments")
+@Table(name = "payments", indexes = {
+    @Index(name = "idx_payments_status_id", columnList = "status, id"),
+    @Index(name = "idx_payments_user_id", columnList = "user_id, id"),
+    @Index(name = "idx_payments_payment_date_id", columnList = "payment_date, id"),
+    @Index(name = "idx_payments_user_status", columnList = "user_id, status"),
+    @Index(name = "idx_payments_status_payment_date", columnList = "status, payment_date"),
+    @Index(name = "idx_payments_status_processing", columnList = "status, processing_started_at")
+})
+@NamedEntityGraph(name = "Payment.details", attributeNodes = {
+    @NamedAttributeNode("user"),
+    @NamedAttributeNode(value = "booking", subgraph = "booking")
+}, subgraphs = @NamedSubgraph(name = "booking", attributeNodes = @NamedAttributeNode("vehicle")))
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Payment {
  @Id
  @GeneratedValue(strategy = GenerationType.IDENTITY)
  private Long id;
  
- @ManyToOne
+ @ManyToOne(fetch = FetchType.LAZY)
  @JoinColumn(name = "user_id")
  private User user;
  
- @ManyToOne
+ @ManyToOne(fetch = FetchType.LAZY)
  @JoinColumn(name = "booking_id")
  private Booking booking;
  
@@ -28,6 +42,10 @@ public class Payment {
  
  private String paymentMethod;
  
+ // Set when a pipeline worker claims the payment; lets the sweeper spot workers that died mid-charge
+ @JsonIgnore
+ private LocalDateTime processingStartedAt;
+ 
  // Constructors
  public Payment() {
      this.paymentDate = LocalDateTime.now();
@@ -61,4 +79,7 @@ public class Payment {
  
  public String getPaymentMethod() { return paymentMethod; }
  public void setPaymentMethod(String paymentMethod) { this.paymentMethod = paymentMethod; }
+ 
+ public LocalDateTime getProcessingStartedAt() { return processingStartedAt; }
+ public void setProcessingStartedAt(LocalDateTime processingStartedAt) { this.processingStartedAt = processingStartedAt; }
 }
\ No newline at end of file
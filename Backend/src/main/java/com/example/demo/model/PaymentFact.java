@@ -0,0 +1,50 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Analytics' copy of a payment as last counted; revenueDate is the day it was captured
+@Entity
+@Table(name = "analytics_payment_facts")
+public class PaymentFact {
+    @Id
+    private Long paymentId;
+
+    private Long vehicleId;
+    private String vehicleType;
+
+    @Enumerated(EnumType.STRING)
+    private PaymentStatus status;
+
+    @Column(precision = 12, scale = 2)
+    private BigDecimal amount;
+
+    private LocalDate revenueDate;
+
+    // Constructors
+    public PaymentFact() {}
+
+    public PaymentFact(Long paymentId) {
+        this.paymentId = paymentId;
+    }
+
+    // Getters and Setters
+    public Long getPaymentId() { return paymentId; }
+    public void setPaymentId(Long paymentId) { this.paymentId = paymentId; }
+
+    public Long getVehicleId() { return vehicleId; }
+    public void setVehicleId(Long vehicleId) { this.vehicleId = vehicleId; }
+
+    public String getVehicleType() { return vehicleType; }
+    public void setVehicleType(String vehicleType) { this.vehicleType = vehicleType; }
+
+    public PaymentStatus getStatus() { return status; }
+    public void setStatus(PaymentStatus status) { this.status = status; }
+
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+
+    public LocalDate getRevenueDate() { return revenueDate; }
+    public void setRevenueDate(LocalDate revenueDate) { this.revenueDate = revenueDate; }
+}
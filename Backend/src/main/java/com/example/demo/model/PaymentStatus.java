@@ -1,5 +1,5 @@
 package com.example.demo.model;
 
 public enum PaymentStatus {
- PENDING, COMPLETED, FAILED, REFUNDED , REJECTED, CANCELLED 
+ PENDING, PROCESSING, COMPLETED, FAILED, REFUNDED , REJECTED, CANCELLED 
 }
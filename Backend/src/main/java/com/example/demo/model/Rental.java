@@ -5,7 +5,15 @@ import java.time.LocalDate;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "rentals")
+@Table(name = "rentals", indexes = {
+    @Index(name = "idx_rentals_status_id", columnList = "status, id"),
+    @Index(name = "idx_rentals_user_id", columnList = "user_id, id"),
+    @Index(name = "idx_rentals_vehicle_id", columnList = "vehicle_id, id"),
+    @Index(name = "idx_rentals_booking_date_id", columnList = "booking_date, id"),
+    @Index(name = "idx_rentals_user_status", columnList = "user_id, status"),
+    @Index(name = "idx_rentals_vehicle_dates", columnList = "vehicle_id, start_date, end_date"),
+    @Index(name = "idx_rentals_status_booking_date", columnList = "status, booking_date DESC")
+})
 public class Rental {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -20,9 +28,15 @@ public class Rental {
     private LocalDate startDate;
     private LocalDate endDate;
     private Double totalCost;
-    private String status; // "PENDING", "CONFIRMED", "COMPLETED", "REJECTED"
+    @Convert(converter = RentalStatusConverter.class)
+    @Column(nullable = false, columnDefinition = "tinyint")
+    private RentalStatus status;
     private String pickupLocation;
     private LocalDate bookingDate;
+    
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long version;
 	public Long getId() {
 		return id;
 	}
@@ -83,10 +97,10 @@ public class Rental {
 	public void setTotalCost(Double totalCost) {
 		this.totalCost = totalCost;
 	}
-	public String getStatus() {
+	public RentalStatus getStatus() {
 		return status;
 	}
-	public void setStatus(String status) {
+	public void setStatus(RentalStatus status) {
 		this.status = status;
 	}
 	public String getPickupLocation() {
@@ -101,6 +115,12 @@ public class Rental {
 	public void setBookingDate(LocalDate bookingDate) {
 		this.bookingDate = bookingDate;
 	}
+	public Long getVersion() {
+		return version;
+	}
+	public void setVersion(Long version) {
+		this.version = version;
+	}
     
     // Constructors, getters, and setters
 }
\ No newline at end of file
@@ -0,0 +1,58 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Analytics' copy of a rental as last counted, so a change can be applied to the rollups as old-minus-new
+@Entity
+@Table(name = "analytics_rental_facts")
+public class RentalFact {
+    @Id
+    private Long rentalId;
+
+    private Long vehicleId;
+    private String vehicleType;
+    private String pickupLocation;
+    private LocalDate startDate;
+    private LocalDate endDate;
+
+    @Convert(converter = RentalStatusConverter.class)
+    @Column(columnDefinition = "tinyint")
+    private RentalStatus status;
+
+    @Column(precision = 12, scale = 2)
+    private BigDecimal totalCost;
+
+    // Constructors
+    public RentalFact() {}
+
+    public RentalFact(Long rentalId) {
+        this.rentalId = rentalId;
+    }
+
+    // Getters and Setters
+    public Long getRentalId() { return rentalId; }
+    public void setRentalId(Long rentalId) { this.rentalId = rentalId; }
+
+    public Long getVehicleId() { return vehicleId; }
+    public void setVehicleId(Long vehicleId) { this.vehicleId = vehicleId; }
+
+    public String getVehicleType() { return vehicleType; }
+    public void setVehicleType(String vehicleType) { this.vehicleType = vehicleType; }
+
+    public String getPickupLocation() { return pickupLocation; }
+    public void setPickupLocation(String pickupLocation) { this.pickupLocation = pickupLocation; }
+
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+
+    public LocalDate getEndDate() { return endDate; }
+    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+
+    public RentalStatus getStatus() { return status; }
+    public void setStatus(RentalStatus status) { this.status = status; }
+
+    public BigDecimal getTotalCost() { return totalCost; }
+    public void setTotalCost(BigDecimal totalCost) { this.totalCost = totalCost; }
+}
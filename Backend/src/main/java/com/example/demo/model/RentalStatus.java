@@ -0,0 +1,43 @@
+package com.example.demo.model;
+
+// Lifecycle of a rental. The code is what the database stores (tinyint); never renumber an existing constant.
+public enum RentalStatus {
+    PENDING(1),
+    CONFIRMED(2),
+    COMPLETED(3),
+    REJECTED(4),
+    CANCELLED(5);
+
+    private final int code;
+
+    RentalStatus(int code) {
+        this.code = code;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    // Transition table: pending rentals are decided, confirmed ones finish or are called off, the rest are final
+    public boolean canTransitionTo(RentalStatus target) {
+        return switch (this) {
+            case PENDING -> target == CONFIRMED || target == REJECTED || target == CANCELLED;
+            case CONFIRMED -> target == COMPLETED || target == CANCELLED;
+            case COMPLETED, REJECTED, CANCELLED -> false;
+        };
+    }
+
+    // Rejected and cancelled rentals release their dates
+    public boolean blocksDates() {
+        return this != REJECTED && this != CANCELLED;
+    }
+
+    public static RentalStatus fromCode(int code) {
+        for (RentalStatus status : values()) {
+            if (status.code == code) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Unknown rental status code: " + code);
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.demo.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+// Stores RentalStatus as its stable numeric code instead of the name
+@Converter
+public class RentalStatusConverter implements AttributeConverter<RentalStatus, Integer> {
+
+    @Override
+    public Integer convertToDatabaseColumn(RentalStatus status) {
+        return status == null ? null : status.getCode();
+    }
+
+    @Override
+    public RentalStatus convertToEntityAttribute(Integer code) {
+        return code == null ? null : RentalStatus.fromCode(code);
+    }
+}
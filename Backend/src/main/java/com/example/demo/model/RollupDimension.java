@@ -0,0 +1,6 @@
+package com.example.demo.model;
+
+// What a DailyRollup row is keyed by; FLEET has the single key "ALL"
+public enum RollupDimension {
+    FLEET, VEHICLE, VEHICLE_TYPE, LOCATION
+}
@@ -0,0 +1,68 @@
+package com.example.demo.model;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Per-user dashboard read model, kept current by UserSummaryService from outbox events
+@Entity
+@Table(name = "user_summaries")
+public class UserSummary {
+    @Id
+    private Long userId;
+
+    // Bookings and rentals made by the user
+    private int totalBookings;
+
+    @Column(columnDefinition = "TEXT")
+    @JsonRawValue
+    private String activeRental;
+
+    @Column(precision = 12, scale = 2)
+    private BigDecimal lifetimeSpend = BigDecimal.ZERO;
+
+    private int pendingPayments;
+
+    @Column(precision = 12, scale = 2)
+    private BigDecimal pendingAmount = BigDecimal.ZERO;
+
+    // Newest first, as a JSON array
+    @Column(columnDefinition = "TEXT")
+    @JsonRawValue
+    private String recentRentals;
+
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public UserSummary() {}
+
+    public UserSummary(Long userId) {
+        this.userId = userId;
+    }
+
+    // Getters and Setters
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public int getTotalBookings() { return totalBookings; }
+    public void setTotalBookings(int totalBookings) { this.totalBookings = totalBookings; }
+
+    public String getActiveRental() { return activeRental; }
+    public void setActiveRental(String activeRental) { this.activeRental = activeRental; }
+
+    public BigDecimal getLifetimeSpend() { return lifetimeSpend; }
+    public void setLifetimeSpend(BigDecimal lifetimeSpend) { this.lifetimeSpend = lifetimeSpend; }
+
+    public int getPendingPayments() { return pendingPayments; }
+    public void setPendingPayments(int pendingPayments) { this.pendingPayments = pendingPayments; }
+
+    public BigDecimal getPendingAmount() { return pendingAmount; }
+    public void setPendingAmount(BigDecimal pendingAmount) { this.pendingAmount = pendingAmount; }
+
+    public String getRecentRentals() { return recentRentals; }
+    public void setRecentRentals(String recentRentals) { this.recentRentals = recentRentals; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -1,11 +1,18 @@
 // model/Vehicle.java
 package com.example.demo.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "vehicles")
+@Table(name = "vehicles", indexes = {
+    @Index(name = "idx_vehicles_type_available", columnList = "type, available"),
+    @Index(name = "idx_vehicles_available", columnList = "available"),
+    @Index(name = "idx_vehicles_damaged", columnList = "damaged")
+})
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Vehicle {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -26,6 +33,12 @@ public class Vehicle {
     private boolean available = true;
     private boolean damaged = false;
     
+    // Bumped by every reservation so concurrent bookings on other nodes fail fast
+    @Version
+    @JsonIgnore
+    @Column(columnDefinition = "bigint default 0")
+    private Long version;
+    
     // Constructors - ADD THESE
     public Vehicle() {}
     
@@ -61,4 +74,7 @@ public class Vehicle {
     
     public boolean isDamaged() { return damaged; }
     public void setDamaged(boolean damaged) { this.damaged = damaged; }
+    
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 }
\ No newline at end of file
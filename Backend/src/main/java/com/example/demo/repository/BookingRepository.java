@@ -1,9 +1,55 @@
 package com.example.demo.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import com.example.demo.dto.BookingInterval;
+import com.example.demo.dto.BookingResponse;
 import com.example.demo.model.Booking;
+import com.example.demo.model.Vehicle;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findByUserId(Long userId);
+public interface BookingRepository extends JpaRepository<Booking, Long>, JpaSpecificationExecutor<Booking> {
+    
+    // Listings are projected straight into BookingResponse with one joined select. The user is joined on
+    // fk(b.user) rather than through b.user, so fk(b.user) filters stay on bookings.user_id and its index.
+    String RESPONSE_SELECT = "SELECT new com.example.demo.dto.BookingResponse(" +
+            "b.id, u.id, u.name, u.email, v.id, v.name, v.type, " +
+            "b.bookingDate, b.startDate, b.endDate, b.status) " +
+            "FROM Booking b LEFT JOIN User u ON u.id = fk(b.user) LEFT JOIN b.vehicle v ";
+    
+    // fk() compares bookings.user_id itself; b.user.id would resolve to the joined users row and skip the index
+    @EntityGraph("Booking.details")
+    @Query("SELECT b FROM Booking b WHERE fk(b.user) = :userId")
+    List<Booking> findByUserId(@Param("userId") Long userId);
+    
+    @Query(RESPONSE_SELECT + "ORDER BY b.id")
+    List<BookingResponse> findAllResponses();
+    
+    @Query(RESPONSE_SELECT + "WHERE fk(b.user) = :userId ORDER BY b.id")
+    List<BookingResponse> findResponsesByUserId(@Param("userId") Long userId);
+    
+    @Query("SELECT COUNT(b) FROM Booking b WHERE fk(b.user) = :userId")
+    long countByUserId(@Param("userId") Long userId);
+    
+    @Query("SELECT v FROM Booking b JOIN b.vehicle v WHERE b.id = :bookingId")
+    Optional<Vehicle> findVehicleByBookingId(@Param("bookingId") Long bookingId);
+    
+    // Every non-cancelled booking with a vehicle and dates, for the startup load of the availability index
+    @Query("SELECT new com.example.demo.dto.BookingInterval(b.id, b.vehicle.id, b.startDate, b.endDate) " +
+           "FROM Booking b WHERE b.vehicle IS NOT NULL AND b.startDate IS NOT NULL AND b.endDate IS NOT NULL " +
+           "AND b.status <> com.example.demo.model.BookingStatus.CANCELLED")
+    List<BookingInterval> findBlockingIntervals();
+    
+    // Any non-cancelled booking of the vehicle overlapping [startDate, endDate)
+    @Query("SELECT COUNT(b) > 0 FROM Booking b WHERE b.vehicle.id = :vehicleId " +
+           "AND b.startDate < :endDate AND b.endDate > :startDate " +
+           "AND b.status <> com.example.demo.model.BookingStatus.CANCELLED")
+    boolean existsOverlapping(@Param("vehicleId") Long vehicleId,
+                              @Param("startDate") LocalDateTime startDate,
+                              @Param("endDate") LocalDateTime endDate);
 }
\ No newline at end of file
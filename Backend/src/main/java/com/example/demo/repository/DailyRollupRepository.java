@@ -0,0 +1,30 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.DailyRevenue;
+import com.example.demo.dto.RollupTotals;
+import com.example.demo.model.DailyRollup;
+import com.example.demo.model.RollupDimension;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.util.List;
+
+// Reports read only the rollups (idx_rollups_dimension_date), never rentals or payments
+@Repository
+public interface DailyRollupRepository extends JpaRepository<DailyRollup, Long> {
+
+    @Query("SELECT new com.example.demo.dto.RollupTotals(r.dimKey, SUM(r.rentalsStarted), SUM(r.rentalsCompleted), " +
+           "SUM(r.rentedDays), SUM(r.rentalRevenue), SUM(r.paymentRevenue), SUM(r.damageReports), SUM(r.fleetSize)) " +
+           "FROM DailyRollup r WHERE r.dimension = :dimension AND r.rollupDate BETWEEN :from AND :to " +
+           "GROUP BY r.dimKey ORDER BY r.dimKey")
+    List<RollupTotals> totals(@Param("dimension") RollupDimension dimension,
+                              @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT new com.example.demo.dto.DailyRevenue(r.rollupDate, r.dimKey, r.rentalRevenue, r.paymentRevenue) " +
+           "FROM DailyRollup r WHERE r.dimension = :dimension AND r.rollupDate BETWEEN :from AND :to " +
+           "ORDER BY r.rollupDate, r.dimKey")
+    List<DailyRevenue> dailyRevenue(@Param("dimension") RollupDimension dimension,
+                                    @Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -0,0 +1,181 @@
+package com.example.demo.repository;
+
+import jakarta.persistence.criteria.Fetch;
+import jakarta.persistence.criteria.JoinType;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+/**
+ * Building blocks for the keyset-paginated list endpoints.
+ *
+ * Every helper returns null when its filter is not set; the services only add
+ * the non-null ones, so the generated SQL contains just the active predicates
+ * and can use the matching composite index.
+ */
+public final class ListingSpecifications {
+
+    // Keyset order of unfiltered listings: newest first, id is the tie-free cursor
+    public static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "id");
+
+    // Separates the date from the id in a (date, id) cursor, e.g. "2024-05-01~123"
+    public static final String CURSOR_SEPARATOR = "~";
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 200;
+
+    private ListingSpecifications() {}
+
+    public static int clampLimit(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    // AND of all filters that are set
+    @SafeVarargs
+    public static <T> Specification<T> allOf(Specification<T>... specs) {
+        Specification<T> result = (root, query, cb) -> null;
+        for (Specification<T> spec : specs) {
+            if (spec != null) {
+                result = result.and(spec);
+            }
+        }
+        return result;
+    }
+
+    // Id-ordered keyset: the cursor is the last id of the previous page
+    public static <T> Keyset<T> byId(String cursor, Function<T, Long> idOf) {
+        Long afterId = cursor == null ? null : parseId(cursor);
+        return new Keyset<>(idBefore(afterId), NEWEST_FIRST, row -> String.valueOf(idOf.apply(row)));
+    }
+
+    /**
+     * Keyset on (date, id), newest first, for listings filtered by that date.
+     *
+     * Ids are allocated when a row is inserted and say nothing about its business
+     * date (a rental can be booked for last week today), so id order is not date
+     * order. Ordering by the date with the id as tie-breaker gives a stable,
+     * date-ordered walk that the (date, id) index serves for both the range and
+     * the sort. The date column must be non-null on every row the filter admits.
+     */
+    public static <T, D extends Comparable<? super D>> Keyset<T> byDate(String attribute, String cursor,
+                                                                      Function<String, D> parseDate,
+                                                                      Function<T, D> dateOf, Function<T, Long> idOf) {
+        Specification<T> seek = null;
+        if (cursor != null) {
+            int separator = cursor.lastIndexOf(CURSOR_SEPARATOR);
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            D afterDate;
+            try {
+                afterDate = parseDate.apply(cursor.substring(0, separator));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            Long afterId = parseId(cursor.substring(separator + 1));
+            // (date, id) < (afterDate, afterId), spelled out so it becomes two ranges on the index
+            seek = (root, query, cb) -> cb.or(
+                    cb.lessThan(root.<D>get(attribute), afterDate),
+                    cb.and(cb.equal(root.get(attribute), afterDate), cb.lessThan(root.<Long>get("id"), afterId)));
+        }
+        return new Keyset<>(seek, Sort.by(Sort.Direction.DESC, attribute, "id"),
+                row -> dateOf.apply(row) + CURSOR_SEPARATOR + idOf.apply(row));
+    }
+
+    private static Long parseId(String cursor) {
+        try {
+            return Long.valueOf(cursor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    // Rows after the cursor, i.e. with a smaller id
+    public static <T> Specification<T> idBefore(Long cursor) {
+        return cursor == null ? null : (root, query, cb) -> cb.lessThan(root.get("id"), cursor);
+    }
+
+    public static <T> Specification<T> attributeEquals(String attribute, Object value) {
+        return value == null ? null : (root, query, cb) -> cb.equal(root.get(attribute), value);
+    }
+
+    // Filter on the id of a @ManyToOne association without joining the target table
+    public static <T> Specification<T> associationIdEquals(String association, Long id) {
+        return id == null ? null : (root, query, cb) -> cb.equal(root.get(association).get("id"), id);
+    }
+
+    public static <T> Specification<T> dateBetween(String attribute, LocalDate from, LocalDate to) {
+        if (from == null && to == null) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            if (from == null) {
+                return cb.lessThanOrEqualTo(root.get(attribute), to);
+            }
+            if (to == null) {
+                return cb.greaterThanOrEqualTo(root.get(attribute), from);
+            }
+            return cb.between(root.get(attribute), from, to);
+        };
+    }
+
+    // Same as dateBetween for timestamp columns: [from 00:00, to + 1 day 00:00)
+    public static <T> Specification<T> dateTimeBetween(String attribute, LocalDate from, LocalDate to) {
+        if (from == null && to == null) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            if (from == null) {
+                return cb.lessThan(root.<LocalDateTime>get(attribute), to.plusDays(1).atStartOfDay());
+            }
+            if (to == null) {
+                return cb.greaterThanOrEqualTo(root.<LocalDateTime>get(attribute), from.atStartOfDay());
+            }
+            return cb.and(
+                    cb.greaterThanOrEqualTo(root.<LocalDateTime>get(attribute), from.atStartOfDay()),
+                    cb.lessThan(root.<LocalDateTime>get(attribute), to.plusDays(1).atStartOfDay()));
+        };
+    }
+
+    // Fetch-joins to-one associations so mapping the page to DTOs needs no extra selects
+    public static <T> Specification<T> fetch(String... paths) {
+        return (root, query, cb) -> {
+            if (query.getResultType() != Long.class && query.getResultType() != long.class) {
+                for (String path : paths) {
+                    String[] parts = path.split("\\.");
+                    Fetch<?, ?> fetch = root.fetch(parts[0], JoinType.LEFT);
+                    for (int i = 1; i < parts.length; i++) {
+                        fetch = fetch.fetch(parts[i], JoinType.LEFT);
+                    }
+                }
+            }
+            return null;
+        };
+    }
+
+    // Seek predicate, sort and cursor encoding of one keyset-paginated query
+    public static final class Keyset<T> {
+        private final Specification<T> seek;
+        private final Sort sort;
+        private final Function<T, String> cursorOf;
+
+        private Keyset(Specification<T> seek, Sort sort, Function<T, String> cursorOf) {
+            this.seek = seek;
+            this.sort = sort;
+            this.cursorOf = cursorOf;
+        }
+
+        // Null on the first page
+        public Specification<T> seek() { return seek; }
+
+        public Sort sort() { return sort; }
+
+        public String cursorOf(T row) { return cursorOf.apply(row); }
+    }
+}
@@ -0,0 +1,43 @@
+// repository/OutboxEventRepository.java
+package com.example.demo.repository;
+
+import com.example.demo.model.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Next unpublished, unparked events in write order
+    @Query("SELECT e FROM OutboxEvent e WHERE e.publishedAt IS NULL AND e.parkedAt IS NULL ORDER BY e.id")
+    List<OutboxEvent> findUnpublished(Pageable page);
+
+    // Relay lease: the last assigned publish_seq, row-locked until the relaying transaction ends.
+    // Empty when another node holds it.
+    @Query(value = "SELECT last_publish_seq FROM outbox_relay_lease WHERE id = 1 FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<Long> lockRelayLease();
+
+    @Modifying
+    @Query(value = "UPDATE outbox_relay_lease SET last_publish_seq = :seq WHERE id = 1", nativeQuery = true)
+    int advanceRelayLease(@Param("seq") long seq);
+
+    // Published events after a publish sequence, in publication order (SSE tail and replay)
+    @Query("SELECT e FROM OutboxEvent e WHERE e.publishSeq > :afterSeq ORDER BY e.publishSeq")
+    List<OutboxEvent> findPublishedAfter(@Param("afterSeq") Long afterSeq, Pageable page);
+
+    @Query("SELECT MAX(e.publishSeq) FROM OutboxEvent e")
+    Long findMaxPublishSeq();
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.publishedAt < :before")
+    int deletePublishedBefore(@Param("before") LocalDateTime before);
+}
@@ -1,14 +1,97 @@
 // repository/PaymentRepository.java
 package com.example.demo.repository;
 
+import com.example.demo.dto.PaymentResponse;
 import com.example.demo.model.Payment;
 import com.example.demo.model.PaymentStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
-public interface PaymentRepository extends JpaRepository<Payment, Long> {
+public interface PaymentRepository extends JpaRepository<Payment, Long>, JpaSpecificationExecutor<Payment> {
+    
+    // Listings are projected straight into PaymentResponse with one joined select. The user is joined on
+    // fk(p.user) rather than through p.user, so fk(p.user) filters stay on payments.user_id and its index.
+    String RESPONSE_SELECT = "SELECT new com.example.demo.dto.PaymentResponse(" +
+            "p.id, u.name, u.email, b.id, v.name, b.startDate, b.endDate, " +
+            "p.amount, p.paymentDate, p.status, p.paymentMethod) " +
+            "FROM Payment p LEFT JOIN User u ON u.id = fk(p.user) LEFT JOIN p.booking b LEFT JOIN b.vehicle v ";
+    
+    @EntityGraph("Payment.details")
     List<Payment> findByStatus(PaymentStatus status);
-    List<Payment> findByUserId(Long userId);
+    
+    // fk() compares payments.user_id itself; p.user.id would resolve to the joined users row and skip the index
+    @EntityGraph("Payment.details")
+    @Query("SELECT p FROM Payment p WHERE fk(p.user) = :userId")
+    List<Payment> findByUserId(@Param("userId") Long userId);
+    
+    @Query(RESPONSE_SELECT + "ORDER BY p.id")
+    List<PaymentResponse> findAllResponses();
+    
+    @Query(RESPONSE_SELECT + "WHERE p.status = :status ORDER BY p.id")
+    List<PaymentResponse> findResponsesByStatus(@Param("status") PaymentStatus status);
+    
+    @Query(RESPONSE_SELECT + "WHERE fk(p.user) = :userId ORDER BY p.id")
+    List<PaymentResponse> findResponsesByUserId(@Param("userId") Long userId);
+    
+    // Per-user aggregates for the user summary
+    @Query("SELECT COUNT(p) FROM Payment p WHERE fk(p.user) = :userId AND p.status IN :statuses")
+    long countByUserIdAndStatusIn(@Param("userId") Long userId, @Param("statuses") List<PaymentStatus> statuses);
+    
+    @Query("SELECT COALESCE(SUM(p.amount), 0) FROM Payment p WHERE fk(p.user) = :userId AND p.status IN :statuses")
+    BigDecimal sumAmountByUserIdAndStatusIn(@Param("userId") Long userId, @Param("statuses") List<PaymentStatus> statuses);
+    
+    // Locks a chunk of payments (SELECT ... FOR UPDATE) before a batch status change
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Payment p WHERE p.id IN :ids")
+    List<Payment> lockAllById(@Param("ids") List<Long> ids);
+    
+    // Set-based status change; the status guard keeps it idempotent under retries
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Payment p SET p.status = :to WHERE p.id IN :ids AND p.status = :from")
+    int updateStatus(@Param("ids") List<Long> ids, @Param("from") PaymentStatus from, @Param("to") PaymentStatus to);
+    
+    // Pipeline: a worker owns a payment only if this moves it PENDING -> PROCESSING (returns 1)
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Payment p SET p.status = com.example.demo.model.PaymentStatus.PROCESSING, p.processingStartedAt = :now " +
+           "WHERE p.id = :id AND p.status = com.example.demo.model.PaymentStatus.PENDING")
+    int claimForProcessing(@Param("id") Long id, @Param("now") LocalDateTime now);
+    
+    // Pipeline: guarded single-row transition; 0 means someone else (e.g. an admin) got there first
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Payment p SET p.status = :to WHERE p.id = :id AND p.status = :from")
+    int transition(@Param("id") Long id, @Param("from") PaymentStatus from, @Param("to") PaymentStatus to);
+    
+    // Admin edit: only while the pipeline has not claimed the payment; 0 means it is no longer PENDING
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Payment p SET p.amount = :amount, p.paymentMethod = :method, p.status = :to " +
+           "WHERE p.id = :id AND p.status = com.example.demo.model.PaymentStatus.PENDING")
+    int updatePending(@Param("id") Long id, @Param("amount") BigDecimal amount,
+                      @Param("method") String method, @Param("to") PaymentStatus to);
+    
+    // Pipeline sweeper: PENDING payments that were never picked up (queue full, node restarted)
+    @Query("SELECT p.id FROM Payment p WHERE p.status = com.example.demo.model.PaymentStatus.PENDING " +
+           "AND p.paymentDate < :before ORDER BY p.id")
+    List<Long> findPendingIdsBefore(@Param("before") LocalDateTime before, Pageable page);
+    
+    // Pipeline sweeper: hand PROCESSING payments whose worker vanished back to the queue
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Payment p SET p.status = com.example.demo.model.PaymentStatus.PENDING, p.processingStartedAt = NULL " +
+           "WHERE p.status = com.example.demo.model.PaymentStatus.PROCESSING AND p.processingStartedAt < :before")
+    int releaseStuck(@Param("before") LocalDateTime before);
 }
\ No newline at end of file
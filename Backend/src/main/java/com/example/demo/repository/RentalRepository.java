@@ -1,17 +1,26 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.RentalInterval;
 import com.example.demo.model.Rental;
+import com.example.demo.model.RentalStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface RentalRepository extends JpaRepository<Rental, Long> {
+public interface RentalRepository extends JpaRepository<Rental, Long>, JpaSpecificationExecutor<Rental> {
     
     // This works - Spring Data JPA can infer this from field name
-    List<Rental> findByStatus(String status);
+    List<Rental> findByStatus(RentalStatus status);
     
     // Custom query for userId (since it's not a relationship)
     @Query("SELECT r FROM Rental r WHERE r.userId = :userId")
@@ -22,9 +31,49 @@ public interface RentalRepository extends JpaRepository<Rental, Long> {
     List<Rental> findByVehicleId(@Param("vehicleId") Long vehicleId);
     
     // Find pending rentals
-    List<Rental> findByStatusOrderByBookingDateDesc(String status);
+    List<Rental> findByStatusOrderByBookingDateDesc(RentalStatus status);
     
     // Find rentals by user and status
     @Query("SELECT r FROM Rental r WHERE r.userId = :userId AND r.status = :status")
-    List<Rental> findByUserIdAndStatus(@Param("userId") Long userId, @Param("status") String status);
+    List<Rental> findByUserIdAndStatus(@Param("userId") Long userId, @Param("status") RentalStatus status);
+
+    // Per-user reads for the user summary; all served by idx_rentals_user_id
+    long countByUserId(Long userId);
+
+    Optional<Rental> findFirstByUserIdAndStatusOrderByIdDesc(Long userId, RentalStatus status);
+
+    List<Rental> findByUserIdOrderByIdDesc(Long userId, Pageable page);
+
+    // Date ranges that still block a vehicle, used to build the availability index
+    @Query("SELECT new com.example.demo.dto.RentalInterval(r.id, r.vehicleId, r.userId, r.startDate, r.endDate) " +
+           "FROM Rental r WHERE r.vehicleId IS NOT NULL AND r.startDate IS NOT NULL AND r.endDate IS NOT NULL " +
+           "AND r.status NOT IN (com.example.demo.model.RentalStatus.REJECTED, com.example.demo.model.RentalStatus.CANCELLED)")
+    List<RentalInterval> findBlockingIntervals();
+
+    // Locks a chunk of rentals (SELECT ... FOR UPDATE) before a batch status change
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Rental r WHERE r.id IN :ids")
+    List<Rental> lockAllById(@Param("ids") List<Long> ids);
+
+    // Set-based status change; the status guard keeps it idempotent and the version bump mirrors a JPA update
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Rental r SET r.status = :to, r.version = COALESCE(r.version, 0) + 1 " +
+           "WHERE r.id IN :ids AND r.status = :from")
+    int updateStatus(@Param("ids") List<Long> ids, @Param("from") RentalStatus from, @Param("to") RentalStatus to);
+
+    // Guarded single-row transition; 0 means the rental was no longer in from (e.g. another admin got there first)
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Rental r SET r.status = :to, r.version = COALESCE(r.version, 0) + 1 " +
+           "WHERE r.id = :id AND r.status = :from")
+    int transition(@Param("id") Long id, @Param("from") RentalStatus from, @Param("to") RentalStatus to);
+
+    // Any date-blocking rental of the vehicle overlapping [startDate, endDate], ignoring excludeId
+    @Query("SELECT COUNT(r) > 0 FROM Rental r WHERE r.vehicleId = :vehicleId " +
+           "AND r.startDate <= :endDate AND r.endDate >= :startDate " +
+           "AND r.status NOT IN (com.example.demo.model.RentalStatus.REJECTED, com.example.demo.model.RentalStatus.CANCELLED) " +
+           "AND (:excludeId IS NULL OR r.id <> :excludeId)")
+    boolean existsOverlapping(@Param("vehicleId") Long vehicleId,
+                              @Param("startDate") LocalDate startDate,
+                              @Param("endDate") LocalDate endDate,
+                              @Param("excludeId") Long excludeId);
 }
\ No newline at end of file
@@ -2,8 +2,17 @@ package com.example.demo.repository;
 
 import com.example.demo.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import java.util.List;
 import java.util.Optional;
 
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User> {
     Optional<User> findByEmail(String email);
+
+    boolean existsByEmail(String email);
+
+    // Every registered email, to build UserService's email filter
+    @Query("SELECT u.email FROM User u WHERE u.email IS NOT NULL")
+    List<String> findAllEmails();
 }
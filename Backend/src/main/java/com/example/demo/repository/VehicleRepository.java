@@ -3,12 +3,30 @@ package com.example.demo.repository;
 
 import com.example.demo.model.Vehicle;
 import com.example.demo.model.VehicleType;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.List;
+import java.util.Optional;
 
 public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
     List<Vehicle> findByType(VehicleType type);
     List<Vehicle> findByAvailable(boolean available);
     List<Vehicle> findByDamaged(boolean damaged);
     List<Vehicle> findByTypeAndAvailable(VehicleType type, boolean available);
+    
+    // Registration numbers only, for in-memory uniqueness checks during bulk import
+    @Query("SELECT v.number FROM Vehicle v WHERE v.number IS NOT NULL")
+    List<String> findAllNumbers();
+    
+    // [type, count] rows for the daily fleet-size snapshot in analytics
+    @Query("SELECT v.type, COUNT(v) FROM Vehicle v GROUP BY v.type")
+    List<Object[]> countByType();
+    
+    // Loads the vehicle and bumps its version at commit, so two reservations racing on it cannot both commit
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("SELECT v FROM Vehicle v WHERE v.id = :id")
+    Optional<Vehicle> findForReservation(@Param("id") Long id);
 }
\ No newline at end of file
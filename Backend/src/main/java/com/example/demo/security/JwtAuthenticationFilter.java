@@ -0,0 +1,83 @@
+package com.example.demo.security;
+
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Authenticates requests carrying "Authorization: Bearer <jwt>".
+ *
+ * The admin stream also accepts "?stream_token=<jwt>", because a browser's
+ * EventSource cannot send headers. The query parameter takes only stream tokens
+ * (JwtUtil.generateStreamToken): short-lived and valid for that one path. A
+ * stream token is never accepted as a bearer token.
+ *
+ * The token is verified once (and afterwards served from VerifiedClaimsCache);
+ * no user lookup or password check happens on the request path. Refresh tokens
+ * and revoked tokens (RevokedTokenStore, one map lookup) are ignored. Requests
+ * without a valid token continue unauthenticated and are rejected by the
+ * authorization rules in SecurityConfig.
+ *
+ * Not a bean on purpose: as a @Component Spring Boot would also register it
+ * in the servlet filter chain, outside Spring Security.
+ */
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private static final String STREAM_PATH = "/api/admin/stream";
+    private static final String STREAM_TOKEN_PARAMETER = "stream_token";
+
+    private final VerifiedClaimsCache claimsCache;
+    private final RevokedTokenStore revokedTokens;
+
+    public JwtAuthenticationFilter(VerifiedClaimsCache claimsCache, RevokedTokenStore revokedTokens) {
+        this.claimsCache = claimsCache;
+        this.revokedTokens = revokedTokens;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String token = bearerToken(request);
+        boolean streamToken = false;
+        if (token == null && STREAM_PATH.equals(request.getRequestURI())) {
+            token = request.getParameter(STREAM_TOKEN_PARAMETER);
+            streamToken = true;
+        }
+        if (token != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            Claims claims = claimsCache.get(token);
+            if (claims != null && claims.getSubject() != null
+                    && !JwtUtil.isRefreshToken(claims) && JwtUtil.isStreamToken(claims) == streamToken
+                    && !revokedTokens.isRevoked(claims)) {
+                Object role = claims.get("role");
+                List<SimpleGrantedAuthority> authorities = role == null
+                        ? List.of()
+                        : List.of(new SimpleGrantedAuthority("ROLE_" + role));
+                UsernamePasswordAuthenticationToken authentication =
+                        new UsernamePasswordAuthenticationToken(claims.getSubject(), null, authorities);
+                authentication.setDetails(claims); // session family, for tokens issued on behalf of this one
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private static String bearerToken(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith(BEARER_PREFIX)) {
+            return header.substring(BEARER_PREFIX.length()).trim();
+        }
+        return null;
+    }
+}
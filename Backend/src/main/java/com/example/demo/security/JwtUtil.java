@@ -4,56 +4,175 @@ import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import jakarta.annotation.PostConstruct;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
 
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.time.Duration;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
 
+/**
+ * Issues and verifies the HS256 tokens.
+ *
+ * Keys come from a key ring in configuration (jwt.keys.<kid>=<secret>); tokens
+ * are signed with jwt.active-key-id and carry it in the "kid" header, so a key
+ * can be rotated without invalidating the tokens already signed with the
+ * previous one. Tokens without a kid (issued before the ring existed) are
+ * checked against the "default" key, which is also where jwt.secret goes.
+ *
+ * Every token has an id (jti) and a session family ("fam") shared by all
+ * tokens issued from one login, which is what RevokedTokenStore revokes.
+ */
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret}")
+    public static final String TOKEN_TYPE = "typ";
+    public static final String FAMILY = "fam";
+    public static final String ACCESS = "access";
+    public static final String REFRESH = "refresh";
+    public static final String STREAM = "stream";
+
+    private static final String DEFAULT_KEY_ID = "default";
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${jwt.secret:}")
     private String secret;
 
-    @Value("${jwt.expiration}")
-    private Long expiration;
+    @Value("${jwt.active-key-id:default}")
+    private String activeKeyId;
+
+    @Value("${jwt.access-token.ttl:15m}")
+    private Duration accessTokenTtl;
+
+    @Value("${jwt.refresh-token.ttl:14d}")
+    private Duration refreshTokenTtl;
 
-    private Key key;
+    @Value("${jwt.stream-token.ttl:60s}")
+    private Duration streamTokenTtl;
 
-    // Initialize a proper Key object after reading the secret
+    private Map<String, Key> keys;
+
+    // Parsers are immutable and thread-safe, so one instance serves every request
+    private JwtParser parser;
+
+    // Build the key ring (each secret at least 32 characters, i.e. 256 bits) and a parser that picks the key by kid
     @PostConstruct
     public void init() {
-        // Ensure the secret is at least 32 characters (256 bits)
-        this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        Map<String, Key> ring = new HashMap<>();
+        Binder.get(environment).bind("jwt.keys", Bindable.mapOf(String.class, String.class))
+                .orElse(Map.of())
+                .forEach((kid, value) -> ring.put(kid, Keys.hmacShaKeyFor(value.getBytes(StandardCharsets.UTF_8))));
+        if (secret != null && !secret.isBlank()) {
+            ring.putIfAbsent(DEFAULT_KEY_ID, Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)));
+        }
+        if (!ring.containsKey(activeKeyId)) {
+            throw new IllegalStateException("jwt.active-key-id '" + activeKeyId + "' is not in the key ring");
+        }
+        this.keys = Map.copyOf(ring);
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    // jjwt 0.11 declares this parameter as a raw JwsHeader
+                    @Override
+                    @SuppressWarnings("rawtypes")
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return signingKey(header);
+                    }
+                })
+                .build();
+    }
+
+    private Key signingKey(JwsHeader<?> header) {
+        String kid = header.getKeyId() == null ? DEFAULT_KEY_ID : header.getKeyId();
+        Key key = keys.get(kid);
+        if (key == null) {
+            throw new UnsupportedJwtException("Unknown signing key id: " + kid);
+        }
+        return key;
     }
 
+    // Short-lived access token in a new session family
     public String generateToken(String email, String role) {
-        return Jwts.builder()
+        return generateToken(email, role, UUID.randomUUID().toString());
+    }
+
+    public String generateToken(String email, String role, String family) {
+        return sign(Jwts.builder()
                 .setSubject(email)
                 .claim("role", role)
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(key, SignatureAlgorithm.HS256) // modern method
-                .compact();
+                .claim(TOKEN_TYPE, ACCESS)
+                .claim(FAMILY, family), accessTokenTtl);
+    }
+
+    // Long-lived token that can only be exchanged at /api/auth/refresh, never used as a bearer token
+    public String generateRefreshToken(String email, String role, String family) {
+        return sign(Jwts.builder()
+                .setSubject(email)
+                .claim("role", role)
+                .claim(TOKEN_TYPE, REFRESH)
+                .claim(FAMILY, family), refreshTokenTtl);
+    }
+
+    // Opens the admin SSE stream and nothing else. It travels in the URL, because EventSource cannot send
+    // headers, so it expires within seconds; an open stream is not cut off when it does.
+    public String generateStreamToken(String email, String role, String family) {
+        return sign(Jwts.builder()
+                .setSubject(email)
+                .claim("role", role)
+                .claim(TOKEN_TYPE, STREAM)
+                .claim(FAMILY, family), streamTokenTtl);
+    }
+
+    // Verifies the signature and expiry once and returns all claims; throws JwtException if invalid
+    public Claims parseClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
     }
 
     public String extractEmail(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)  // modern parser
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return parseClaims(token).getSubject();
     }
 
     public String extractRole(String token) {
-        return (String) Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .get("role");
+        return (String) parseClaims(token).get("role");
+    }
+
+    public static boolean isRefreshToken(Claims claims) {
+        return REFRESH.equals(claims.get(TOKEN_TYPE));
+    }
+
+    public static boolean isStreamToken(Claims claims) {
+        return STREAM.equals(claims.get(TOKEN_TYPE));
+    }
+
+    public Duration getAccessTokenTtl() {
+        return accessTokenTtl;
+    }
+
+    public Duration getRefreshTokenTtl() {
+        return refreshTokenTtl;
+    }
+
+    public Duration getStreamTokenTtl() {
+        return streamTokenTtl;
+    }
+
+    private String sign(JwtBuilder builder, Duration ttl) {
+        long now = System.currentTimeMillis();
+        return builder
+                .setHeaderParam(JwsHeader.KEY_ID, activeKeyId)
+                .setId(UUID.randomUUID().toString())
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + ttl.toMillis()))
+                .signWith(keys.get(activeKeyId), SignatureAlgorithm.HS256)
+                .compact();
     }
 }
@@ -0,0 +1,126 @@
+package com.example.demo.security;
+
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revoked token ids (jti) and session families.
+ *
+ * Lookups are a single hash-map probe. An entry is only needed until the token
+ * it revokes would have expired anyway, so entries carry that expiry and are
+ * purged after it: memory is bounded by (revocations per second x token lifetime).
+ * Entries are also written to the revoked_tokens table and reloaded from it at
+ * startup and every jwt.revocations.reload-interval, so a restart does not make
+ * used refresh tokens valid again and a logout on one instance reaches the
+ * others. Access tokens may stay usable on another instance until its next
+ * reload; refresh checks the family in the table (isFamilyRevokedOnAnyInstance).
+ */
+@Component
+public class RevokedTokenStore {
+
+    private static final String FAMILY_PREFIX = "family:";
+
+    private static final String INSERT_SQL = "INSERT INTO revoked_tokens (token_id, expires_at) VALUES (?, ?)";
+
+    private static final String SELECT_ONE_SQL = "SELECT expires_at FROM revoked_tokens WHERE token_id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // token id or family key -> expiry in epoch millis
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${jwt.revocations.reload-interval:10s}",
+               initialDelayString = "${jwt.revocations.reload-interval:10s}")
+    public void load() {
+        jdbcTemplate.query("SELECT token_id, expires_at FROM revoked_tokens WHERE expires_at > ?",
+                rs -> {
+                    revoked.put(rs.getString(1), rs.getTimestamp(2).getTime());
+                },
+                Timestamp.from(Instant.now()));
+    }
+
+    // True if the token itself or its whole session family has been revoked
+    public boolean isRevoked(Claims claims) {
+        return isRevoked(claims.getId()) || isFamilyRevoked(claims.get(JwtUtil.FAMILY, String.class));
+    }
+
+    public boolean isFamilyRevoked(String family) {
+        return isRevoked(familyKey(family));
+    }
+
+    // Like isFamilyRevoked, but a miss is confirmed by a primary-key read of the table, so a family
+    // revoked on another instance counts before this one's next reload
+    public boolean isFamilyRevokedOnAnyInstance(String family) {
+        if (family == null) {
+            return false;
+        }
+        if (isFamilyRevoked(family)) {
+            return true;
+        }
+        String key = familyKey(family);
+        List<Timestamp> rows = jdbcTemplate.query(SELECT_ONE_SQL, (rs, rowNum) -> rs.getTimestamp(1), key);
+        if (rows == null || rows.isEmpty() || rows.get(0).getTime() <= System.currentTimeMillis()) {
+            return false;
+        }
+        revoked.put(key, rows.get(0).getTime());
+        return true;
+    }
+
+    // Revokes one token; false if it already was (the caller saw a replay)
+    public boolean revokeToken(String tokenId, Instant expiresAt) {
+        return revoke(tokenId, expiresAt);
+    }
+
+    public void revokeFamily(String family, Instant lastExpiry) {
+        revoke(familyKey(family), lastExpiry);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocations.purge-interval:10m}")
+    public void purge() {
+        long now = System.currentTimeMillis();
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+        jdbcTemplate.update("DELETE FROM revoked_tokens WHERE expires_at <= ?", Timestamp.from(Instant.ofEpochMilli(now)));
+    }
+
+    private boolean revoke(String key, Instant expiresAt) {
+        if (key == null || expiresAt == null || !expiresAt.isAfter(Instant.now())) {
+            // nothing to remember: the token cannot be used anymore anyway
+            return true;
+        }
+        if (revoked.putIfAbsent(key, expiresAt.toEpochMilli()) != null) {
+            return false;
+        }
+        try {
+            jdbcTemplate.update(INSERT_SQL, key, Timestamp.from(expiresAt));
+            return true;
+        } catch (DuplicateKeyException e) {
+            // revoked by another instance first
+            return false;
+        }
+    }
+
+    private boolean isRevoked(String key) {
+        if (key == null) {
+            return false;
+        }
+        Long expiresAt = revoked.get(key);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    private static String familyKey(String family) {
+        return family == null ? null : FAMILY_PREFIX + family;
+    }
+}
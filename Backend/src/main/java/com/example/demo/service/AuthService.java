@@ -8,30 +8,37 @@ import com.example.demo.dto.UserDTO;
 import com.example.demo.model.User;
 import com.example.demo.model.Role;
 import com.example.demo.security.JwtUtil;
+import com.example.demo.service.auth.PasswordHasher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import java.util.Optional;
 
 @Service
 public class AuthService {
     
+    private static final Logger log = LoggerFactory.getLogger(AuthService.class);
+    
     @Autowired
     private UserService userService;
     
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHasher passwordHasher;
     
     @Autowired
     private JwtUtil jwtUtil;
     
+    @Autowired
+    private UserSummaryService userSummaryService;
+    
     public AuthResponse register(RegisterRequest request) {
         try {
-            System.out.println("🔧 Starting registration for: " + request.getEmail());
+            log.debug("Registration attempt for {}", request.getEmail());
             
             // Check if email already exists
             if (userService.emailExists(request.getEmail())) {
-                System.out.println("❌ Email already exists: " + request.getEmail());
+                log.debug("Registration rejected, email already exists: {}", request.getEmail());
                 return new AuthResponse(false, "Email already exists");
             }
             
@@ -39,7 +46,7 @@ public class AuthService {
             User user = new User();
             user.setName(request.getName() != null ? request.getName().trim() : "");
             user.setEmail(request.getEmail().trim().toLowerCase());
-            user.setPassword(passwordEncoder.encode(request.getPassword()));
+            user.setPassword(passwordHasher.encode(request.getPassword()));
             
             // Handle optional fields with null safety
             if (request.getPhone() != null) {
@@ -57,74 +64,69 @@ public class AuthService {
             
             if ("ADMIN".equalsIgnoreCase(userRole.trim())) {
                 user.setRole(Role.ADMIN);
-                System.out.println("👑 Setting role as ADMIN");
             } else {
                 user.setRole(Role.USER);
-                System.out.println("👤 Setting role as USER");
             }
             
             // Save user
             User savedUser = userService.saveUser(user);
-            System.out.println("✅ User saved with ID: " + savedUser.getId());
+            log.info("Registered user {} with role {}", savedUser.getId(), savedUser.getRole());
             
             // Generate token
             String token = jwtUtil.generateToken(savedUser.getEmail(), savedUser.getRole().name());
-            System.out.println("🔐 JWT Token generated");
             
             // Convert to DTO
             UserDTO userDTO = convertToDTO(savedUser);
             return new AuthResponse(true, token, savedUser.getRole().name(), userDTO);
             
         } catch (Exception e) {
-            System.err.println("🚨 Registration error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Registration failed for {}", request.getEmail(), e);
             return new AuthResponse(false, "Registration failed: " + e.getMessage());
         }
     }
     
     public AuthResponse login(LoginRequest request) {
         try {
-            System.out.println("🔐 Login attempt for: " + request.getEmail());
-            System.out.println("🎯 Requested role: " + request.getRole());
+            log.debug("Login attempt for {} as {}", request.getEmail(), request.getRole());
             
             // Find user by email
             Optional<User> userOpt = userService.getUserByEmail(request.getEmail());
             
             if (userOpt.isEmpty()) {
-                System.out.println("❌ User not found: " + request.getEmail());
+                log.debug("Login failed, unknown email: {}", request.getEmail());
                 return new AuthResponse(false, "Invalid email or password");
             }
             
             User user = userOpt.get();
-            System.out.println("👤 Found user: " + user.getEmail() + " with role: " + user.getRole());
             
             // Check if password matches
-            if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
-                System.out.println("❌ Password mismatch for: " + request.getEmail());
+            if (!passwordHasher.matches(request.getPassword(), user.getPassword())) {
+                log.debug("Login failed, wrong password for user {}", user.getId());
                 return new AuthResponse(false, "Invalid email or password");
             }
             
             // Check if role matches (case-insensitive)
             if (!user.getRole().name().equalsIgnoreCase(request.getRole())) {
-                System.out.println("❌ Role mismatch. User role: " + user.getRole() + ", Requested role: " + request.getRole());
+                log.debug("Login failed, user {} has role {} but requested {}", user.getId(), user.getRole(), request.getRole());
                 return new AuthResponse(false, "Invalid role selected for this account");
             }
             
             // Generate token and return response
             String token = jwtUtil.generateToken(user.getEmail(), user.getRole().name());
             UserDTO userDTO = convertToDTO(user);
+            userDTO.setTotalBookings(userSummaryService.totalBookings(user.getId()));
             
-            System.out.println("✅ Login successful for: " + user.getEmail());
+            log.debug("Login succeeded for user {}", user.getId());
             return new AuthResponse(true, token, user.getRole().name(), userDTO);
             
         } catch (Exception e) {
-            System.err.println("🚨 Login error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Login failed for {}", request.getEmail(), e);
             return new AuthResponse(false, "Login failed: " + e.getMessage());
         }
     }
     
-    private UserDTO convertToDTO(User user) {
+    // Package-private for AuthServiceBenchmark
+    UserDTO convertToDTO(User user) {
         UserDTO dto = new UserDTO();
         dto.setId(user.getId());
         dto.setName(user.getName());
@@ -133,7 +135,6 @@ public class AuthService {
         dto.setAddress(user.getAddress());
         dto.setRole(user.getRole().name());
         dto.setJoinDate(user.getJoinDate());
-        dto.setTotalBookings(user.getTotalBookings());
         return dto;
     }
 }
\ No newline at end of file
@@ -0,0 +1,220 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.BookingInterval;
+import com.example.demo.dto.RentalInterval;
+import com.example.demo.dto.VehicleResponse;
+import com.example.demo.model.Booking;
+import com.example.demo.model.BookingStatus;
+import com.example.demo.model.Rental;
+import com.example.demo.model.RentalStatus;
+import com.example.demo.repository.BookingRepository;
+import com.example.demo.repository.RentalRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory per-vehicle index of booked date ranges.
+ *
+ * Built once from the rentals and bookings tables at startup and kept current by
+ * RentalService and BookingService, so date-range availability searches never
+ * touch the database. Bookings are stored under their negated id (rental ids are
+ * positive) and block every calendar day they touch.
+ */
+@Service
+public class AvailabilityService {
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private final Map<Long, RentalIntervalIndex> indexByVehicle = new ConcurrentHashMap<>();
+
+    // rentalId (or negated bookingId) -> vehicleId, so an entry can be unindexed even after its vehicle or status changed
+    private final Map<Long, Long> vehicleByRental = new ConcurrentHashMap<>();
+
+    // Date-blocking rental ids per user, for first-time-user pricing
+    private final Map<Long, Set<Long>> rentalsByUser = new ConcurrentHashMap<>();
+
+    // Bumped after every change to the index; part of the ETag of date-range availability searches
+    private final AtomicLong version = new AtomicLong();
+
+    // Load every date-blocking rental and booking into the index
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Map<Long, List<RentalInterval>> byVehicle = new HashMap<>();
+        for (RentalInterval interval : rentalRepository.findBlockingIntervals()) {
+            byVehicle.computeIfAbsent(interval.getVehicleId(), k -> new ArrayList<>()).add(interval);
+        }
+        for (BookingInterval booking : bookingRepository.findBlockingIntervals()) {
+            byVehicle.computeIfAbsent(booking.getVehicleId(), k -> new ArrayList<>()).add(new RentalInterval(
+                    bookingKey(booking.getBookingId()), booking.getVehicleId(), null,
+                    booking.getStartDate().toLocalDate(), lastDayOf(booking.getEndDate())));
+        }
+
+        indexByVehicle.clear();
+        vehicleByRental.clear();
+        rentalsByUser.clear();
+        byVehicle.forEach((vehicleId, intervals) -> {
+            long[] ids = new long[intervals.size()];
+            long[] starts = new long[intervals.size()];
+            long[] ends = new long[intervals.size()];
+            for (int i = 0; i < intervals.size(); i++) {
+                RentalInterval interval = intervals.get(i);
+                ids[i] = interval.getRentalId();
+                starts[i] = interval.getStartDate().toEpochDay();
+                ends[i] = interval.getEndDate().toEpochDay();
+                vehicleByRental.put(interval.getRentalId(), vehicleId);
+                if (interval.getUserId() != null) {
+                    addUserRental(interval.getUserId(), interval.getRentalId());
+                }
+            }
+            indexByVehicle.put(vehicleId, RentalIntervalIndex.of(ids, starts, ends));
+        });
+        version.incrementAndGet();
+    }
+
+    // Add, move or drop a rental depending on its current vehicle, dates and status
+    public void index(Rental rental) {
+        if (rental.getId() == null) {
+            return;
+        }
+        Long rentalId = rental.getId();
+        if (!blocksVehicle(rental)) {
+            remove(rentalId);
+            version.incrementAndGet();
+            return;
+        }
+        put(rentalId, rental.getVehicleId(), rental.getStartDate(), rental.getEndDate());
+        if (rental.getUserId() != null) {
+            addUserRental(rental.getUserId(), rentalId);
+        }
+        version.incrementAndGet();
+    }
+
+    // Add or drop a booking; its [startDate, endDate) timestamps block the calendar days they touch
+    public void index(Booking booking) {
+        if (booking.getId() == null) {
+            return;
+        }
+        Long key = bookingKey(booking.getId());
+        if (booking.getVehicle() == null || booking.getVehicle().getId() == null
+                || booking.getStartDate() == null || booking.getEndDate() == null
+                || booking.getStatus() == BookingStatus.CANCELLED) {
+            remove(key);
+            version.incrementAndGet();
+            return;
+        }
+        put(key, booking.getVehicle().getId(), booking.getStartDate().toLocalDate(), lastDayOf(booking.getEndDate()));
+        version.incrementAndGet();
+    }
+
+    public void remove(Long rentalId) {
+        Long vehicleId = vehicleByRental.remove(rentalId);
+        if (vehicleId != null) {
+            unindex(vehicleId, rentalId);
+            version.incrementAndGet();
+        }
+    }
+
+    public long version() {
+        return version.get();
+    }
+
+    // True if the vehicle has no blocking rental overlapping [from, to]
+    public boolean isAvailable(Long vehicleId, LocalDate from, LocalDate to) {
+        return isAvailable(vehicleId, from, to, null);
+    }
+
+    // Same check, ignoring one rental (used when that rental itself is being rescheduled)
+    public boolean isAvailable(Long vehicleId, LocalDate from, LocalDate to, Long excludeRentalId) {
+        RentalIntervalIndex index = indexByVehicle.get(vehicleId);
+        if (index == null) {
+            return true;
+        }
+        if (excludeRentalId != null) {
+            index = index.without(excludeRentalId);
+        }
+        return !index.overlaps(from, to);
+    }
+
+    // True once the user has a date-blocking rental; a later rejection only clears it on the next rebuild
+    public boolean hasRentals(Long userId) {
+        return hasRentalsOtherThan(userId, null);
+    }
+
+    // Same, ignoring one rental (the one being repriced, so it does not count against its own owner)
+    public boolean hasRentalsOtherThan(Long userId, Long rentalId) {
+        Set<Long> rentals = rentalsByUser.get(userId);
+        if (rentals == null || rentals.isEmpty()) {
+            return false;
+        }
+        return rentalId == null || rentals.size() > 1 || !rentals.contains(rentalId);
+    }
+
+    public List<VehicleResponse> filterAvailable(List<VehicleResponse> vehicles, LocalDate from, LocalDate to) {
+        List<VehicleResponse> result = new ArrayList<>();
+        for (VehicleResponse vehicle : vehicles) {
+            if (isAvailable(vehicle.getId(), from, to)) {
+                result.add(vehicle);
+            }
+        }
+        return result;
+    }
+
+    private void addUserRental(Long userId, Long rentalId) {
+        rentalsByUser.computeIfAbsent(userId, k -> ConcurrentHashMap.newKeySet()).add(rentalId);
+    }
+
+    // Last calendar day touched by a booking ending (exclusively) at the given time
+    public static LocalDate lastDayOf(LocalDateTime end) {
+        return end.minusNanos(1).toLocalDate();
+    }
+
+    private static long bookingKey(Long bookingId) {
+        return -bookingId;
+    }
+
+    // with() replaces the old interval in the same compute, so a concurrent search never sees the entry missing
+    private void put(Long key, Long vehicleId, LocalDate startDate, LocalDate endDate) {
+        indexByVehicle.compute(vehicleId, (id, current) ->
+                (current == null ? RentalIntervalIndex.EMPTY : current).with(key, startDate, endDate));
+        Long previousVehicle = vehicleByRental.put(key, vehicleId);
+        if (previousVehicle != null && !previousVehicle.equals(vehicleId)) {
+            // moved to another vehicle: the old entry goes only once the new one is visible
+            unindex(previousVehicle, key);
+        }
+    }
+
+    private void unindex(Long vehicleId, Long rentalId) {
+        indexByVehicle.computeIfPresent(vehicleId, (id, current) -> {
+            RentalIntervalIndex updated = current.without(rentalId);
+            return updated.size() == 0 ? null : updated;
+        });
+    }
+
+    private boolean blocksVehicle(Rental rental) {
+        if (rental.getVehicleId() == null || rental.getStartDate() == null || rental.getEndDate() == null) {
+            return false;
+        }
+        return blocksDates(rental.getStatus());
+    }
+
+    // Rejected and cancelled rentals release their dates
+    public static boolean blocksDates(RentalStatus status) {
+        return status == null || status.blocksDates();
+    }
+}
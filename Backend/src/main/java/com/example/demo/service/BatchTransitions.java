@@ -0,0 +1,48 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.BatchTransitionResult.Outcome;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+
+// Shared plumbing for the set-based batch status endpoints of RentalService and PaymentService
+final class BatchTransitions {
+
+    // Ids per locking SELECT + UPDATE round trip (and per transaction)
+    static final int CHUNK_SIZE = 500;
+
+    static final int MAX_IDS = 10_000;
+
+    private BatchTransitions() {
+    }
+
+    // Drops nulls and duplicates (keeping first-seen order) and splits into chunks
+    static List<List<Long>> chunks(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("ids must not be empty");
+        }
+        List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        distinct.removeIf(Objects::isNull);
+        if (distinct.size() > MAX_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_IDS + " ids per request");
+        }
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int i = 0; i < distinct.size(); i += CHUNK_SIZE) {
+            chunks.add(distinct.subList(i, Math.min(i + CHUNK_SIZE, distinct.size())));
+        }
+        return chunks;
+    }
+
+    // Outcome for one requested id, given whether its row was found (and locked) and its current status
+    static <S> Outcome outcomeFor(boolean found, S current, S from, S to) {
+        if (!found) {
+            return Outcome.NOT_FOUND;
+        }
+        if (to.equals(current)) {
+            return Outcome.ALREADY_APPLIED;
+        }
+        return from.equals(current) ? Outcome.UPDATED : Outcome.INVALID_STATE;
+    }
+}
@@ -1,11 +1,26 @@
 package com.example.demo.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.example.demo.dto.BookingResponse;
+import com.example.demo.dto.CursorPage;
+import com.example.demo.exception.BookingConflictException;
 import com.example.demo.model.Booking;
+import com.example.demo.model.BookingStatus;
 import com.example.demo.repository.BookingRepository;
+import com.example.demo.repository.ListingSpecifications;
+import com.example.demo.repository.RentalRepository;
+import com.example.demo.repository.VehicleRepository;
+import com.example.demo.service.events.DomainEventType;
+import com.example.demo.service.events.OutboxService;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.locks.Lock;
 
 @Service
 public class BookingService {
@@ -13,20 +28,111 @@ public class BookingService {
     @Autowired
     private BookingRepository bookingRepository;
     
+    @Autowired
+    private RentalRepository rentalRepository;
+    
+    @Autowired
+    private VehicleRepository vehicleRepository;
+    
+    @Autowired
+    private AvailabilityService availabilityService;
+    
+    @Autowired
+    private VehicleLockStripes vehicleLocks;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private OutboxService outboxService;
+    
     public Booking createBooking(Booking booking) {
-        // Add any business logic here (validation, etc.)
-        return bookingRepository.save(booking);
+        // Nothing to reserve without a vehicle and a date range
+        if (booking.getVehicle() == null || booking.getVehicle().getId() == null
+                || booking.getStartDate() == null || booking.getEndDate() == null) {
+            return transactionTemplate.execute(status -> save(booking));
+        }
+        if (!booking.getEndDate().isAfter(booking.getStartDate())) {
+            throw new IllegalArgumentException("endDate must be after startDate");
+        }
+        
+        Long vehicleId = booking.getVehicle().getId();
+        LocalDateTime start = booking.getStartDate();
+        LocalDateTime end = booking.getEndDate();
+        
+        // Overlap check and insert are atomic per vehicle (see RentalService.reserve)
+        Lock lock = vehicleLocks.lockFor(vehicleId);
+        lock.lock();
+        try {
+            if (!availabilityService.isAvailable(vehicleId, start.toLocalDate(), AvailabilityService.lastDayOf(end))) {
+                throw conflict(vehicleId, start, end);
+            }
+            Booking saved;
+            try {
+                saved = transactionTemplate.execute(status -> {
+                    booking.setVehicle(vehicleRepository.findForReservation(vehicleId)
+                            .orElseThrow(() -> new IllegalArgumentException("Vehicle not found with id: " + vehicleId)));
+                    if (bookingRepository.existsOverlapping(vehicleId, start, end)
+                            || rentalRepository.existsOverlapping(vehicleId, start.toLocalDate(), AvailabilityService.lastDayOf(end), null)) {
+                        throw conflict(vehicleId, start, end);
+                    }
+                    if (booking.getStatus() == null) {
+                        booking.setStatus(BookingStatus.PENDING);
+                    }
+                    return save(booking);
+                });
+            } catch (OptimisticLockingFailureException e) {
+                // another instance reserved the same vehicle between our check and our commit
+                throw conflict(vehicleId, start, end);
+            }
+            availabilityService.index(saved);
+            return saved;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    // Must run inside the caller's transaction so the outbox event commits with the booking
+    private Booking save(Booking booking) {
+        Booking saved = bookingRepository.save(booking);
+        outboxService.recordBooking(DomainEventType.BOOKING_CREATED, saved);
+        return saved;
     }
     
-    public List<Booking> getAllBookings() {
-        return bookingRepository.findAll();
+    public List<BookingResponse> getAllBookings() {
+        return bookingRepository.findAllResponses();
     }
     
-    public List<Booking> getBookingsByUserId(Long userId) {
-        return bookingRepository.findByUserId(userId);
+    public List<BookingResponse> getBookingsByUserId(Long userId) {
+        return bookingRepository.findResponsesByUserId(userId);
+    }
+    
+    // Keyset-paginated bookings, newest first
+    public CursorPage<BookingResponse> getBookingPage(String cursor, Integer limit, BookingStatus status, Long userId,
+                                                      Long vehicleId, LocalDate from, LocalDate to) {
+        int pageSize = ListingSpecifications.clampLimit(limit);
+        ListingSpecifications.Keyset<Booking> keyset = from != null || to != null
+                ? ListingSpecifications.byDate("bookingDate", cursor, LocalDateTime::parse,
+                        Booking::getBookingDate, Booking::getId)
+                : ListingSpecifications.byId(cursor, Booking::getId);
+        Specification<Booking> spec = ListingSpecifications.allOf(
+                ListingSpecifications.fetch("user", "vehicle"),
+                keyset.seek(),
+                ListingSpecifications.attributeEquals("status", status),
+                ListingSpecifications.associationIdEquals("user", userId),
+                ListingSpecifications.associationIdEquals("vehicle", vehicleId),
+                ListingSpecifications.dateTimeBetween("bookingDate", from, to));
+        List<Booking> rows = bookingRepository.findBy(spec,
+                q -> q.sortBy(keyset.sort()).limit(pageSize + 1).all());
+        return CursorPage.of(rows, pageSize, keyset::cursorOf, BookingResponse::from);
     }
     
     public Optional<Booking> getBookingById(Long id) {
         return bookingRepository.findById(id);
     }
-}
\ No newline at end of file
+    
+    private BookingConflictException conflict(Long vehicleId, LocalDateTime start, LocalDateTime end) {
+        return new BookingConflictException(
+                "Vehicle " + vehicleId + " is already booked between " + start + " and " + end);
+    }
+}
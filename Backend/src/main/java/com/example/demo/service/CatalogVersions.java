@@ -0,0 +1,119 @@
+package com.example.demo.service;
+
+import com.example.demo.config.CachingConfig;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versions behind the ETags of the vehicle and offer endpoints.
+ *
+ * The versions live in the catalog_versions table, which writers bump inside the
+ * transaction that makes the change. Each instance serves tags from its own copy
+ * in memory, so a conditional GET never touches the database: the writing instance
+ * updates its copy after the commit, and every instance reloads the table every
+ * catalog.versions.refresh-interval to pick up writes made elsewhere. A version
+ * only moves forward once its change has committed, and the local vehicle cache is
+ * cleared before the new version is served, so a tag is never paired with data
+ * older than it. Other instances serve the previous tag (with the previous data)
+ * for up to one refresh interval.
+ */
+@Component
+public class CatalogVersions {
+
+    static final String VEHICLES = "vehicles";
+    static final String OFFERS = "offers";
+
+    private static final String BUMP_SQL = "UPDATE catalog_versions SET version = version + 1 WHERE name = ?";
+    private static final String SELECT_SQL = "SELECT version FROM catalog_versions WHERE name = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private final AtomicLong vehicles = new AtomicLong();
+    private final AtomicLong offers = new AtomicLong();
+
+    // Call inside the writing transaction
+    public void vehiclesChanged() {
+        long version = bump(VEHICLES);
+        afterCommit(() -> advanceVehicles(version));
+    }
+
+    public void offersChanged() {
+        long version = bump(OFFERS);
+        afterCommit(() -> offers.accumulateAndGet(version, Math::max));
+    }
+
+    public String vehiclesTag() {
+        return tag("v" + vehicles.get());
+    }
+
+    // Date-range searches also depend on the booked intervals in AvailabilityService
+    public String vehiclesTag(long availabilityVersion) {
+        return tag("v" + vehicles.get() + "a" + availabilityVersion);
+    }
+
+    public String offersTag() {
+        return tag("o" + offers.get());
+    }
+
+    // Picks up versions bumped by other instances
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${catalog.versions.refresh-interval:1s}",
+               initialDelayString = "${catalog.versions.refresh-interval:1s}")
+    public void refresh() {
+        advanceVehicles(read(VEHICLES));
+        offers.accumulateAndGet(read(OFFERS), Math::max);
+    }
+
+    // Inside the writing transaction the update is visible to this connection only
+    private long bump(String name) {
+        jdbcTemplate.update(BUMP_SQL, name);
+        return read(name);
+    }
+
+    private long read(String name) {
+        Long version = jdbcTemplate.queryForObject(SELECT_SQL, Long.class, name);
+        return version == null ? 0 : version;
+    }
+
+    // Cached vehicles are dropped before the newer tag is served
+    private void advanceVehicles(long version) {
+        if (version <= vehicles.get()) {
+            return;
+        }
+        Cache cache = cacheManager.getCache(CachingConfig.VEHICLES);
+        if (cache != null) {
+            cache.clear();
+        }
+        vehicles.accumulateAndGet(version, Math::max);
+    }
+
+    private static String tag(String version) {
+        return "\"" + version + "\"";
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
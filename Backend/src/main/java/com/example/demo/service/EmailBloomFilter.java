@@ -0,0 +1,105 @@
+package com.example.demo.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter of registered emails (lower-cased).
+ *
+ * mightContain never returns false for an added email, so a negative answer can
+ * skip the database; a positive one only means "go and look". Emails cannot be
+ * removed: a deleted account stays a (harmless) false positive until the filter
+ * is rebuilt. Adds are lock-free, so readers never block.
+ */
+public final class EmailBloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    private final int capacity;
+    private final AtomicInteger size = new AtomicInteger();
+
+    // Sized for capacity emails at the given false-positive probability
+    public EmailBloomFilter(int capacity, double falsePositiveRate) {
+        this.capacity = Math.max(1, capacity);
+        long bits = (long) Math.ceil(-this.capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bitCount = Math.max(64, (bits + 63) / 64 * 64);
+        this.words = new AtomicLongArray((int) (bitCount / 64));
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / this.capacity * Math.log(2)));
+    }
+
+    public static EmailBloomFilter of(Collection<String> emails, int capacity, double falsePositiveRate) {
+        EmailBloomFilter filter = new EmailBloomFilter(Math.max(capacity, emails.size()), falsePositiveRate);
+        for (String email : emails) {
+            filter.put(email);
+        }
+        return filter;
+    }
+
+    public void put(String email) {
+        if (email == null) {
+            return;
+        }
+        long[] hashes = hashes(email);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = index(hashes, i);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = words.get(word);
+            } while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask));
+        }
+        size.incrementAndGet();
+    }
+
+    public boolean mightContain(String email) {
+        if (email == null) {
+            return false;
+        }
+        long[] hashes = hashes(email);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = index(hashes, i);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // More emails added than the filter was sized for; the false-positive rate is above target
+    public boolean isSaturated() {
+        return size.get() > capacity;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    // Double hashing: bit i = h1 + i * h2
+    private long index(long[] hashes, int i) {
+        return Math.floorMod(hashes[0] + i * hashes[1], bitCount);
+    }
+
+    // Two independent 64-bit hashes of the normalized email (FNV-1a, then each finalized with a different mixer)
+    private static long[] hashes(String email) {
+        byte[] bytes = email.trim().toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8);
+        long h = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        return new long[] { mix(h, 0xff51afd7ed558ccdL), mix(h, 0xc4ceb9fe1a85ec53L) | 1 };
+    }
+
+    private static long mix(long h, long multiplier) {
+        h ^= h >>> 33;
+        h *= multiplier;
+        h ^= h >>> 33;
+        h *= 0x9e3779b97f4a7c15L;
+        return h ^ (h >>> 29);
+    }
+}
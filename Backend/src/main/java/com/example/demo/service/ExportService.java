@@ -0,0 +1,135 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.PaymentResponse;
+import com.example.demo.model.Rental;
+import com.example.demo.repository.PaymentRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Nightly finance exports of rentals and payments.
+ *
+ * Rows are read through a forward-only result set and written as they arrive,
+ * so an export of the whole history runs in constant memory. Only these
+ * statements stream: export.fetch-size is set on the export queries alone
+ * (Integer.MIN_VALUE makes MySQL Connector/J stream rows instead of buffering
+ * the result), and every other query keeps the driver's default buffered reads.
+ */
+@Service
+public class ExportService {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${export.fetch-size:1000}")
+    private int fetchSize;
+
+    // Rentals booked between from and to (both optional, inclusive)
+    @Transactional(readOnly = true)
+    public long exportRentals(OutputStream out, ExportFormat format, LocalDate from, LocalDate to) throws IOException {
+        TypedQuery<Rental> query = exportQuery("SELECT r FROM Rental r", "r", "bookingDate", "<=",
+                from, to, Rental.class);
+        query.setHint(HibernateHints.HINT_READ_ONLY, true);
+        try (Stream<Rental> rentals = query.getResultStream()) {
+            // Detach each row once written so the persistence context does not grow with the export
+            return rentalWriter(objectMapper).write(rentals.map(this::detached), format, out);
+        }
+    }
+
+    // Payments made between from and to (both optional, inclusive)
+    @Transactional(readOnly = true)
+    public long exportPayments(OutputStream out, ExportFormat format, LocalDate from, LocalDate to) throws IOException {
+        TypedQuery<PaymentResponse> query = exportQuery(PaymentRepository.RESPONSE_SELECT, "p", "paymentDate", "<",
+                from != null ? from.atStartOfDay() : null,
+                to != null ? to.plusDays(1).atStartOfDay() : null,
+                PaymentResponse.class);
+        try (Stream<PaymentResponse> payments = query.getResultStream()) {
+            return paymentWriter(objectMapper).write(payments, format, out);
+        }
+    }
+
+    /*
+     * Adds only the bounds that are set, so MySQL sees a plain range on the
+     * (date, id) index instead of "(? IS NULL OR date >= ?)", which it cannot
+     * use for an index range. A bounded export walks that index in order; an
+     * unbounded one walks the primary key.
+     */
+    private <T> TypedQuery<T> exportQuery(String select, String alias, String dateAttribute, String upperBound,
+                                          Object from, Object to, Class<T> type) {
+        String date = alias + "." + dateAttribute;
+        List<String> predicates = new ArrayList<>();
+        if (from != null) {
+            predicates.add(date + " >= :from");
+        }
+        if (to != null) {
+            predicates.add(date + " " + upperBound + " :to");
+        }
+        StringBuilder jpql = new StringBuilder(select.trim());
+        if (!predicates.isEmpty()) {
+            jpql.append(" WHERE ").append(String.join(" AND ", predicates))
+                    .append(" ORDER BY ").append(date).append(", ").append(alias).append(".id");
+        } else {
+            jpql.append(" ORDER BY ").append(alias).append(".id");
+        }
+        TypedQuery<T> query = entityManager.createQuery(jpql.toString(), type);
+        query.setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize);
+        if (from != null) {
+            query.setParameter("from", from);
+        }
+        if (to != null) {
+            query.setParameter("to", to);
+        }
+        return query;
+    }
+
+    static RowStreamWriter<Rental> rentalWriter(ObjectMapper objectMapper) {
+        return new RowStreamWriter<Rental>(objectMapper)
+                .column("id", Rental::getId)
+                .column("userId", Rental::getUserId)
+                .column("userName", Rental::getUserName)
+                .column("userEmail", Rental::getUserEmail)
+                .column("vehicleId", Rental::getVehicleId)
+                .column("vehicleName", Rental::getVehicleName)
+                .column("vehicleType", Rental::getVehicleType)
+                .column("startDate", Rental::getStartDate)
+                .column("endDate", Rental::getEndDate)
+                .column("totalCost", Rental::getTotalCost)
+                .column("status", Rental::getStatus)
+                .column("pickupLocation", Rental::getPickupLocation)
+                .column("bookingDate", Rental::getBookingDate);
+    }
+
+    static RowStreamWriter<PaymentResponse> paymentWriter(ObjectMapper objectMapper) {
+        return new RowStreamWriter<PaymentResponse>(objectMapper)
+                .column("id", PaymentResponse::getId)
+                .column("userName", PaymentResponse::getUserName)
+                .column("userEmail", PaymentResponse::getUserEmail)
+                .column("bookingDetails", PaymentResponse::getBookingDetails)
+                .column("amount", PaymentResponse::getAmount)
+                .column("paymentDate", PaymentResponse::getPaymentDate)
+                .column("status", PaymentResponse::getStatus)
+                .column("paymentMethod", PaymentResponse::getPaymentMethod);
+    }
+
+    private Rental detached(Rental rental) {
+        entityManager.detach(rental);
+        return rental;
+    }
+}
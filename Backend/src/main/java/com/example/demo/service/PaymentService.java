@@ -1,12 +1,27 @@
 // service/PaymentService.java
 package com.example.demo.service;
 
+import com.example.demo.dto.BatchTransitionResult;
+import com.example.demo.dto.CursorPage;
+import com.example.demo.dto.PaymentResponse;
+import com.example.demo.exception.InvalidStatusTransitionException;
 import com.example.demo.model.Payment;
 import com.example.demo.model.PaymentStatus;
+import com.example.demo.repository.ListingSpecifications;
 import com.example.demo.repository.PaymentRepository;
+import com.example.demo.service.events.DomainEventType;
+import com.example.demo.service.events.OutboxService;
+import com.example.demo.service.payment.PaymentProcessor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -15,9 +30,37 @@ public class PaymentService {
     @Autowired
     private PaymentRepository paymentRepository;
 
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PaymentProcessor paymentProcessor;
+
+    @Autowired
+    private OutboxService outboxService;
+
     // Get all payments
-    public List<Payment> findAll() {
-        return paymentRepository.findAll();
+    public List<PaymentResponse> findAll() {
+        return paymentRepository.findAllResponses();
+    }
+
+    // Keyset-paginated payments, newest first
+    public CursorPage<PaymentResponse> findPage(String cursor, Integer limit, PaymentStatus status, Long userId,
+                                                LocalDate from, LocalDate to) {
+        int pageSize = ListingSpecifications.clampLimit(limit);
+        ListingSpecifications.Keyset<Payment> keyset = from != null || to != null
+                ? ListingSpecifications.byDate("paymentDate", cursor, LocalDateTime::parse,
+                        Payment::getPaymentDate, Payment::getId)
+                : ListingSpecifications.byId(cursor, Payment::getId);
+        Specification<Payment> spec = ListingSpecifications.allOf(
+                ListingSpecifications.fetch("user", "booking.vehicle"),
+                keyset.seek(),
+                ListingSpecifications.attributeEquals("status", status),
+                ListingSpecifications.associationIdEquals("user", userId),
+                ListingSpecifications.dateTimeBetween("paymentDate", from, to));
+        List<Payment> rows = paymentRepository.findBy(spec,
+                q -> q.sortBy(keyset.sort()).limit(pageSize + 1).all());
+        return CursorPage.of(rows, pageSize, keyset::cursorOf, PaymentResponse::from);
     }
 
     // Get payment by ID
@@ -27,46 +70,129 @@ public class PaymentService {
     }
 
     // Get payments by status
-    public List<Payment> findByStatus(PaymentStatus status) {
-        return paymentRepository.findByStatus(status);
+    public List<PaymentResponse> findByStatus(PaymentStatus status) {
+        return paymentRepository.findResponsesByStatus(status);
     }
 
     // Get payments by user ID
-    public List<Payment> findByUserId(Long userId) {
-        return paymentRepository.findByUserId(userId);
+    public List<PaymentResponse> findByUserId(Long userId) {
+        return paymentRepository.findResponsesByUserId(userId);
     }
 
     // Approve payment
     public Payment approvePayment(Long id) {
-        Payment payment = findById(id);
-        payment.setStatus(PaymentStatus.COMPLETED);
-        return paymentRepository.save(payment);
+        return changeStatus(id, PaymentStatus.COMPLETED, DomainEventType.PAYMENT_COMPLETED);
     }
 
     // Reject payment
     public Payment rejectPayment(Long id) {
-        Payment payment = findById(id);
-        payment.setStatus(PaymentStatus.REJECTED);
-        return paymentRepository.save(payment);
+        return changeStatus(id, PaymentStatus.REJECTED, DomainEventType.PAYMENT_REJECTED);
+    }
+
+    // Approve many pending payments with one locking select and one UPDATE per chunk
+    public BatchTransitionResult approvePayments(List<Long> ids) {
+        return changeStatus(ids, PaymentStatus.PENDING, PaymentStatus.COMPLETED, DomainEventType.PAYMENT_COMPLETED);
     }
 
-    // Create new payment
+    // Reject many pending payments
+    public BatchTransitionResult rejectPayments(List<Long> ids) {
+        return changeStatus(ids, PaymentStatus.PENDING, PaymentStatus.REJECTED, DomainEventType.PAYMENT_REJECTED);
+    }
+
+    // Refund many completed payments
+    public BatchTransitionResult refundPayments(List<Long> ids) {
+        return changeStatus(ids, PaymentStatus.COMPLETED, PaymentStatus.REFUNDED, DomainEventType.PAYMENT_REFUNDED);
+    }
+
+    // Create new payment - saved as PENDING and charged asynchronously by the payment pipeline
     public Payment createPayment(Payment payment) {
-        return paymentRepository.save(payment);
+        payment.setId(null);
+        payment.setStatus(PaymentStatus.PENDING);
+        payment.setProcessingStartedAt(null);
+        Payment saved = transactionTemplate.execute(tx -> {
+            Payment result = paymentRepository.save(payment);
+            outboxService.recordPayment(DomainEventType.PAYMENT_CREATED, result);
+            return result;
+        });
+        paymentProcessor.submit(saved.getId());
+        return saved;
     }
 
-    // Update payment
+    // Update payment - only while it is still PENDING, so an edit never races the pipeline's charge
     public Payment updatePayment(Long id, Payment paymentDetails) {
-        Payment payment = findById(id);
-        payment.setAmount(paymentDetails.getAmount());
-        payment.setStatus(paymentDetails.getStatus());
-        payment.setPaymentMethod(paymentDetails.getPaymentMethod());
-        return paymentRepository.save(payment);
+        PaymentStatus status = paymentDetails.getStatus() == null ? PaymentStatus.PENDING : paymentDetails.getStatus();
+        return transactionTemplate.execute(tx -> {
+            int updated = paymentRepository.updatePending(id, paymentDetails.getAmount(),
+                    paymentDetails.getPaymentMethod(), status);
+            Payment saved = requireUpdated(id, updated);
+            outboxService.recordPayment(DomainEventType.PAYMENT_UPDATED, saved);
+            return saved;
+        });
     }
 
     // Delete payment
     public void deletePayment(Long id) {
+        transactionTemplate.executeWithoutResult(tx -> {
+            Payment payment = findById(id);
+            paymentRepository.delete(payment);
+            outboxService.recordPayment(DomainEventType.PAYMENT_DELETED, payment);
+        });
+    }
+
+    // Single payment status change from PENDING, written together with its outbox event.
+    // The guarded UPDATE loses cleanly to the pipeline (or another admin) instead of overwriting it.
+    private Payment changeStatus(Long id, PaymentStatus status, DomainEventType event) {
+        return transactionTemplate.execute(tx -> {
+            int updated = paymentRepository.transition(id, PaymentStatus.PENDING, status);
+            Payment saved = requireUpdated(id, updated);
+            outboxService.recordPayment(event, saved);
+            return saved;
+        });
+    }
+
+    // 0 rows: either the payment does not exist (404) or it has left PENDING (409)
+    private Payment requireUpdated(Long id, int updated) {
         Payment payment = findById(id);
-        paymentRepository.delete(payment);
+        if (updated == 0) {
+            throw new InvalidStatusTransitionException(
+                    "Payment " + id + " is " + payment.getStatus() + ", expected " + PaymentStatus.PENDING);
+        }
+        return payment;
+    }
+
+    private BatchTransitionResult changeStatus(List<Long> ids, PaymentStatus from, PaymentStatus to, DomainEventType event) {
+        BatchTransitionResult result = new BatchTransitionResult(from.name(), to.name());
+        for (List<Long> chunk : BatchTransitions.chunks(ids)) {
+            List<BatchTransitionResult.Outcome> outcomes = transactionTemplate.execute(status -> {
+                Map<Long, Payment> current = new HashMap<>();
+                for (Payment payment : paymentRepository.lockAllById(chunk)) {
+                    current.put(payment.getId(), payment);
+                }
+                List<BatchTransitionResult.Outcome> chunkOutcomes = new ArrayList<>(chunk.size());
+                List<Payment> eligible = new ArrayList<>();
+                for (Long id : chunk) {
+                    Payment payment = current.get(id);
+                    String currentStatus = payment == null || payment.getStatus() == null ? null : payment.getStatus().name();
+                    BatchTransitionResult.Outcome outcome =
+                            BatchTransitions.outcomeFor(payment != null, currentStatus, from.name(), to.name());
+                    chunkOutcomes.add(outcome);
+                    if (outcome == BatchTransitionResult.Outcome.UPDATED) {
+                        eligible.add(payment);
+                    }
+                }
+                if (!eligible.isEmpty()) {
+                    paymentRepository.updateStatus(eligible.stream().map(Payment::getId).toList(), from, to);
+                    for (Payment payment : eligible) {
+                        payment.setStatus(to);
+                        outboxService.recordPayment(event, payment);
+                    }
+                }
+                return chunkOutcomes;
+            });
+            for (int i = 0; i < chunk.size(); i++) {
+                result.add(chunk.get(i), outcomes.get(i));
+            }
+        }
+        return result;
     }
 }
\ No newline at end of file
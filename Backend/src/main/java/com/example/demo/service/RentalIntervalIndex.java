@@ -0,0 +1,138 @@
+package com.example.demo.service;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Immutable interval index for the rentals of a single vehicle.
+ *
+ * Intervals are kept sorted by start day together with a running maximum of the
+ * end day, which makes it a flattened (static) interval tree: an overlap query is
+ * one binary search plus one comparison. Writers build a new copy, so readers
+ * never lock.
+ */
+public final class RentalIntervalIndex {
+
+    public static final RentalIntervalIndex EMPTY =
+            new RentalIntervalIndex(new long[0], new long[0], new long[0], new long[0]);
+
+    private final long[] rentalIds;
+    private final long[] starts;   // epoch days, ascending
+    private final long[] ends;     // epoch days, inclusive
+    private final long[] maxEnds;  // maxEnds[i] = max(ends[0..i])
+
+    private RentalIntervalIndex(long[] rentalIds, long[] starts, long[] ends, long[] maxEnds) {
+        this.rentalIds = rentalIds;
+        this.starts = starts;
+        this.ends = ends;
+        this.maxEnds = maxEnds;
+    }
+
+    public int size() {
+        return rentalIds.length;
+    }
+
+    // True if any indexed rental overlaps [from, to] (both inclusive)
+    public boolean overlaps(LocalDate from, LocalDate to) {
+        long fromDay = from.toEpochDay();
+        long toDay = to.toEpochDay();
+        int last = lastStartingOnOrBefore(toDay);
+        return last >= 0 && maxEnds[last] >= fromDay;
+    }
+
+    // Returns a copy with the rental added, replacing any previous interval for the same rental
+    public RentalIntervalIndex with(long rentalId, LocalDate startDate, LocalDate endDate) {
+        RentalIntervalIndex base = without(rentalId);
+        long start = startDate.toEpochDay();
+        long end = endDate.toEpochDay();
+        int n = base.size();
+        int pos = base.lastStartingOnOrBefore(start) + 1;
+
+        long[] ids = new long[n + 1];
+        long[] s = new long[n + 1];
+        long[] e = new long[n + 1];
+        System.arraycopy(base.rentalIds, 0, ids, 0, pos);
+        System.arraycopy(base.starts, 0, s, 0, pos);
+        System.arraycopy(base.ends, 0, e, 0, pos);
+        ids[pos] = rentalId;
+        s[pos] = start;
+        e[pos] = end;
+        System.arraycopy(base.rentalIds, pos, ids, pos + 1, n - pos);
+        System.arraycopy(base.starts, pos, s, pos + 1, n - pos);
+        System.arraycopy(base.ends, pos, e, pos + 1, n - pos);
+        return new RentalIntervalIndex(ids, s, e, runningMax(e));
+    }
+
+    // Returns a copy without the given rental (or this instance if it is not indexed)
+    public RentalIntervalIndex without(long rentalId) {
+        int pos = -1;
+        for (int i = 0; i < rentalIds.length; i++) {
+            if (rentalIds[i] == rentalId) {
+                pos = i;
+                break;
+            }
+        }
+        if (pos < 0) {
+            return this;
+        }
+        int n = rentalIds.length - 1;
+        if (n == 0) {
+            return EMPTY;
+        }
+        long[] ids = new long[n];
+        long[] s = new long[n];
+        long[] e = new long[n];
+        System.arraycopy(rentalIds, 0, ids, 0, pos);
+        System.arraycopy(starts, 0, s, 0, pos);
+        System.arraycopy(ends, 0, e, 0, pos);
+        System.arraycopy(rentalIds, pos + 1, ids, pos, n - pos);
+        System.arraycopy(starts, pos + 1, s, pos, n - pos);
+        System.arraycopy(ends, pos + 1, e, pos, n - pos);
+        return new RentalIntervalIndex(ids, s, e, runningMax(e));
+    }
+
+    // Bulk build used at startup; intervals are sorted once instead of inserted one by one
+    static RentalIntervalIndex of(long[] rentalIds, long[] starts, long[] ends) {
+        Integer[] order = new Integer[rentalIds.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(starts[a], starts[b]));
+
+        long[] ids = new long[order.length];
+        long[] s = new long[order.length];
+        long[] e = new long[order.length];
+        for (int i = 0; i < order.length; i++) {
+            ids[i] = rentalIds[order[i]];
+            s[i] = starts[order[i]];
+            e[i] = ends[order[i]];
+        }
+        return new RentalIntervalIndex(ids, s, e, runningMax(e));
+    }
+
+    private int lastStartingOnOrBefore(long day) {
+        int lo = 0;
+        int hi = starts.length - 1;
+        int result = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (starts[mid] <= day) {
+                result = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return result;
+    }
+
+    private static long[] runningMax(long[] ends) {
+        long[] max = new long[ends.length];
+        long current = Long.MIN_VALUE;
+        for (int i = 0; i < ends.length; i++) {
+            current = Math.max(current, ends[i]);
+            max[i] = current;
+        }
+        return max;
+    }
+}
@@ -1,11 +1,32 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.BatchTransitionResult;
+import com.example.demo.dto.CursorPage;
+import com.example.demo.dto.QuoteRequest;
+import com.example.demo.exception.BookingConflictException;
+import com.example.demo.exception.InvalidStatusTransitionException;
 import com.example.demo.model.Rental;
+import com.example.demo.model.RentalStatus;
+import com.example.demo.repository.BookingRepository;
+import com.example.demo.repository.ListingSpecifications;
 import com.example.demo.repository.RentalRepository;
+import com.example.demo.repository.VehicleRepository;
+import com.example.demo.service.events.DomainEventType;
+import com.example.demo.service.events.OutboxService;
+import com.example.demo.service.pricing.QuoteEngine;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.locks.Lock;
 
 @Service
 public class RentalService {
@@ -13,11 +34,51 @@ public class RentalService {
     @Autowired
     private RentalRepository rentalRepository;
 
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private AvailabilityService availabilityService;
+
+    @Autowired
+    private VehicleLockStripes vehicleLocks;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private QuoteEngine quoteEngine;
+
     // Get all rentals
     public List<Rental> findAll() {
         return rentalRepository.findAll();
     }
 
+    // Keyset-paginated rentals, newest first
+    public CursorPage<Rental> findPage(String cursor, Integer limit, RentalStatus status, Long userId, Long vehicleId,
+                                       LocalDate from, LocalDate to) {
+        int pageSize = ListingSpecifications.clampLimit(limit);
+        ListingSpecifications.Keyset<Rental> keyset = from != null || to != null
+                ? ListingSpecifications.byDate("bookingDate", cursor, LocalDate::parse,
+                        Rental::getBookingDate, Rental::getId)
+                : ListingSpecifications.byId(cursor, Rental::getId);
+        Specification<Rental> spec = ListingSpecifications.allOf(
+                keyset.seek(),
+                ListingSpecifications.attributeEquals("status", status),
+                ListingSpecifications.attributeEquals("userId", userId),
+                ListingSpecifications.attributeEquals("vehicleId", vehicleId),
+                ListingSpecifications.dateBetween("bookingDate", from, to));
+        List<Rental> rows = rentalRepository.findBy(spec,
+                q -> q.sortBy(keyset.sort()).limit(pageSize + 1).all());
+        return CursorPage.of(rows, pageSize, keyset::cursorOf, rental -> rental);
+    }
+
     // Get rental by ID
     public Rental findById(Long id) {
         Optional<Rental> rental = rentalRepository.findById(id);
@@ -25,7 +86,7 @@ public class RentalService {
     }
 
     // Get rentals by status
-    public List<Rental> findByStatus(String status) {
+    public List<Rental> findByStatus(RentalStatus status) {
         return rentalRepository.findByStatus(status);
     }
 
@@ -36,44 +97,227 @@ public class RentalService {
 
     // Confirm a rental
     public Rental confirmRental(Long id) {
-        Rental rental = findById(id);
-        rental.setStatus("CONFIRMED");
-        return rentalRepository.save(rental);
+        return changeStatus(id, RentalStatus.CONFIRMED, DomainEventType.RENTAL_CONFIRMED);
     }
 
     // Reject a rental
     public Rental rejectRental(Long id) {
-        Rental rental = findById(id);
-        rental.setStatus("REJECTED");
-        return rentalRepository.save(rental);
+        return changeStatus(id, RentalStatus.REJECTED, DomainEventType.RENTAL_REJECTED);
     }
 
     // Complete a rental
     public Rental completeRental(Long id) {
-        Rental rental = findById(id);
-        rental.setStatus("COMPLETED");
-        return rentalRepository.save(rental);
+        return changeStatus(id, RentalStatus.COMPLETED, DomainEventType.RENTAL_COMPLETED);
     }
 
-    // Create new rental
-    public Rental createRental(Rental rental) {
-        return rentalRepository.save(rental);
+    // Confirm many pending rentals with one locking select and one UPDATE per chunk
+    public BatchTransitionResult confirmRentals(List<Long> ids) {
+        return changeStatus(ids, RentalStatus.PENDING, RentalStatus.CONFIRMED, DomainEventType.RENTAL_CONFIRMED);
     }
 
-    // Update rental
-    public Rental updateRental(Long id, Rental rentalDetails) {
+    // Reject many pending rentals, releasing their dates
+    public BatchTransitionResult rejectRentals(List<Long> ids) {
+        return changeStatus(ids, RentalStatus.PENDING, RentalStatus.REJECTED, DomainEventType.RENTAL_REJECTED);
+    }
+
+    // Complete many confirmed rentals
+    public BatchTransitionResult completeRentals(List<Long> ids) {
+        return changeStatus(ids, RentalStatus.CONFIRMED, RentalStatus.COMPLETED, DomainEventType.RENTAL_COMPLETED);
+    }
+
+    // Create new rental - the overlap check and the insert are atomic per vehicle.
+    // The price is quoted here for the calling user; a totalCost sent by the client is ignored.
+    public Rental createRental(Rental rental, String userEmail) {
+        if (rental.getVehicleId() == null || rental.getStartDate() == null || rental.getEndDate() == null) {
+            throw new IllegalArgumentException("vehicleId, startDate and endDate are required");
+        }
+        if (rental.getEndDate().isBefore(rental.getStartDate())) {
+            throw new IllegalArgumentException("endDate must not be before startDate");
+        }
+        // Every rental starts PENDING; approval goes through updateRental and the transition table
+        if (rental.getStatus() != null && rental.getStatus() != RentalStatus.PENDING) {
+            throw new IllegalArgumentException("A new rental must be PENDING, not " + rental.getStatus());
+        }
+        rental.setId(null);
+        rental.setStatus(RentalStatus.PENDING);
+        if (rental.getBookingDate() == null) {
+            rental.setBookingDate(LocalDate.now());
+        }
+        rental.setTotalCost(quote(rental, quoteEngine.isFirstTimeUser(userEmail, null)));
+        return reserve(rental, DomainEventType.RENTAL_CREATED);
+    }
+
+    // Update rental - a status change must follow the transition table; @Version catches concurrent edits.
+    // The new dates are repriced for the calling user, not taken from the client.
+    public Rental updateRental(Long id, Rental rentalDetails, String userEmail) {
         Rental rental = findById(id);
+        RentalStatus target = rentalDetails.getStatus();
+        if (target != null && target != rental.getStatus()) {
+            checkTransition(id, rental.getStatus(), target);
+            rental.setStatus(target);
+        }
         rental.setStartDate(rentalDetails.getStartDate());
         rental.setEndDate(rentalDetails.getEndDate());
-        rental.setTotalCost(rentalDetails.getTotalCost());
-        rental.setStatus(rentalDetails.getStatus());
         rental.setPickupLocation(rentalDetails.getPickupLocation());
-        return rentalRepository.save(rental);
+        if (rental.getVehicleId() != null && rental.getStartDate() != null && rental.getEndDate() != null) {
+            rental.setTotalCost(quote(rental, quoteEngine.isFirstTimeUser(userEmail, id)));
+        }
+        return save(rental, DomainEventType.RENTAL_UPDATED);
     }
 
     // Delete rental
     public void deleteRental(Long id) {
         Rental rental = findById(id);
-        rentalRepository.delete(rental);
+        transactionTemplate.executeWithoutResult(status -> {
+            rentalRepository.delete(rental);
+            publish(DomainEventType.RENTAL_DELETED, rental);
+        });
+        availabilityService.remove(rental.getId());
+    }
+
+    // Single-rental transition as a guarded UPDATE; repeating the call on a rental already in the target is a no-op.
+    // PENDING and CONFIRMED both hold dates, so no overlap check is needed.
+    private Rental changeStatus(Long id, RentalStatus to, DomainEventType event) {
+        Rental rental = findById(id);
+        RentalStatus from = rental.getStatus();
+        if (from == to) {
+            return rental;
+        }
+        checkTransition(id, from, to);
+        transactionTemplate.executeWithoutResult(status -> {
+            if (rentalRepository.transition(id, from, to) == 0) {
+                throw new InvalidStatusTransitionException("Rental " + id + " is no longer " + from);
+            }
+            rental.setStatus(to);
+            rental.setVersion(rental.getVersion() == null ? 1L : rental.getVersion() + 1);
+            publish(event, rental);
+        });
+        availabilityService.index(rental);
+        return rental;
+    }
+
+    private void checkTransition(Long id, RentalStatus from, RentalStatus to) {
+        if (from != null && !from.canTransitionTo(to)) {
+            throw new InvalidStatusTransitionException("Rental " + id + " cannot move from " + from + " to " + to);
+        }
+    }
+
+    // from -> to for every id still in from; PENDING and CONFIRMED both hold dates, so no overlap check is needed
+    private BatchTransitionResult changeStatus(List<Long> ids, RentalStatus from, RentalStatus to, DomainEventType event) {
+        BatchTransitionResult result = new BatchTransitionResult(from.name(), to.name());
+        for (List<Long> chunk : BatchTransitions.chunks(ids)) {
+            List<BatchTransitionResult.Outcome> outcomes = transactionTemplate.execute(status -> {
+                Map<Long, Rental> current = new HashMap<>();
+                for (Rental rental : rentalRepository.lockAllById(chunk)) {
+                    current.put(rental.getId(), rental);
+                }
+                List<BatchTransitionResult.Outcome> chunkOutcomes = new ArrayList<>(chunk.size());
+                List<Rental> eligible = new ArrayList<>();
+                for (Long id : chunk) {
+                    Rental rental = current.get(id);
+                    BatchTransitionResult.Outcome outcome =
+                            BatchTransitions.outcomeFor(rental != null, rental == null ? null : rental.getStatus(), from, to);
+                    chunkOutcomes.add(outcome);
+                    if (outcome == BatchTransitionResult.Outcome.UPDATED) {
+                        eligible.add(rental);
+                    }
+                }
+                if (!eligible.isEmpty()) {
+                    rentalRepository.updateStatus(eligible.stream().map(Rental::getId).toList(), from, to);
+                    for (Rental rental : eligible) {
+                        rental.setStatus(to);
+                        publish(event, rental);
+                    }
+                }
+                return chunkOutcomes;
+            });
+            for (int i = 0; i < chunk.size(); i++) {
+                BatchTransitionResult.Outcome outcome = outcomes.get(i);
+                if (outcome == BatchTransitionResult.Outcome.UPDATED && !AvailabilityService.blocksDates(to)) {
+                    availabilityService.remove(chunk.get(i));
+                }
+                result.add(chunk.get(i), outcome);
+            }
+        }
+        return result;
+    }
+
+    // Rentals that hold dates go through the reservation path, the rest are saved directly.
+    // The event (if any) is written to the outbox in the same transaction as the rental.
+    private Rental save(Rental rental, DomainEventType event) {
+        if (rental.getVehicleId() != null && rental.getStartDate() != null && rental.getEndDate() != null
+                && AvailabilityService.blocksDates(rental.getStatus())) {
+            return reserve(rental, event);
+        }
+        Rental saved = transactionTemplate.execute(status -> {
+            Rental result = rentalRepository.save(rental);
+            publish(event, result);
+            return result;
+        });
+        availabilityService.index(saved);
+        return saved;
+    }
+
+    // Total of the best offer for the rental's vehicle and dates
+    private Double quote(Rental rental, boolean firstTimeUser) {
+        QuoteRequest request = new QuoteRequest();
+        request.setVehicleId(rental.getVehicleId());
+        request.setStartDate(rental.getStartDate());
+        request.setEndDate(rental.getEndDate());
+        return quoteEngine.quote(request, firstTimeUser).getTotalCost().doubleValue();
+    }
+
+    private void publish(DomainEventType event, Rental rental) {
+        if (event != null) {
+            outboxService.recordRental(event, rental);
+        }
+    }
+
+    // Checks for overlaps and commits while holding the vehicle's lock stripe.
+    // The in-memory index rejects most conflicts without a query; the database check and
+    // the vehicle version bump cover writes made by other application instances.
+    private Rental reserve(Rental rental, DomainEventType event) {
+        Long vehicleId = rental.getVehicleId();
+        LocalDate start = rental.getStartDate();
+        LocalDate end = rental.getEndDate();
+
+        Lock lock = vehicleLocks.lockFor(vehicleId);
+        lock.lock();
+        try {
+            if (!availabilityService.isAvailable(vehicleId, start, end, rental.getId())) {
+                throw conflict(vehicleId, start, end);
+            }
+            Rental saved;
+            try {
+                saved = transactionTemplate.execute(status -> {
+                    vehicleRepository.findForReservation(vehicleId)
+                            .orElseThrow(() -> new IllegalArgumentException("Vehicle not found with id: " + vehicleId));
+                    if (rentalRepository.existsOverlapping(vehicleId, start, end, rental.getId())
+                            || bookingRepository.existsOverlapping(vehicleId, start.atStartOfDay(), end.plusDays(1).atStartOfDay())) {
+                        throw conflict(vehicleId, start, end);
+                    }
+                    Rental result = rentalRepository.save(rental);
+                    publish(event, result);
+                    return result;
+                });
+            } catch (OptimisticLockingFailureException e) {
+                // A stale rental version is a concurrent edit of the rental itself; otherwise the vehicle's
+                // version moved because another instance reserved it between our check and our commit
+                if (e instanceof ObjectOptimisticLockingFailureException stale
+                        && Rental.class.getName().equals(stale.getPersistentClassName())) {
+                    throw e;
+                }
+                throw conflict(vehicleId, start, end);
+            }
+            availabilityService.index(saved);
+            return saved;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private BookingConflictException conflict(Long vehicleId, LocalDate start, LocalDate end) {
+        return new BookingConflictException(
+                "Vehicle " + vehicleId + " is already booked between " + start + " and " + end);
     }
-}
\ No newline at end of file
+}
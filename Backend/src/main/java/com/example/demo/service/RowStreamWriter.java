@@ -0,0 +1,96 @@
+package com.example.demo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Writes a stream of rows as NDJSON or CSV straight to an output stream.
+ *
+ * Rows are pulled one at a time and never collected, so memory use does not
+ * depend on the number of rows exported.
+ */
+public final class RowStreamWriter<T> {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ObjectWriter jsonWriter;
+    private final List<String> headers = new ArrayList<>();
+    private final List<Function<T, Object>> extractors = new ArrayList<>();
+
+    public RowStreamWriter(ObjectMapper objectMapper) {
+        this.jsonWriter = objectMapper.writer();
+    }
+
+    // CSV column; NDJSON uses the row's regular JSON form
+    public RowStreamWriter<T> column(String header, Function<T, Object> extractor) {
+        headers.add(header);
+        extractors.add(extractor);
+        return this;
+    }
+
+    // Returns the number of rows written
+    public long write(Stream<T> rows, ExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        long count = 0;
+        if (format == ExportFormat.CSV) {
+            writeCsvLine(writer, headers);
+        }
+        Iterator<T> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            T row = iterator.next();
+            if (format == ExportFormat.CSV) {
+                List<Object> values = new ArrayList<>(extractors.size());
+                for (Function<T, Object> extractor : extractors) {
+                    values.add(extractor.apply(row));
+                }
+                writeCsvLine(writer, values);
+            } else {
+                writer.write(jsonWriter.writeValueAsString(row));
+                writer.write('\n');
+            }
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+
+    private static void writeCsvLine(Writer writer, List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvCell(values.get(i)));
+        }
+        writer.write("\r\n");
+    }
+
+    static String csvCell(Object value) {
+        if (value == null) {
+            return "";
+        }
+        if (!(value instanceof CharSequence)) {
+            return value.toString();
+        }
+        String text = value.toString();
+        // Keep spreadsheets from evaluating user-entered text as a formula
+        if (!text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+}
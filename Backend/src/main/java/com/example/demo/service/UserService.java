@@ -1,42 +1,344 @@
 package com.example.demo.service;
 
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.example.demo.dto.CursorPage;
+import com.example.demo.dto.UserDTO;
+import com.example.demo.model.OutboxEvent;
 import com.example.demo.model.User;
+import com.example.demo.repository.ListingSpecifications;
+import com.example.demo.repository.OutboxEventRepository;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.service.events.DomainEventType;
+import com.example.demo.service.events.OutboxService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * User lookups with a negative filter and a positive cache in front of the database.
+ *
+ * Emails that were never registered are answered by the Bloom filter without a
+ * query. Recently used accounts are served from a bounded cache by id and email.
+ *
+ * Every user write goes through saveUser/deleteUser. Each one records a USER_*
+ * outbox event in the same transaction. Every instance tails those events
+ * (users.sync-interval): it adds the email to its filter and drops the cached
+ * user. So an account created or changed on another node (password hash, role)
+ * shows up within the relay and sync intervals, about a second, not after
+ * users.cache.ttl.
+ *
+ * A filter negative is authoritative only while that feed is current. If the
+ * tail has not succeeded for users.email-filter.max-feed-lag, lookups go to the
+ * database. emailExists guards registration, so it always confirms a negative
+ * in the database.
+ *
+ * The filter is rebuilt on a background thread at startup, periodically and
+ * when it saturates. A rebuild also clears deleted emails. Writers never wait
+ * for it.
+ */
 @Service
 public class UserService {
+
+ private static final Logger log = LoggerFactory.getLogger(UserService.class);
  
  @Autowired
  private UserRepository userRepository;
  
+ @Autowired
+ private MeterRegistry meterRegistry;
+ 
+ @Autowired
+ private TransactionTemplate transactionTemplate;
+ 
+ @Autowired
+ private OutboxService outboxService;
+ 
+ @Autowired
+ private OutboxEventRepository outboxEventRepository;
+ 
+ @Autowired
+ private ObjectMapper objectMapper;
+ 
+ @Value("${users.cache.max-size:10000}")
+ private long cacheMaxSize;
+ 
+ @Value("${users.cache.ttl:10m}")
+ private Duration cacheTtl;
+ 
+ @Value("${users.email-filter.false-positive-rate:0.01}")
+ private double falsePositiveRate;
+ 
+ @Value("${users.email-filter.max-feed-lag:30s}")
+ private Duration maxFeedLag;
+ 
+ @Value("${users.sync.batch-size:1000}")
+ private int syncBatchSize;
+ 
+ // Null until the first rebuild; lookups go to the database meanwhile
+ private volatile EmailBloomFilter knownEmails;
+ 
+ // Guards knownEmails/addedDuringRebuild so an email saved while a rebuild is scanning is not lost
+ private final Object filterLock = new Object();
+ private List<String> addedDuringRebuild;
+ 
+ private Cache<Long, User> usersById;
+ private Cache<String, Long> idsByEmail;
+ 
+ // Outbox publish sequence the user feed has read up to; -1 until the first rebuild sets the starting point
+ private volatile long feedSeq = -1;
+ private volatile long feedCurrentAt;
+ 
+ // Rebuilds run one at a time on this thread; requests while one is queued are coalesced
+ private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(runnable -> {
+     Thread thread = new Thread(runnable, "email-filter-rebuild");
+     thread.setDaemon(true);
+     return thread;
+ });
+ private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+ 
+ @PostConstruct
+ void initCaches() {
+     usersById = Caffeine.newBuilder().maximumSize(cacheMaxSize).expireAfterWrite(cacheTtl).build();
+     idsByEmail = Caffeine.newBuilder().maximumSize(cacheMaxSize).expireAfterWrite(cacheTtl).build();
+ }
+ 
+ @PreDestroy
+ void stopRebuilder() {
+     rebuilder.shutdownNow();
+ }
+ 
+ @EventListener(ApplicationReadyEvent.class)
+ @Scheduled(fixedDelayString = "${users.email-filter.rebuild-interval:10m}",
+            initialDelayString = "${users.email-filter.rebuild-interval:10m}")
+ public void requestEmailFilterRebuild() {
+     if (rebuildQueued.compareAndSet(false, true)) {
+         rebuilder.execute(() -> {
+             rebuildQueued.set(false);
+             try {
+                 rebuildEmailFilter();
+             } catch (RuntimeException e) {
+                 log.warn("Email filter rebuild failed; lookups use the previous filter", e);
+             }
+         });
+     }
+ }
+ 
+ // Load every registered email into a fresh filter, sized with room to grow (rebuild thread only)
+ void rebuildEmailFilter() {
+     if (feedSeq < 0) {
+         // the feed starts before the scan, so nothing written during it is missed
+         Long max = outboxEventRepository.findMaxPublishSeq();
+         feedSeq = max == null ? 0 : max;
+         feedCurrentAt = System.currentTimeMillis();
+     }
+     synchronized (filterLock) {
+         addedDuringRebuild = new ArrayList<>();
+     }
+     List<String> emails = userRepository.findAllEmails();
+     EmailBloomFilter filter = EmailBloomFilter.of(emails, Math.max(1024, emails.size() * 2), falsePositiveRate);
+     synchronized (filterLock) {
+         addedDuringRebuild.forEach(filter::put);
+         addedDuringRebuild = null;
+         knownEmails = filter;
+     }
+     log.info("Email filter rebuilt with {} emails", emails.size());
+ }
+ 
+ // Applies account changes published by any instance (including this one; applying twice is harmless)
+ @Scheduled(fixedDelayString = "${users.sync-interval:500ms}")
+ public void syncFromOutbox() {
+     if (feedSeq < 0) {
+         return;
+     }
+     while (true) {
+         List<OutboxEvent> rows = outboxEventRepository.findPublishedAfter(feedSeq, PageRequest.of(0, syncBatchSize));
+         for (OutboxEvent row : rows) {
+             if (OutboxService.USER.equals(row.getAggregateType())) {
+                 applyUserEvent(row);
+             }
+             feedSeq = row.getPublishSeq();
+         }
+         if (rows.size() < syncBatchSize) {
+             feedCurrentAt = System.currentTimeMillis();
+             return;
+         }
+     }
+ }
+ 
+ private void applyUserEvent(OutboxEvent event) {
+     if (event.getAggregateId() != null) {
+         forget(event.getAggregateId());
+     }
+     if (DomainEventType.USER_DELETED.name().equals(event.getEventType())) {
+         return;
+     }
+     try {
+         JsonNode email = objectMapper.readTree(event.getPayload()).path("email");
+         if (email.isTextual()) {
+             addKnownEmail(email.asText());
+         }
+     } catch (IOException e) {
+         log.warn("Unreadable payload in outbox event {}", event.getId(), e);
+     }
+ }
+ 
  public List<User> getAllUsers() {
      return userRepository.findAll();
  }
  
+ // Keyset-paginated users, newest first, as DTOs so password hashes stay server-side
+ public CursorPage<UserDTO> getUserPage(String cursor, Integer limit, String role) {
+     int pageSize = ListingSpecifications.clampLimit(limit);
+     ListingSpecifications.Keyset<User> keyset = ListingSpecifications.byId(cursor, User::getId);
+     Specification<User> spec = ListingSpecifications.allOf(
+             keyset.seek(),
+             ListingSpecifications.attributeEquals("role", role));
+     List<User> rows = userRepository.findBy(spec,
+             q -> q.sortBy(keyset.sort()).limit(pageSize + 1).all());
+     return CursorPage.of(rows, pageSize, keyset::cursorOf, UserDTO::from);
+ }
+ 
  public Optional<User> getUserById(Long id) {
-     return userRepository.findById(id);
+     User cached = usersById.getIfPresent(id);
+     if (cached != null) {
+         return Optional.of(copy(cached));
+     }
+     Optional<User> user = userRepository.findById(id);
+     user.ifPresent(this::remember);
+     return user;
  }
  
  public Optional<User> getUserByEmail(String email) {
-     return userRepository.findByEmail(email);
+     if (isUnknown(email)) {
+         return Optional.empty();
+     }
+     Long id = idsByEmail.getIfPresent(normalize(email));
+     User cached = id == null ? null : usersById.getIfPresent(id);
+     if (cached != null) {
+         return Optional.of(copy(cached));
+     }
+     Optional<User> user = userRepository.findByEmail(email);
+     user.ifPresent(this::remember);
+     return user;
  }
  
  public User saveUser(User user) {
-     return userRepository.save(user);
+     DomainEventType event = user.getId() == null ? DomainEventType.USER_CREATED : DomainEventType.USER_UPDATED;
+     User saved = transactionTemplate.execute(tx -> {
+         User result = userRepository.save(user);
+         outboxService.recordUser(event, result.getId(), result.getEmail());
+         return result;
+     });
+     addKnownEmail(saved.getEmail());
+     forget(saved.getId());
+     remember(saved);
+     return saved;
  }
  
  public void deleteUser(Long id) {
-     userRepository.deleteById(id);
+     transactionTemplate.executeWithoutResult(tx -> {
+         userRepository.deleteById(id);
+         outboxService.recordUser(DomainEventType.USER_DELETED, id, null);
+     });
+     forget(id);
  }
  
+ // Registration check, so a filter negative is confirmed in the database (the unique key has the last word anyway)
  public boolean emailExists(String email) {
-     return userRepository.existsByEmail(email);
+     if (email == null) {
+         return false;
+     }
+     return idsByEmail.getIfPresent(normalize(email)) != null || userRepository.existsByEmail(email);
+ }
+ 
+ private void addKnownEmail(String email) {
+     EmailBloomFilter filter;
+     synchronized (filterLock) {
+         filter = knownEmails;
+         if (filter != null) {
+             filter.put(email);
+         }
+         if (addedDuringRebuild != null) {
+             addedDuringRebuild.add(email);
+         }
+     }
+     if (filter != null && filter.isSaturated()) {
+         requestEmailFilterRebuild();
+     }
+ }
+ 
+ // A definite "never registered" from the filter; false means the database has to be asked.
+ // Only trusted while the outbox feed is current, since other instances register accounts too.
+ private boolean isUnknown(String email) {
+     if (email == null) {
+         return true;
+     }
+     EmailBloomFilter filter = knownEmails;
+     if (filter != null && System.currentTimeMillis() - feedCurrentAt <= maxFeedLag.toMillis()
+             && !filter.mightContain(email)) {
+         meterRegistry.counter("users.email-filter.negatives").increment();
+         return true;
+     }
+     return false;
+ }
+ 
+ private void remember(User user) {
+     if (user.getId() == null) {
+         return;
+     }
+     usersById.put(user.getId(), copy(user));
+     if (user.getEmail() != null) {
+         idsByEmail.put(normalize(user.getEmail()), user.getId());
+     }
+ }
+ 
+ // Drops the cached user and its email mapping (which may be an old email)
+ private void forget(Long id) {
+     User cached = usersById.getIfPresent(id);
+     usersById.invalidate(id);
+     if (cached != null && cached.getEmail() != null) {
+         idsByEmail.invalidate(normalize(cached.getEmail()));
+     }
+ }
+ 
+ // Cached users are never handed out directly, so a caller mutating its copy cannot change the cache
+ private static User copy(User user) {
+     User copy = new User();
+     copy.setId(user.getId());
+     copy.setName(user.getName());
+     copy.setEmail(user.getEmail());
+     copy.setPassword(user.getPassword());
+     copy.setRole(user.getRole());
+     return copy;
+ }
+ 
+ private static String normalize(String email) {
+     return email.trim().toLowerCase(Locale.ROOT);
  }
-}
\ No newline at end of file
+}
@@ -0,0 +1,148 @@
+package com.example.demo.service;
+
+import com.example.demo.model.PaymentStatus;
+import com.example.demo.model.Rental;
+import com.example.demo.model.RentalStatus;
+import com.example.demo.model.UserSummary;
+import com.example.demo.repository.BookingRepository;
+import com.example.demo.repository.PaymentRepository;
+import com.example.demo.repository.RentalRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.repository.UserSummaryRepository;
+import com.example.demo.service.events.DomainEvent;
+import com.example.demo.service.events.DomainEventSubscriber;
+import com.example.demo.service.events.OutboxService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Maintains the user_summaries read model so a profile page is one primary-key lookup.
+ *
+ * Every rental, booking and payment event names its user; each relayed batch
+ * refreshes only those users' rows, once per user, from indexed per-user queries.
+ * Recomputing the row (instead of applying deltas) makes redelivered or
+ * reordered events harmless. Users without a row yet are filled on first read.
+ */
+@Service
+public class UserSummaryService implements DomainEventSubscriber {
+
+    private static final List<PaymentStatus> PENDING = List.of(PaymentStatus.PENDING, PaymentStatus.PROCESSING);
+    private static final List<PaymentStatus> SPENT = List.of(PaymentStatus.COMPLETED);
+
+    @Autowired
+    private UserSummaryRepository userSummaryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${user-summary.recent-rentals:5}")
+    private int recentRentals;
+
+    // Get a user's summary, building it on first access
+    public Optional<UserSummary> getSummary(Long userId) {
+        Optional<UserSummary> summary = userSummaryRepository.findById(userId);
+        if (summary.isPresent() || !userRepository.existsById(userId)) {
+            return summary;
+        }
+        try {
+            return Optional.of(transactionTemplate.execute(status -> refresh(userId)));
+        } catch (DataIntegrityViolationException e) {
+            // the relay inserted it concurrently
+            return userSummaryRepository.findById(userId);
+        }
+    }
+
+    public int totalBookings(Long userId) {
+        return getSummary(userId).map(UserSummary::getTotalBookings).orElse(0);
+    }
+
+    @Override
+    public void onEvents(List<DomainEvent> events) {
+        Set<Long> userIds = new LinkedHashSet<>();
+        for (DomainEvent event : events) {
+            if (OutboxService.USER.equals(event.getAggregateType())) {
+                continue; // account changes do not touch the summary, and a deleted user must not get a row
+            }
+            JsonNode userId = event.getPayload().path("userId");
+            if (userId.canConvertToLong()) {
+                userIds.add(userId.asLong());
+            }
+        }
+        if (userIds.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> userIds.forEach(this::refresh));
+    }
+
+    private UserSummary refresh(Long userId) {
+        UserSummary summary = userSummaryRepository.findById(userId).orElseGet(() -> new UserSummary(userId));
+        summary.setTotalBookings((int) (bookingRepository.countByUserId(userId) + rentalRepository.countByUserId(userId)));
+        summary.setActiveRental(rentalRepository.findFirstByUserIdAndStatusOrderByIdDesc(userId, RentalStatus.CONFIRMED)
+                .map(this::toJson).orElse(null));
+        summary.setLifetimeSpend(paymentRepository.sumAmountByUserIdAndStatusIn(userId, SPENT));
+        summary.setPendingPayments((int) paymentRepository.countByUserIdAndStatusIn(userId, PENDING));
+        summary.setPendingAmount(paymentRepository.sumAmountByUserIdAndStatusIn(userId, PENDING));
+        List<Map<String, Object>> recent = new ArrayList<>();
+        for (Rental rental : rentalRepository.findByUserIdOrderByIdDesc(userId, PageRequest.of(0, recentRentals))) {
+            recent.add(brief(rental));
+        }
+        summary.setRecentRentals(toJson(recent));
+        summary.setUpdatedAt(LocalDateTime.now());
+        return userSummaryRepository.save(summary);
+    }
+
+    private Map<String, Object> brief(Rental rental) {
+        Map<String, Object> brief = new LinkedHashMap<>();
+        brief.put("id", rental.getId());
+        brief.put("vehicleId", rental.getVehicleId());
+        brief.put("vehicleName", rental.getVehicleName());
+        brief.put("startDate", rental.getStartDate());
+        brief.put("endDate", rental.getEndDate());
+        brief.put("totalCost", rental.getTotalCost());
+        brief.put("status", rental.getStatus());
+        return brief;
+    }
+
+    private String toJson(Rental rental) {
+        return toJson(brief(rental));
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize user summary", e);
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.VehicleImportResult;
+import com.example.demo.model.VehicleType;
+import com.example.demo.repository.VehicleRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk vehicle onboarding from CSV or JSON streams.
+ *
+ * Rows are validated as they are read. Registration numbers are checked
+ * against the existing fleet and the rest of the file in memory, and valid
+ * rows are inserted with plain JDBC batches (one transaction per batch).
+ * Hibernate is bypassed on purpose: with IDENTITY ids it cannot batch
+ * inserts, whereas the driver's rewriteBatchedStatements turns each JDBC
+ * batch into multi-row INSERTs.
+ */
+@Service
+public class VehicleImportService {
+
+    static final String INSERT_SQL = "INSERT INTO vehicles (name, model, number, rent_cost, type, available, damaged, version) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, 0)";
+
+    static final List<String> CSV_COLUMNS = List.of("name", "model", "number", "rentCost", "type", "available", "damaged");
+
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CatalogVersions catalogVersions;
+
+    @Value("${vehicles.import.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${vehicles.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    // CSV with a header row naming the columns (any order; model, available and damaged are optional)
+    public VehicleImportResult importCsv(InputStream in) throws IOException {
+        Importer importer = new Importer();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            throw new IllegalArgumentException("CSV is empty");
+        }
+        List<String> header = parseCsvLine(stripBom(headerLine));
+        long row = 1;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            row++;
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> cells = parseCsvLine(line);
+            Map<String, String> fields = new HashMap<>();
+            for (int i = 0; i < header.size() && i < cells.size(); i++) {
+                fields.put(header.get(i).trim(), cells.get(i));
+            }
+            importer.accept(row, fields);
+        }
+        return importer.finish();
+    }
+
+    // A JSON array of vehicle objects, or newline-delimited objects; read one element at a time
+    public VehicleImportResult importJson(InputStream in) throws IOException {
+        Importer importer = new Importer();
+        long row = 0;
+        try (MappingIterator<JsonNode> nodes = objectMapper.readerFor(JsonNode.class).readValues(in)) {
+            while (nodes.hasNextValue()) {
+                JsonNode node = nodes.nextValue();
+                row++;
+                Map<String, String> fields = new HashMap<>();
+                for (String column : CSV_COLUMNS) {
+                    JsonNode value = node.get(column);
+                    if (value != null && !value.isNull()) {
+                        fields.put(column, value.asText());
+                    }
+                }
+                importer.accept(row, fields);
+            }
+        } catch (JsonProcessingException e) {
+            // keep what was already read and report where the stream broke
+            importer.error(row + 1, null, "Malformed JSON, import stopped: " + e.getOriginalMessage());
+        }
+        return importer.finish();
+    }
+
+    // One import run: validation state, the pending batch and the report
+    private class Importer {
+
+        private final Set<String> knownNumbers = new HashSet<>();
+        private final List<Object[]> pending = new ArrayList<>(batchSize);
+        private final List<Long> pendingRows = new ArrayList<>(batchSize);
+        private final VehicleImportResult result = new VehicleImportResult();
+
+        Importer() {
+            for (String number : vehicleRepository.findAllNumbers()) {
+                knownNumbers.add(normalize(number));
+            }
+        }
+
+        void accept(long row, Map<String, String> fields) {
+            result.setReceived(result.getReceived() + 1);
+            String number = trimToNull(fields.get("number"));
+            try {
+                Object[] args = toInsertArgs(fields, number);
+                if (!knownNumbers.add(normalize(number))) {
+                    throw new IllegalArgumentException("Duplicate vehicle number");
+                }
+                pending.add(args);
+                pendingRows.add(row);
+                if (pending.size() >= batchSize) {
+                    flush();
+                }
+            } catch (IllegalArgumentException e) {
+                error(row, number, e.getMessage());
+            }
+        }
+
+        VehicleImportResult finish() {
+            flush();
+            return result;
+        }
+
+        void error(long row, String number, String message) {
+            result.setFailed(result.getFailed() + 1);
+            if (result.getErrors().size() < maxReportedErrors) {
+                result.getErrors().add(new VehicleImportResult.RowError(row, number, message));
+            } else {
+                result.setErrorsTruncated(true);
+            }
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            try {
+                // each batch commits on its own, so each one changes what the catalog endpoints serve
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.batchUpdate(INSERT_SQL, pending);
+                    catalogVersions.vehiclesChanged();
+                });
+                result.setImported(result.getImported() + pending.size());
+            } catch (DataAccessException e) {
+                // Usually a number inserted concurrently by someone else; retry row by row to pin it down
+                for (int i = 0; i < pending.size(); i++) {
+                    Object[] args = pending.get(i);
+                    try {
+                        jdbcTemplate.update(INSERT_SQL, args);
+                        result.setImported(result.getImported() + 1);
+                    } catch (DataAccessException rowFailure) {
+                        error(pendingRows.get(i), (String) args[2], rowFailure.getMostSpecificCause().getMessage());
+                    }
+                }
+                // the rows above committed one by one; the bump follows them
+                catalogVersions.vehiclesChanged();
+            }
+            pending.clear();
+            pendingRows.clear();
+        }
+    }
+
+    private static Object[] toInsertArgs(Map<String, String> fields, String number) {
+        String name = trimToNull(fields.get("name"));
+        if (name == null) {
+            throw new IllegalArgumentException("name is required");
+        }
+        if (number == null) {
+            throw new IllegalArgumentException("number is required");
+        }
+        String model = trimToNull(fields.get("model"));
+        if (name.length() > MAX_TEXT_LENGTH || number.length() > MAX_TEXT_LENGTH
+                || (model != null && model.length() > MAX_TEXT_LENGTH)) {
+            throw new IllegalArgumentException("name, model and number must be at most " + MAX_TEXT_LENGTH + " characters");
+        }
+
+        String rentCostText = trimToNull(fields.get("rentCost"));
+        if (rentCostText == null) {
+            throw new IllegalArgumentException("rentCost is required");
+        }
+        BigDecimal rentCost;
+        try {
+            rentCost = new BigDecimal(rentCostText);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("rentCost must be a number");
+        }
+        if (rentCost.signum() <= 0) {
+            throw new IllegalArgumentException("rentCost must be positive");
+        }
+
+        String typeText = trimToNull(fields.get("type"));
+        VehicleType type;
+        try {
+            type = VehicleType.valueOf(typeText == null ? "" : typeText.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("type must be CAR or BIKE");
+        }
+
+        boolean available = parseBoolean(fields.get("available"), true, "available");
+        boolean damaged = parseBoolean(fields.get("damaged"), false, "damaged");
+        return new Object[] {name, model, number, rentCost, type.name(), available, damaged};
+    }
+
+    private static boolean parseBoolean(String value, boolean defaultValue, String column) {
+        String text = trimToNull(value);
+        if (text == null) {
+            return defaultValue;
+        }
+        if ("true".equalsIgnoreCase(text)) {
+            return true;
+        }
+        if ("false".equalsIgnoreCase(text)) {
+            return false;
+        }
+        throw new IllegalArgumentException(column + " must be true or false");
+    }
+
+    // MySQL's default collation compares case-insensitively, so "ka01ab1234" duplicates "KA01AB1234"
+    private static String normalize(String number) {
+        return number == null ? null : number.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private static String stripBom(String line) {
+        return line.startsWith("\uFEFF") ? line.substring(1) : line;
+    }
+
+    // RFC 4180 cells on a single line: commas, "quoted, cells" and "" escapes (no embedded newlines)
+    static List<String> parseCsvLine(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cell.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    cell.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        cells.add(cell.toString());
+        return cells;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.demo.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed pool of locks shared by all vehicles (lock striping).
+ *
+ * Reservations for the same vehicle always map to the same lock, so the
+ * overlap check and the insert happen atomically; consecutive vehicle ids land
+ * on different stripes, so bookings for different vehicles do not contend.
+ */
+@Component
+public class VehicleLockStripes {
+
+    private static final int STRIPES = 256; // power of two
+
+    private final Lock[] locks = new Lock[STRIPES];
+
+    public VehicleLockStripes() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public Lock lockFor(Long vehicleId) {
+        return locks[Long.hashCode(vehicleId) & (STRIPES - 1)];
+    }
+}
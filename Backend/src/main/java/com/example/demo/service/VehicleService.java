@@ -1,73 +1,122 @@
 // service/VehicleService.java
 package com.example.demo.service;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.example.demo.config.CachingConfig;
+import com.example.demo.dto.VehicleResponse;
 import com.example.demo.model.Vehicle;
 import com.example.demo.model.VehicleType;
 import com.example.demo.repository.VehicleRepository;
+import com.example.demo.service.events.DomainEventType;
+import com.example.demo.service.events.OutboxService;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
+// Reads are cached per query shape as immutable VehicleResponse lists, so callers share them safely;
+// any write clears the whole catalog once it commits (CatalogVersions; it is small and rarely changes)
 @Service
+@CacheConfig(cacheNames = CachingConfig.VEHICLES)
 public class VehicleService {
     
     @Autowired
     private VehicleRepository vehicleRepository;
     
-    public List<Vehicle> getAllVehicles() {
-        return vehicleRepository.findAll();
+    @Autowired
+    private OutboxService outboxService;
+    
+    @Autowired
+    private CatalogVersions catalogVersions;
+    
+    @Cacheable(key = "'all'")
+    public List<VehicleResponse> getAllVehicles() {
+        return toResponses(vehicleRepository.findAll());
     }
     
-    public Optional<Vehicle> getVehicleById(Long id) {
-        return vehicleRepository.findById(id);
+    @Cacheable(key = "'id:' + #id", unless = "#result == null")
+    public Optional<VehicleResponse> getVehicleById(Long id) {
+        return vehicleRepository.findById(id).map(VehicleResponse::from);
     }
     
-    public List<Vehicle> getVehiclesByType(VehicleType type) {
-        return vehicleRepository.findByType(type);
+    @Cacheable(key = "'type:' + #type")
+    public List<VehicleResponse> getVehiclesByType(VehicleType type) {
+        return toResponses(vehicleRepository.findByType(type));
     }
     
-    public List<Vehicle> getAvailableVehicles() {
-        return vehicleRepository.findByAvailable(true);
+    @Cacheable(key = "'available'")
+    public List<VehicleResponse> getAvailableVehicles() {
+        return toResponses(vehicleRepository.findByAvailable(true));
     }
     
-    public List<Vehicle> getDamagedVehicles() {
-        return vehicleRepository.findByDamaged(true);
+    @Cacheable(key = "'damaged'")
+    public List<VehicleResponse> getDamagedVehicles() {
+        return toResponses(vehicleRepository.findByDamaged(true));
     }
     
-    public List<Vehicle> getAvailableVehiclesByType(VehicleType type) {
-        return vehicleRepository.findByTypeAndAvailable(type, true);
+    @Cacheable(key = "'available:' + #type")
+    public List<VehicleResponse> getAvailableVehiclesByType(VehicleType type) {
+        return toResponses(vehicleRepository.findByTypeAndAvailable(type, true));
     }
     
+    // The version is not part of the JSON, so a posted vehicle with an id takes the stored row's version
+    // (and is merged as an update) instead of being persisted as a new entity with an id
+    @Transactional
     public Vehicle saveVehicle(Vehicle vehicle) {
-        return vehicleRepository.save(vehicle);
+        if (vehicle.getId() != null) {
+            Optional<Vehicle> existing = vehicleRepository.findById(vehicle.getId());
+            if (existing.isPresent()) {
+                vehicle.setVersion(existing.get().getVersion());
+            } else {
+                vehicle.setId(null);
+            }
+        }
+        Vehicle saved = vehicleRepository.save(vehicle);
+        catalogVersions.vehiclesChanged();
+        return saved;
     }
     
+    @Transactional
     public void deleteVehicle(Long id) {
         vehicleRepository.deleteById(id);
+        catalogVersions.vehiclesChanged();
     }
     
+    @Transactional
     public Vehicle markAsDamaged(Long id) {
         Optional<Vehicle> vehicleOpt = vehicleRepository.findById(id);
         if (vehicleOpt.isPresent()) {
             Vehicle vehicle = vehicleOpt.get();
             vehicle.setDamaged(true);
             vehicle.setAvailable(false);
-            return vehicleRepository.save(vehicle);
+            Vehicle saved = vehicleRepository.save(vehicle);
+            outboxService.recordVehicle(DomainEventType.VEHICLE_DAMAGED, saved);
+            catalogVersions.vehiclesChanged();
+            return saved;
         }
         return null;
     }
     
+    @Transactional
     public Vehicle markAsRepaired(Long id) {
         Optional<Vehicle> vehicleOpt = vehicleRepository.findById(id);
         if (vehicleOpt.isPresent()) {
             Vehicle vehicle = vehicleOpt.get();
             vehicle.setDamaged(false);
             vehicle.setAvailable(true);
-            return vehicleRepository.save(vehicle);
+            Vehicle saved = vehicleRepository.save(vehicle);
+            outboxService.recordVehicle(DomainEventType.VEHICLE_REPAIRED, saved);
+            catalogVersions.vehiclesChanged();
+            return saved;
         }
         return null;
     }
+    
+    // Unmodifiable list of immutable views, safe to hand to every cache hit
+    private static List<VehicleResponse> toResponses(List<Vehicle> vehicles) {
+        return vehicles.stream().map(VehicleResponse::from).toList();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,218 @@
+package com.example.demo.service.analytics;
+
+import com.example.demo.model.DamageFact;
+import com.example.demo.model.PaymentFact;
+import com.example.demo.model.PaymentStatus;
+import com.example.demo.model.RentalFact;
+import com.example.demo.model.RentalStatus;
+import com.example.demo.model.RollupDimension;
+import com.example.demo.model.Vehicle;
+import com.example.demo.model.VehicleType;
+import com.example.demo.repository.BookingRepository;
+import com.example.demo.repository.DamageFactRepository;
+import com.example.demo.repository.PaymentFactRepository;
+import com.example.demo.repository.RentalFactRepository;
+import com.example.demo.repository.VehicleRepository;
+import com.example.demo.service.events.DomainEvent;
+import com.example.demo.service.events.DomainEventSubscriber;
+import com.example.demo.service.events.DomainEventType;
+import com.example.demo.service.events.OutboxService;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Keeps the analytics_daily_rollups table current from outbox events.
+ *
+ * Each rental and payment has a fact row holding the state last counted; an
+ * event subtracts the old fact's contribution and adds the new one, and the
+ * net deltas of the whole batch are upserted in one JDBC batch in the same
+ * transaction as the facts. Damage reports are counted once per event id.
+ * Only changes made after this projection was deployed are counted.
+ */
+@Service
+public class AnalyticsProjection implements DomainEventSubscriber {
+
+    static final String UPSERT_SQL = "INSERT INTO analytics_daily_rollups (dimension, dim_key, rollup_date, "
+            + "rentals_started, rentals_completed, rented_days, rental_revenue, payment_revenue, damage_reports) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE "
+            + "rentals_started = rentals_started + VALUES(rentals_started), "
+            + "rentals_completed = rentals_completed + VALUES(rentals_completed), "
+            + "rented_days = rented_days + VALUES(rented_days), "
+            + "rental_revenue = rental_revenue + VALUES(rental_revenue), "
+            + "payment_revenue = payment_revenue + VALUES(payment_revenue), "
+            + "damage_reports = damage_reports + VALUES(damage_reports)";
+
+    static final String FLEET_SQL = "INSERT INTO analytics_daily_rollups (dimension, dim_key, rollup_date, "
+            + "rentals_started, rentals_completed, rented_days, rental_revenue, payment_revenue, damage_reports, fleet_size) "
+            + "VALUES (?, ?, ?, 0, 0, 0, 0, 0, 0, ?) ON DUPLICATE KEY UPDATE fleet_size = VALUES(fleet_size)";
+
+    @Autowired
+    private RentalFactRepository rentalFactRepository;
+
+    @Autowired
+    private PaymentFactRepository paymentFactRepository;
+
+    @Autowired
+    private DamageFactRepository damageFactRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Override
+    public void onEvents(List<DomainEvent> events) {
+        transactionTemplate.executeWithoutResult(status -> {
+            RollupBatch batch = new RollupBatch();
+            for (DomainEvent event : events) {
+                if (event.getAggregateId() == null) {
+                    continue;
+                }
+                switch (event.getAggregateType()) {
+                    case OutboxService.RENTAL -> applyRental(event, batch);
+                    case OutboxService.PAYMENT -> applyPayment(event, batch);
+                    case OutboxService.VEHICLE -> applyDamage(event, batch);
+                    default -> { }
+                }
+            }
+            write(batch);
+        });
+    }
+
+    // Fleet size per vehicle type for today, the denominator of utilization
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${analytics.fleet-snapshot.cron:0 0 0 * * *}")
+    public void snapshotFleet() {
+        LocalDate today = LocalDate.now();
+        List<Object[]> args = new ArrayList<>();
+        long total = 0;
+        for (Object[] row : vehicleRepository.countByType()) {
+            long count = (Long) row[1];
+            total += count;
+            if (row[0] != null) {
+                args.add(new Object[]{RollupDimension.VEHICLE_TYPE.name(), ((VehicleType) row[0]).name(), today, count});
+            }
+        }
+        args.add(new Object[]{RollupDimension.FLEET.name(), RollupBatch.FLEET_KEY, today, total});
+        jdbcTemplate.batchUpdate(FLEET_SQL, args);
+    }
+
+    private void applyRental(DomainEvent event, RollupBatch batch) {
+        Optional<RentalFact> existing = rentalFactRepository.findById(event.getAggregateId());
+        existing.ifPresent(fact -> batch.rental(fact, -1));
+        if (DomainEventType.RENTAL_DELETED.name().equals(event.getType())) {
+            existing.ifPresent(rentalFactRepository::delete);
+            return;
+        }
+        JsonNode payload = event.getPayload();
+        RentalFact fact = existing.orElseGet(() -> new RentalFact(event.getAggregateId()));
+        fact.setVehicleId(longValue(payload, "vehicleId"));
+        fact.setVehicleType(text(payload, "vehicleType"));
+        fact.setPickupLocation(text(payload, "pickupLocation"));
+        fact.setStartDate(date(payload, "startDate"));
+        fact.setEndDate(date(payload, "endDate"));
+        String statusText = text(payload, "status");
+        fact.setStatus(statusText == null ? null : RentalStatus.valueOf(statusText));
+        fact.setTotalCost(decimal(payload, "totalCost"));
+        batch.rental(fact, 1);
+        rentalFactRepository.save(fact);
+    }
+
+    private void applyPayment(DomainEvent event, RollupBatch batch) {
+        Optional<PaymentFact> existing = paymentFactRepository.findById(event.getAggregateId());
+        existing.ifPresent(fact -> batch.payment(fact, -1));
+        if (DomainEventType.PAYMENT_DELETED.name().equals(event.getType())) {
+            existing.ifPresent(paymentFactRepository::delete);
+            return;
+        }
+        JsonNode payload = event.getPayload();
+        PaymentFact fact = existing.orElseGet(() -> newPaymentFact(event.getAggregateId(), payload));
+        String statusText = text(payload, "status");
+        PaymentStatus status = statusText == null ? null : PaymentStatus.valueOf(statusText);
+        if (status == PaymentStatus.COMPLETED && fact.getStatus() != PaymentStatus.COMPLETED) {
+            fact.setRevenueDate(event.getOccurredAt().toLocalDate());
+        }
+        fact.setStatus(status);
+        fact.setAmount(decimal(payload, "amount"));
+        batch.payment(fact, 1);
+        paymentFactRepository.save(fact);
+    }
+
+    // Payments reach their vehicle through the booking
+    private PaymentFact newPaymentFact(Long paymentId, JsonNode payload) {
+        PaymentFact fact = new PaymentFact(paymentId);
+        Long bookingId = longValue(payload, "bookingId");
+        if (bookingId != null) {
+            Optional<Vehicle> vehicle = bookingRepository.findVehicleByBookingId(bookingId);
+            vehicle.ifPresent(v -> {
+                fact.setVehicleId(v.getId());
+                fact.setVehicleType(v.getType() == null ? null : v.getType().name());
+            });
+        }
+        return fact;
+    }
+
+    private void applyDamage(DomainEvent event, RollupBatch batch) {
+        if (!DomainEventType.VEHICLE_DAMAGED.name().equals(event.getType())
+                || damageFactRepository.existsById(event.getId())) {
+            return;
+        }
+        DamageFact fact = damageFactRepository.save(new DamageFact(event.getId(), event.getAggregateId(),
+                text(event.getPayload(), "type"), event.getOccurredAt().toLocalDate()));
+        batch.damage(fact);
+    }
+
+    private void write(RollupBatch batch) {
+        List<Object[]> args = new ArrayList<>();
+        for (Map.Entry<RollupBatch.Key, RollupBatch.Delta> change : batch.changes().entrySet()) {
+            RollupBatch.Key key = change.getKey();
+            RollupBatch.Delta delta = change.getValue();
+            args.add(new Object[]{key.dimension().name(), key.key(), key.date(), delta.rentalsStarted,
+                    delta.rentalsCompleted, delta.rentedDays, delta.rentalRevenue, delta.paymentRevenue,
+                    delta.damageReports});
+        }
+        if (!args.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, args);
+        }
+    }
+
+    private static String text(JsonNode payload, String field) {
+        JsonNode node = payload.path(field);
+        return node.isNull() || node.isMissingNode() ? null : node.asText();
+    }
+
+    private static Long longValue(JsonNode payload, String field) {
+        JsonNode node = payload.path(field);
+        return node.canConvertToLong() ? node.asLong() : null;
+    }
+
+    private static LocalDate date(JsonNode payload, String field) {
+        String value = text(payload, field);
+        return value == null ? null : LocalDate.parse(value);
+    }
+
+    private static BigDecimal decimal(JsonNode payload, String field) {
+        JsonNode node = payload.path(field);
+        return node.isNumber() ? node.decimalValue() : null;
+    }
+}
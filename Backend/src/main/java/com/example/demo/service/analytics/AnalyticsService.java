@@ -0,0 +1,58 @@
+package com.example.demo.service.analytics;
+
+import com.example.demo.dto.DailyRevenue;
+import com.example.demo.dto.RollupTotals;
+import com.example.demo.model.RollupDimension;
+import com.example.demo.repository.DailyRollupRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+// Reports served from the daily rollups maintained by AnalyticsProjection
+@Service
+public class AnalyticsService {
+
+    static final int DEFAULT_RANGE_DAYS = 30;
+    static final int MAX_RANGE_DAYS = 3660;
+
+    @Autowired
+    private DailyRollupRepository dailyRollupRepository;
+
+    // Revenue, utilization and damage rate per key over [from, to]
+    public List<RollupTotals> totals(RollupDimension dimension, LocalDate from, LocalDate to) {
+        LocalDate end = to == null ? LocalDate.now() : to;
+        LocalDate start = from == null ? end.minusDays(DEFAULT_RANGE_DAYS - 1) : from;
+        long days = checkRange(start, end);
+        List<RollupTotals> totals = dailyRollupRepository.totals(dimension, start, end);
+        for (RollupTotals row : totals) {
+            row.setCapacityDays(switch (dimension) {
+                case FLEET, VEHICLE_TYPE -> row.getFleetDays();
+                case VEHICLE -> days;
+                case LOCATION -> null;
+            });
+        }
+        return totals;
+    }
+
+    // Daily revenue series per key over [from, to]
+    public List<DailyRevenue> dailyRevenue(RollupDimension dimension, LocalDate from, LocalDate to) {
+        LocalDate end = to == null ? LocalDate.now() : to;
+        LocalDate start = from == null ? end.minusDays(DEFAULT_RANGE_DAYS - 1) : from;
+        checkRange(start, end);
+        return dailyRollupRepository.dailyRevenue(dimension, start, end);
+    }
+
+    private static long checkRange(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("to must not be before from");
+        }
+        long days = ChronoUnit.DAYS.between(from, to) + 1;
+        if (days > MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Date range must not exceed " + MAX_RANGE_DAYS + " days");
+        }
+        return days;
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.demo.service.analytics;
+
+import com.example.demo.model.DamageFact;
+import com.example.demo.model.PaymentFact;
+import com.example.demo.model.PaymentStatus;
+import com.example.demo.model.RentalFact;
+import com.example.demo.model.RentalStatus;
+import com.example.demo.model.RollupDimension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rollup deltas for one batch of events.
+ *
+ * A fact contributes to every rollup it belongs to (the fleet, its vehicle, its
+ * vehicle type and, for rentals, its pickup location). A change is applied by
+ * removing the old fact's contribution and adding the new one, so re-applying
+ * an unchanged state nets to zero.
+ */
+final class RollupBatch {
+
+    static final String FLEET_KEY = "ALL";
+
+    // Same cap as QuoteEngine; keeps a bad date range from touching thousands of rows
+    static final int MAX_DAYS = 366;
+
+    record Key(RollupDimension dimension, String key, LocalDate date) {}
+
+    static final class Delta {
+        int rentalsStarted;
+        int rentalsCompleted;
+        int rentedDays;
+        int damageReports;
+        BigDecimal rentalRevenue = BigDecimal.ZERO;
+        BigDecimal paymentRevenue = BigDecimal.ZERO;
+
+        boolean isZero() {
+            return rentalsStarted == 0 && rentalsCompleted == 0 && rentedDays == 0 && damageReports == 0
+                    && rentalRevenue.signum() == 0 && paymentRevenue.signum() == 0;
+        }
+    }
+
+    private record Target(RollupDimension dimension, String key) {}
+
+    private final Map<Key, Delta> deltas = new LinkedHashMap<>();
+
+    // Confirmed and completed rentals occupy their vehicle; completed ones also count as revenue on the end date
+    void rental(RentalFact fact, int sign) {
+        if (!isRented(fact.getStatus()) || fact.getStartDate() == null || fact.getEndDate() == null
+                || fact.getEndDate().isBefore(fact.getStartDate())) {
+            return;
+        }
+        LocalDate start = fact.getStartDate();
+        LocalDate end = fact.getEndDate();
+        LocalDate last = end.isAfter(start.plusDays(MAX_DAYS - 1)) ? start.plusDays(MAX_DAYS - 1) : end;
+        boolean completed = fact.getStatus() == RentalStatus.COMPLETED;
+        for (Target target : targets(fact.getVehicleId(), fact.getVehicleType(), fact.getPickupLocation())) {
+            delta(target, start).rentalsStarted += sign;
+            for (LocalDate day = start; !day.isAfter(last); day = day.plusDays(1)) {
+                delta(target, day).rentedDays += sign;
+            }
+            if (completed) {
+                Delta delta = delta(target, end);
+                delta.rentalsCompleted += sign;
+                if (fact.getTotalCost() != null) {
+                    delta.rentalRevenue = delta.rentalRevenue.add(signed(fact.getTotalCost(), sign));
+                }
+            }
+        }
+    }
+
+    // Captured payments count as revenue on the day they completed; refunds take it back out
+    void payment(PaymentFact fact, int sign) {
+        if (fact.getStatus() != PaymentStatus.COMPLETED || fact.getAmount() == null || fact.getRevenueDate() == null) {
+            return;
+        }
+        for (Target target : targets(fact.getVehicleId(), fact.getVehicleType(), null)) {
+            Delta delta = delta(target, fact.getRevenueDate());
+            delta.paymentRevenue = delta.paymentRevenue.add(signed(fact.getAmount(), sign));
+        }
+    }
+
+    void damage(DamageFact fact) {
+        for (Target target : targets(fact.getVehicleId(), fact.getVehicleType(), null)) {
+            delta(target, fact.getReportedOn()).damageReports++;
+        }
+    }
+
+    // Non-zero deltas only
+    Map<Key, Delta> changes() {
+        Map<Key, Delta> changes = new LinkedHashMap<>();
+        deltas.forEach((key, delta) -> {
+            if (!delta.isZero()) {
+                changes.put(key, delta);
+            }
+        });
+        return changes;
+    }
+
+    static boolean isRented(RentalStatus status) {
+        return status == RentalStatus.CONFIRMED || status == RentalStatus.COMPLETED;
+    }
+
+    private Delta delta(Target target, LocalDate date) {
+        return deltas.computeIfAbsent(new Key(target.dimension(), target.key(), date), k -> new Delta());
+    }
+
+    private static List<Target> targets(Long vehicleId, String vehicleType, String location) {
+        List<Target> targets = new ArrayList<>(4);
+        targets.add(new Target(RollupDimension.FLEET, FLEET_KEY));
+        if (vehicleId != null) {
+            targets.add(new Target(RollupDimension.VEHICLE, vehicleId.toString()));
+        }
+        if (vehicleType != null && !vehicleType.isBlank()) {
+            targets.add(new Target(RollupDimension.VEHICLE_TYPE, vehicleType));
+        }
+        if (location != null && !location.isBlank()) {
+            String key = location.trim();
+            targets.add(new Target(RollupDimension.LOCATION, key.length() > 100 ? key.substring(0, 100) : key));
+        }
+        return targets;
+    }
+
+    private static BigDecimal signed(BigDecimal value, int sign) {
+        return sign < 0 ? value.negate() : value;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.demo.service.auth;
+
+import com.example.demo.exception.LoginThrottledException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-account and per-client-IP login rate limits.
+ *
+ * Every attempt takes a token from the bucket of the email it names and from
+ * the bucket of the address it comes from: the email bucket slows down guessing
+ * against one account, the IP bucket slows down credential stuffing across many.
+ * Buckets live in bounded caches and are dropped once they would be full again.
+ */
+@Service
+public class LoginThrottle {
+
+    private final MeterRegistry meterRegistry;
+    private final int emailCapacity;
+    private final long emailRefillNanos;
+    private final int ipCapacity;
+    private final long ipRefillNanos;
+    private final Cache<String, TokenBucket> byEmail;
+    private final Cache<String, TokenBucket> byIp;
+
+    public LoginThrottle(MeterRegistry meterRegistry,
+                         @Value("${auth.login.per-email.capacity:5}") int emailCapacity,
+                         @Value("${auth.login.per-email.refill-interval:1m}") Duration emailRefill,
+                         @Value("${auth.login.per-ip.capacity:30}") int ipCapacity,
+                         @Value("${auth.login.per-ip.refill-interval:2s}") Duration ipRefill,
+                         @Value("${auth.login.max-tracked-keys:100000}") long maxKeys) {
+        this.meterRegistry = meterRegistry;
+        this.emailCapacity = emailCapacity;
+        this.emailRefillNanos = emailRefill.toNanos();
+        this.ipCapacity = ipCapacity;
+        this.ipRefillNanos = ipRefill.toNanos();
+        this.byEmail = buckets(maxKeys, emailCapacity * emailRefillNanos);
+        this.byIp = buckets(maxKeys, ipCapacity * ipRefillNanos);
+    }
+
+    // Takes one attempt from the client's and the account's bucket, or throws with the wait until the next one
+    public void acquire(String email, String clientIp) {
+        long now = System.nanoTime();
+        if (clientIp != null) {
+            check(byIp, clientIp, ipCapacity, ipRefillNanos, now, "ip");
+        }
+        if (email != null) {
+            check(byEmail, email.trim().toLowerCase(Locale.ROOT), emailCapacity, emailRefillNanos, now, "email");
+        }
+    }
+
+    private void check(Cache<String, TokenBucket> buckets, String key, int capacity, long refillNanos, long now,
+                       String reason) {
+        long waitNanos = buckets.get(key, k -> new TokenBucket(capacity, refillNanos, now)).tryTake(now);
+        if (waitNanos > 0) {
+            meterRegistry.counter("auth.login.rejected", "reason", reason).increment();
+            throw new LoginThrottledException("Too many login attempts",
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1)));
+        }
+    }
+
+    private static Cache<String, TokenBucket> buckets(long maxKeys, long fullAfterNanos) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(fullAfterNanos, TimeUnit.NANOSECONDS)
+                .build();
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.demo.service.auth;
+
+import com.example.demo.exception.LoginThrottledException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BCrypt hashing and verification on a dedicated, bounded pool.
+ *
+ * A BCrypt check costs tens to hundreds of milliseconds of CPU, so running it on
+ * request threads lets a login spike starve every other endpoint. Here at most
+ * `workers` hashes run at once and at most `queue-capacity` wait; anything beyond
+ * that is refused immediately with a LoginThrottledException (429).
+ *
+ * The cost factor is calibrated at startup to the highest value whose hash time
+ * stays within `target-latency` on this machine. Hashes below that cost are
+ * re-hashed after a successful login; the cost is never lowered for existing hashes.
+ */
+@Service
+public class PasswordHasher {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHasher.class);
+
+    private static final int CALIBRATION_SAMPLES = 3;
+
+    private final MeterRegistry meterRegistry;
+    private final Duration waitTimeout;
+    private final Duration targetLatency;
+    private final int minCost;
+    private final int maxCost;
+    private final ThreadPoolExecutor executor;
+    private final Timer matchTimer;
+    private final Timer encodeTimer;
+
+    private volatile BCryptPasswordEncoder encoder;
+
+    public PasswordHasher(MeterRegistry meterRegistry,
+                          @Value("${auth.password.workers:4}") int workers,
+                          @Value("${auth.password.queue-capacity:64}") int queueCapacity,
+                          @Value("${auth.password.wait-timeout:5s}") Duration waitTimeout,
+                          @Value("${auth.password.target-latency:250ms}") Duration targetLatency,
+                          @Value("${auth.password.min-cost:10}") int minCost,
+                          @Value("${auth.password.max-cost:14}") int maxCost) {
+        this.meterRegistry = meterRegistry;
+        this.waitTimeout = waitTimeout;
+        this.targetLatency = targetLatency;
+        this.minCost = minCost;
+        this.maxCost = maxCost;
+        this.encoder = new BCryptPasswordEncoder(minCost);
+
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hasher-" + threads.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        meterRegistry.gauge("auth.password.queue.size", Tags.empty(), executor, e -> e.getQueue().size());
+        this.matchTimer = Timer.builder("auth.password.hash").tag("operation", "match").register(meterRegistry);
+        this.encodeTimer = Timer.builder("auth.password.hash").tag("operation", "encode").register(meterRegistry);
+    }
+
+    // Calibrates on the pool so startup is not held up; until then new hashes use min-cost
+    @EventListener(ApplicationReadyEvent.class)
+    public void calibrate() {
+        executor.execute(() -> {
+            BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minCost);
+            probe.encode("calibration");
+            long fastest = Long.MAX_VALUE;
+            for (int i = 0; i < CALIBRATION_SAMPLES; i++) {
+                long start = System.nanoTime();
+                probe.encode("calibration");
+                fastest = Math.min(fastest, System.nanoTime() - start);
+            }
+            int cost = costFor(fastest, targetLatency.toNanos(), minCost, maxCost);
+            encoder = new BCryptPasswordEncoder(cost);
+            log.info("BCrypt cost {} ({} ms at cost {}, target {} ms)", cost,
+                    TimeUnit.NANOSECONDS.toMillis(fastest), minCost, targetLatency.toMillis());
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return run(() -> matchTimer.recordCallable(() -> encoder.matches(rawPassword, encodedPassword)));
+    }
+
+    public String encode(String rawPassword) {
+        return run(() -> encodeTimer.recordCallable(() -> encoder.encode(rawPassword)));
+    }
+
+    // True if the hash is below the current cost (or not BCrypt at all) and should be replaced
+    public boolean needsRehash(String encodedPassword) {
+        try {
+            return encoder.upgradeEncoding(encodedPassword);
+        } catch (IllegalArgumentException e) {
+            return true;
+        }
+    }
+
+    // Highest cost in [minCost, maxCost] whose time stays within the target; each step doubles the work
+    static int costFor(long nanosAtMinCost, long targetNanos, int minCost, int maxCost) {
+        int cost = minCost;
+        long nanos = nanosAtMinCost;
+        while (cost < maxCost && nanos * 2 <= targetNanos) {
+            cost++;
+            nanos *= 2;
+        }
+        return cost;
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            meterRegistry.counter("auth.login.rejected", "reason", "queue_full").increment();
+            throw new LoginThrottledException("Password verification is saturated", 1);
+        }
+        try {
+            return future.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            meterRegistry.counter("auth.login.rejected", "reason", "timeout").increment();
+            throw new LoginThrottledException("Password verification timed out", 1);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while verifying password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.demo.service.auth;
+
+// Token bucket holding up to capacity tokens and gaining one every refillNanos; times are System.nanoTime() values
+final class TokenBucket {
+
+    private final int capacity;
+    private final long refillNanos;
+    private double tokens;
+    private long updatedAt;
+
+    TokenBucket(int capacity, long refillNanos, long now) {
+        this.capacity = capacity;
+        this.refillNanos = refillNanos;
+        this.tokens = capacity;
+        this.updatedAt = now;
+    }
+
+    // 0 if a token was taken, otherwise the nanos until one will be available
+    synchronized long tryTake(long now) {
+        if (now > updatedAt) {
+            tokens = Math.min(capacity, tokens + (double) (now - updatedAt) / refillNanos);
+            updatedAt = now;
+        }
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) * refillNanos);
+    }
+}
@@ -0,0 +1,5 @@
+package com.example.demo.service.auth;
+
+// Access token for API calls plus the refresh token that replaces it when it expires
+public record TokenPair(String accessToken, String refreshToken, String role, long expiresInSeconds) {
+}
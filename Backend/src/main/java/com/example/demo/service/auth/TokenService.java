@@ -0,0 +1,107 @@
+package com.example.demo.service.auth;
+
+import com.example.demo.exception.InvalidTokenException;
+import com.example.demo.model.User;
+import com.example.demo.security.JwtUtil;
+import com.example.demo.security.RevokedTokenStore;
+import com.example.demo.service.UserService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Access/refresh token pairs.
+ *
+ * A login starts a session family; every refresh rotates the refresh token
+ * (the presented one is revoked, a new one issued in the same family), so a
+ * client re-authenticates with a password only when the family ends. Presenting
+ * a refresh token that was already rotated means it was copied: the whole family
+ * is revoked, which also cuts off the access tokens issued from it.
+ */
+@Service
+public class TokenService {
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private RevokedTokenStore revokedTokens;
+
+    @Autowired
+    private UserService userService;
+
+    // New session after a successful password check
+    public TokenPair issue(User user) {
+        return issue(user, UUID.randomUUID().toString());
+    }
+
+    // Exchanges a refresh token for a new pair; the user is re-read (from cache) so role changes and deletions apply
+    public TokenPair refresh(String refreshToken) {
+        Claims claims = parseRefreshToken(refreshToken);
+        String family = claims.get(JwtUtil.FAMILY, String.class);
+        if (revokedTokens.isFamilyRevokedOnAnyInstance(family)) {
+            throw new InvalidTokenException("Refresh token has been revoked");
+        }
+        if (!revokedTokens.revokeToken(claims.getId(), claims.getExpiration().toInstant())) {
+            revokedTokens.revokeFamily(family, familyExpiry());
+            throw new InvalidTokenException("Refresh token was already used");
+        }
+        User user = userService.getUserByEmail(claims.getSubject())
+                .orElseThrow(() -> new InvalidTokenException("User no longer exists"));
+        return issue(user, family);
+    }
+
+    // Stream token in the caller's session family, so logging out also revokes it
+    public String issueStreamToken(Claims accessClaims) {
+        return jwtUtil.generateStreamToken(accessClaims.getSubject(), accessClaims.get("role", String.class),
+                accessClaims.get(JwtUtil.FAMILY, String.class));
+    }
+
+    // Ends the session of whichever of the two tokens is valid; unknown or expired tokens are ignored
+    public void logout(String accessToken, String refreshToken) {
+        for (String token : new String[] { accessToken, refreshToken }) {
+            if (token == null) {
+                continue;
+            }
+            try {
+                Claims claims = jwtUtil.parseClaims(token);
+                revokedTokens.revokeFamily(claims.get(JwtUtil.FAMILY, String.class), familyExpiry());
+            } catch (JwtException | IllegalArgumentException e) {
+                // nothing to revoke
+            }
+        }
+    }
+
+    private TokenPair issue(User user, String family) {
+        return new TokenPair(
+                jwtUtil.generateToken(user.getEmail(), user.getRole(), family),
+                jwtUtil.generateRefreshToken(user.getEmail(), user.getRole(), family),
+                user.getRole(),
+                jwtUtil.getAccessTokenTtl().toSeconds());
+    }
+
+    private Claims parseRefreshToken(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            throw new InvalidTokenException("Refresh token is required");
+        }
+        Claims claims;
+        try {
+            claims = jwtUtil.parseClaims(refreshToken);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new InvalidTokenException("Invalid refresh token");
+        }
+        if (!JwtUtil.isRefreshToken(claims) || claims.getId() == null) {
+            throw new InvalidTokenException("Not a refresh token");
+        }
+        return claims;
+    }
+
+    // No token of a family outlives the newest refresh token, which expires at most one refresh TTL from now
+    private Instant familyExpiry() {
+        return Instant.now().plus(jwtUtil.getRefreshTokenTtl());
+    }
+}
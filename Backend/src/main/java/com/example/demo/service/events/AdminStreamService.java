@@ -0,0 +1,287 @@
+package com.example.demo.service.events;
+
+import com.example.demo.model.OutboxEvent;
+import com.example.demo.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fans outbox events out to connected admin UIs over Server-Sent Events.
+ *
+ * Every node tails published events from the outbox table by publish sequence.
+ * Only one node relays a given batch (see OutboxRelay), so listening to the
+ * local relay would miss the rest. The sequence is the SSE event id, so
+ * Last-Event-ID and duplicate suppression follow publication order. Outbox ids
+ * follow write order, which can differ.
+ *
+ * An idle connection costs an async servlet request and a small queue, no
+ * thread. Sends run on a small sender pool, one drain task per connection at a
+ * time, so a slow client never holds up the tail. A client whose queue
+ * overflows is disconnected. Its EventSource reconnects with Last-Event-ID and
+ * catches up from the replay ring (recent events) or the outbox table (older ones).
+ */
+@Service
+public class AdminStreamService {
+
+    private static final Object HEARTBEAT = new Object();
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${admin.stream.replay-buffer:1024}")
+    private int replayBufferSize;
+
+    @Value("${admin.stream.queue-capacity:256}")
+    private int queueCapacity;
+
+    @Value("${admin.stream.max-replay:10000}")
+    private int maxReplay;
+
+    @Value("${admin.stream.timeout:30m}")
+    private Duration timeout;
+
+    @Value("${admin.stream.sender-threads:4}")
+    private int senderThreads;
+
+    // Ring of the most recent events; guarded by lock together with registration
+    private final ReentrantLock lock = new ReentrantLock();
+    private DomainEvent[] ring;
+    private int ringStart;
+    private int ringSize;
+
+    // Highest publish sequence read by poll(); -1 until the first poll, which starts from the current end
+    private long tailSeq = -1;
+
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+    private ExecutorService senders;
+
+    private final class Connection {
+        final SseEmitter emitter;
+        final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(queueCapacity);
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        volatile List<DomainEvent> replay;
+        volatile boolean closed;
+        long lastSentSeq; // only touched by the (single) running drain task
+
+        Connection(SseEmitter emitter, long lastSentSeq) {
+            this.emitter = emitter;
+            this.lastSentSeq = lastSentSeq;
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        ring = new DomainEvent[replayBufferSize];
+        senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "admin-stream-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+        meterRegistry.gaugeCollectionSize("admin.stream.connections", Tags.empty(), connections);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        connections.forEach(this::close);
+        senders.shutdownNow();
+    }
+
+    // Opens a stream; with lastEventId (a publish sequence), everything published after it is replayed first
+    public SseEmitter connect(Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Connection connection = new Connection(emitter, lastEventId == null ? 0 : lastEventId);
+        emitter.onCompletion(() -> connections.remove(connection));
+        emitter.onTimeout(() -> close(connection));
+        emitter.onError(e -> close(connection));
+
+        // Older than the ring: read from the outbox outside the lock (duplicates are skipped when sending)
+        List<DomainEvent> replay = new ArrayList<>();
+        if (lastEventId != null && !ringCovers(lastEventId)) {
+            for (OutboxEvent event : outboxEventRepository.findPublishedAfter(lastEventId, PageRequest.of(0, maxReplay))) {
+                replay.add(outboxRelay.toDomainEvent(event));
+            }
+        }
+        lock.lock();
+        try {
+            if (lastEventId != null) {
+                for (int i = 0; i < ringSize; i++) {
+                    DomainEvent event = ring[(ringStart + i) % ring.length];
+                    if (event.getSequence() > lastEventId) {
+                        replay.add(event);
+                    }
+                }
+            }
+            connections.add(connection);
+        } finally {
+            lock.unlock();
+        }
+        connection.replay = replay;
+        connection.queue.offer(HEARTBEAT); // flushes the response headers so the client sees the stream open
+        schedule(connection);
+        return emitter;
+    }
+
+    // Picks up events published by any node since the last poll
+    @Scheduled(fixedDelayString = "${admin.stream.poll-interval:500ms}")
+    public void poll() {
+        if (tailSeq < 0) {
+            Long max = outboxEventRepository.findMaxPublishSeq();
+            tailSeq = max == null ? 0 : max;
+            return;
+        }
+        while (true) {
+            List<OutboxEvent> rows = outboxEventRepository.findPublishedAfter(tailSeq, PageRequest.of(0, replayBufferSize));
+            if (rows.isEmpty()) {
+                return;
+            }
+            List<DomainEvent> events = new ArrayList<>(rows.size());
+            for (OutboxEvent row : rows) {
+                events.add(outboxRelay.toDomainEvent(row));
+            }
+            publish(events);
+            tailSeq = rows.get(rows.size() - 1).getPublishSeq();
+            if (rows.size() < replayBufferSize) {
+                return;
+            }
+        }
+    }
+
+    private void publish(List<DomainEvent> events) {
+        List<Connection> overflowed = new ArrayList<>();
+        lock.lock();
+        try {
+            for (DomainEvent event : events) {
+                append(event);
+            }
+            for (Connection connection : connections) {
+                for (DomainEvent event : events) {
+                    if (!connection.queue.offer(event)) {
+                        overflowed.add(connection);
+                        break;
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        overflowed.forEach(this::close);
+        for (Connection connection : connections) {
+            schedule(connection);
+        }
+    }
+
+    // Keeps idle connections (and proxies in between) from timing out
+    @Scheduled(fixedDelayString = "${admin.stream.heartbeat:15s}")
+    public void heartbeat() {
+        for (Connection connection : connections) {
+            connection.queue.offer(HEARTBEAT);
+            schedule(connection);
+        }
+    }
+
+    public int connectionCount() {
+        return connections.size();
+    }
+
+    private boolean ringCovers(long lastEventId) {
+        lock.lock();
+        try {
+            return ringSize > 0 && ring[ringStart].getSequence() <= lastEventId + 1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void append(DomainEvent event) {
+        if (ringSize < ring.length) {
+            ring[(ringStart + ringSize) % ring.length] = event;
+            ringSize++;
+        } else {
+            ring[ringStart] = event;
+            ringStart = (ringStart + 1) % ring.length;
+        }
+    }
+
+    private void schedule(Connection connection) {
+        if (!connection.closed && connection.scheduled.compareAndSet(false, true)) {
+            senders.execute(() -> drain(connection));
+        }
+    }
+
+    private void drain(Connection connection) {
+        try {
+            List<DomainEvent> replay = connection.replay;
+            if (replay != null) {
+                connection.replay = null;
+                for (DomainEvent event : replay) {
+                    send(connection, event);
+                }
+            }
+            Object item;
+            while (!connection.closed && (item = connection.queue.poll()) != null) {
+                if (item == HEARTBEAT) {
+                    connection.emitter.send(SseEmitter.event().comment("keepalive"));
+                } else {
+                    send(connection, (DomainEvent) item);
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            close(connection);
+        } finally {
+            connection.scheduled.set(false);
+            if (!connection.queue.isEmpty()) {
+                schedule(connection);
+            }
+        }
+    }
+
+    // Replay and live events can overlap; publication order makes the sequence a complete dedupe key
+    private void send(Connection connection, DomainEvent event) throws IOException {
+        if (event.getSequence() <= connection.lastSentSeq) {
+            return;
+        }
+        connection.emitter.send(SseEmitter.event()
+                .id(String.valueOf(event.getSequence()))
+                .name(event.getType())
+                .data(event, MediaType.APPLICATION_JSON));
+        connection.lastSentSeq = event.getSequence();
+    }
+
+    private void close(Connection connection) {
+        connection.closed = true;
+        connections.remove(connection);
+        try {
+            connection.emitter.complete();
+        } catch (IllegalStateException e) {
+            // already completed
+        }
+    }
+}
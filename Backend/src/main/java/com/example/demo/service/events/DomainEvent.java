@@ -0,0 +1,37 @@
+package com.example.demo.service.events;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.LocalDateTime;
+
+// An outbox event as delivered to subscribers. id is the outbox id (allocated at write time, so it
+// can commit out of order); sequence is assigned when the event is published and increases in delivery order.
+public final class DomainEvent {
+
+    private final Long id;
+    private final Long sequence;
+    private final String type;
+    private final String aggregateType;
+    private final Long aggregateId;
+    private final JsonNode payload;
+    private final LocalDateTime occurredAt;
+
+    public DomainEvent(Long id, Long sequence, String type, String aggregateType, Long aggregateId, JsonNode payload,
+                       LocalDateTime occurredAt) {
+        this.id = id;
+        this.sequence = sequence;
+        this.type = type;
+        this.aggregateType = aggregateType;
+        this.aggregateId = aggregateId;
+        this.payload = payload;
+        this.occurredAt = occurredAt;
+    }
+
+    public Long getId() { return id; }
+    public Long getSequence() { return sequence; }
+    public String getType() { return type; }
+    public String getAggregateType() { return aggregateType; }
+    public Long getAggregateId() { return aggregateId; }
+    public JsonNode getPayload() { return payload; }
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+}
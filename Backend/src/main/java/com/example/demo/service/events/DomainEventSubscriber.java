@@ -0,0 +1,15 @@
+package com.example.demo.service.events;
+
+import java.util.List;
+
+/**
+ * In-process consumer of outbox events; every bean implementing it is called by OutboxRelay.
+ *
+ * Delivery is at-least-once and in outbox order: if any subscriber throws, the
+ * whole batch is offered again on the next relay run, so handlers must be
+ * idempotent (e.g. skip event ids they have already applied).
+ */
+public interface DomainEventSubscriber {
+
+    void onEvents(List<DomainEvent> events);
+}
@@ -0,0 +1,23 @@
+package com.example.demo.service.events;
+
+public enum DomainEventType {
+    RENTAL_CREATED,
+    RENTAL_CONFIRMED,
+    RENTAL_REJECTED,
+    RENTAL_COMPLETED,
+    RENTAL_UPDATED,
+    RENTAL_DELETED,
+    BOOKING_CREATED,
+    PAYMENT_CREATED,
+    PAYMENT_COMPLETED,
+    PAYMENT_REJECTED,
+    PAYMENT_FAILED,
+    PAYMENT_REFUNDED,
+    PAYMENT_UPDATED,
+    PAYMENT_DELETED,
+    VEHICLE_DAMAGED,
+    VEHICLE_REPAIRED,
+    USER_CREATED,
+    USER_UPDATED,
+    USER_DELETED
+}
@@ -0,0 +1,167 @@
+package com.example.demo.service.events;
+
+import com.example.demo.model.OutboxEvent;
+import com.example.demo.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Publishes outbox events to the DomainEventSubscriber beans.
+ *
+ * Runs on one scheduler thread and reads unpublished events in id order, in
+ * batches. Each batch is handled in one transaction:
+ * - lock the outbox_relay_lease row (SKIP LOCKED, so one node relays at a time
+ *   and the others skip the run)
+ * - deliver the batch
+ * - number it with publish_seq and mark it published
+ *
+ * Subscribers that write to the database (AnalyticsProjection,
+ * UserSummaryService) join that transaction. Their changes therefore commit
+ * together with published_at, or not at all, and are never applied twice.
+ *
+ * Ids are allocated at insert, so a lower id can commit after a higher one has
+ * been published. It is then published by a later run with a higher
+ * publish_seq. Readers that resume from a position (SSE replay) use
+ * publish_seq, never the id.
+ *
+ * A failed batch is retried one event at a time, up to the event that fails.
+ * That event's attempt is counted and the run stops, so later events never
+ * overtake it. After outbox.relay.max-attempts it is parked (parked_at, with
+ * last_error) and delivery moves on. To re-drive it, clear parked_at.
+ * Published events are kept for outbox.retention (SSE replay uses them).
+ */
+@Service
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ObjectProvider<DomainEventSubscriber> subscribers;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${outbox.relay.batch-size:500}")
+    private int batchSize;
+
+    @Value("${outbox.relay.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${outbox.retention:7d}")
+    private Duration retention;
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval:500ms}")
+    public void relay() {
+        while (true) {
+            int published;
+            try {
+                published = transactionTemplate.execute(tx -> publishBatch(batchSize));
+            } catch (RuntimeException e) {
+                log.warn("Outbox batch delivery failed, retrying its events one at a time", e);
+                publishOneByOne();
+                return;
+            }
+            if (published < batchSize) {
+                return;
+            }
+        }
+    }
+
+    // Publishes up to limit events under the lease; -1 if another node holds it
+    private int publishBatch(int limit) {
+        List<Long> lease = outboxEventRepository.lockRelayLease();
+        if (lease.isEmpty()) {
+            return -1;
+        }
+        List<OutboxEvent> batch = outboxEventRepository.findUnpublished(PageRequest.of(0, limit));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        long seq = lease.get(0);
+        LocalDateTime now = LocalDateTime.now();
+        List<DomainEvent> events = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            event.setPublishSeq(++seq);
+            event.setPublishedAt(now);
+            events.add(toDomainEvent(event));
+        }
+        subscribers.orderedStream().forEach(subscriber -> subscriber.onEvents(events));
+        outboxEventRepository.advanceRelayLease(seq);
+        return batch.size();
+    }
+
+    // Publishes the head of the queue event by event; the first one that fails is charged an attempt
+    private void publishOneByOne() {
+        for (int i = 0; i < batchSize; i++) {
+            try {
+                if (transactionTemplate.execute(tx -> publishBatch(1)) < 1) {
+                    return;
+                }
+            } catch (RuntimeException e) {
+                recordFailure(e);
+                return;
+            }
+        }
+    }
+
+    private void recordFailure(RuntimeException failure) {
+        transactionTemplate.executeWithoutResult(tx -> {
+            if (outboxEventRepository.lockRelayLease().isEmpty()) {
+                return;
+            }
+            List<OutboxEvent> head = outboxEventRepository.findUnpublished(PageRequest.of(0, 1));
+            if (head.isEmpty()) {
+                return;
+            }
+            OutboxEvent event = head.get(0);
+            event.setAttempts(event.getAttempts() + 1);
+            String error = String.valueOf(failure);
+            event.setLastError(error.length() > 1000 ? error.substring(0, 1000) : error);
+            if (event.getAttempts() >= maxAttempts) {
+                event.setParkedAt(LocalDateTime.now());
+                log.error("Parked outbox event {} ({}) after {} failed deliveries",
+                        event.getId(), event.getEventType(), event.getAttempts(), failure);
+            } else {
+                log.warn("Outbox event {} ({}) failed delivery {} of {}, retrying on the next run",
+                        event.getId(), event.getEventType(), event.getAttempts(), maxAttempts, failure);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.purge-interval:1h}")
+    public void purge() {
+        outboxEventRepository.deletePublishedBefore(LocalDateTime.now().minus(retention));
+    }
+
+    DomainEvent toDomainEvent(OutboxEvent event) {
+        JsonNode payload;
+        try {
+            payload = event.getPayload() == null ? objectMapper.nullNode() : objectMapper.readTree(event.getPayload());
+        } catch (IOException e) {
+            payload = objectMapper.nullNode();
+        }
+        return new DomainEvent(event.getId(), event.getPublishSeq(), event.getEventType(), event.getAggregateType(),
+                event.getAggregateId(), payload, event.getCreatedAt());
+    }
+}
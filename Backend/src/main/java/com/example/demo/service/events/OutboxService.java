@@ -0,0 +1,106 @@
+package com.example.demo.service.events;
+
+import com.example.demo.model.Booking;
+import com.example.demo.model.OutboxEvent;
+import com.example.demo.model.Payment;
+import com.example.demo.model.Rental;
+import com.example.demo.model.Vehicle;
+import com.example.demo.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Writes domain events to the outbox; must join the transaction that makes the change
+@Service
+public class OutboxService {
+
+    public static final String RENTAL = "RENTAL";
+    public static final String PAYMENT = "PAYMENT";
+    public static final String BOOKING = "BOOKING";
+    public static final String VEHICLE = "VEHICLE";
+    public static final String USER = "USER";
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordRental(DomainEventType type, Rental rental) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("rentalId", rental.getId());
+        payload.put("userId", rental.getUserId());
+        payload.put("vehicleId", rental.getVehicleId());
+        payload.put("vehicleType", rental.getVehicleType());
+        payload.put("status", rental.getStatus());
+        payload.put("startDate", rental.getStartDate());
+        payload.put("endDate", rental.getEndDate());
+        payload.put("totalCost", rental.getTotalCost());
+        payload.put("pickupLocation", rental.getPickupLocation());
+        record(type, RENTAL, rental.getId(), payload);
+    }
+
+    // Reads only the ids of the lazy user/booking, so it works on detached payments too
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordPayment(DomainEventType type, Payment payment) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("paymentId", payment.getId());
+        payload.put("userId", payment.getUser() == null ? null : payment.getUser().getId());
+        payload.put("bookingId", payment.getBooking() == null ? null : payment.getBooking().getId());
+        payload.put("amount", payment.getAmount());
+        payload.put("status", payment.getStatus());
+        payload.put("paymentMethod", payment.getPaymentMethod());
+        payload.put("paymentDate", payment.getPaymentDate());
+        record(type, PAYMENT, payment.getId(), payload);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordBooking(DomainEventType type, Booking booking) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("bookingId", booking.getId());
+        payload.put("userId", booking.getUser() == null ? null : booking.getUser().getId());
+        payload.put("vehicleId", booking.getVehicle() == null ? null : booking.getVehicle().getId());
+        payload.put("status", booking.getStatus());
+        payload.put("startDate", booking.getStartDate());
+        payload.put("endDate", booking.getEndDate());
+        record(type, BOOKING, booking.getId(), payload);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordVehicle(DomainEventType type, Vehicle vehicle) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("vehicleId", vehicle.getId());
+        payload.put("name", vehicle.getName());
+        payload.put("number", vehicle.getNumber());
+        payload.put("type", vehicle.getType());
+        payload.put("available", vehicle.isAvailable());
+        payload.put("damaged", vehicle.isDamaged());
+        record(type, VEHICLE, vehicle.getId(), payload);
+    }
+
+    // Never the password hash: these events reach the admin stream
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordUser(DomainEventType type, Long userId, String email) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("userId", userId);
+        payload.put("email", email);
+        record(type, USER, userId, payload);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(DomainEventType type, String aggregateType, Long aggregateId, Map<String, ?> payload) {
+        try {
+            outboxEventRepository.save(new OutboxEvent(type.name(), aggregateType, aggregateId,
+                    objectMapper.writeValueAsString(payload)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + type + " payload", e);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.demo.service.payment;
+
+// What the provider said about one charge attempt
+public final class GatewayResult {
+
+    public enum Outcome {
+        APPROVED,
+        DECLINED,  // final: card refused, insufficient funds, ...
+        ERROR      // transient: timeout, provider unavailable; worth retrying
+    }
+
+    private final Outcome outcome;
+    private final String message;
+
+    private GatewayResult(Outcome outcome, String message) {
+        this.outcome = outcome;
+        this.message = message;
+    }
+
+    public static GatewayResult approved() {
+        return new GatewayResult(Outcome.APPROVED, null);
+    }
+
+    public static GatewayResult declined(String message) {
+        return new GatewayResult(Outcome.DECLINED, message);
+    }
+
+    public static GatewayResult error(String message) {
+        return new GatewayResult(Outcome.ERROR, message);
+    }
+
+    public Outcome getOutcome() { return outcome; }
+    public String getMessage() { return message; }
+}
@@ -0,0 +1,15 @@
+package com.example.demo.service.payment;
+
+import java.math.BigDecimal;
+
+/**
+ * Charges a payment with an external provider.
+ *
+ * Implementations are called from the pipeline's charge threads, may block, and must
+ * be thread-safe. The idempotency key is the same on every retry of a payment,
+ * so a provider that supports it never charges twice.
+ */
+public interface PaymentGateway {
+
+    GatewayResult charge(Long paymentId, BigDecimal amount, String paymentMethod, String idempotencyKey);
+}
@@ -0,0 +1,314 @@
+package com.example.demo.service.payment;
+
+import com.example.demo.model.Payment;
+import com.example.demo.model.PaymentStatus;
+import com.example.demo.repository.PaymentRepository;
+import com.example.demo.service.events.DomainEventType;
+import com.example.demo.service.events.OutboxService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Asynchronous payment pipeline.
+ *
+ * New payments are queued by id on a bounded in-memory queue. A dispatcher
+ * thread hands each one to a charge executor, with at most
+ * payments.pipeline.concurrency charges in flight. The executor uses virtual
+ * threads when spring.threads.virtual.enabled is set, and a pool of that many
+ * platform threads otherwise. A charge holds a database connection only for
+ * its short claim, read and finish statements, never across the gateway call.
+ * So throughput is roughly concurrency / gateway latency: 256 charges at 50ms
+ * is about 5000/s. It is not capped by the connection pool. Those statements
+ * pass through a fair gate of payments.pipeline.db-concurrency slots (kept
+ * below the pool size): hundreds of charges queue there in order instead of
+ * all spinning on the pool, and web requests keep connections of their own. A payment only moves
+ * with guarded single-row updates: PENDING -> PROCESSING (the claim), then
+ * PROCESSING -> COMPLETED or FAILED, so an admin action or another node racing
+ * on the same payment never gets overwritten. Transient gateway errors are
+ * retried with exponential backoff and jitter, off the worker threads.
+ *
+ * Nothing is lost when the queue is full or a node stops: the payment stays
+ * PENDING (or PROCESSING with a start time) and the sweeper queues it again.
+ */
+@Service
+public class PaymentProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentProcessor.class);
+
+    // One queued unit of work; attempt starts at 1
+    private record Job(Long paymentId, int attempt) {
+    }
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PaymentGateway paymentGateway;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${payments.pipeline.enabled:true}")
+    private boolean enabled;
+
+    // Charges in flight at once; each one mostly waits on the gateway
+    @Value("${payments.pipeline.concurrency:256}")
+    private int concurrency;
+
+    // Pipeline statements running at once; keep it below spring.datasource.hikari.maximum-pool-size
+    @Value("${payments.pipeline.db-concurrency:4}")
+    private int dbConcurrency;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${payments.pipeline.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${payments.pipeline.max-attempts:4}")
+    private int maxAttempts;
+
+    @Value("${payments.pipeline.backoff:200ms}")
+    private Duration backoff;
+
+    @Value("${payments.pipeline.stuck-after:5m}")
+    private Duration stuckAfter;
+
+    @Value("${payments.pipeline.sweep-batch-size:1000}")
+    private int sweepBatchSize;
+
+    private BlockingQueue<Job> queue;
+    private Semaphore inFlight;
+    private Semaphore dbSlots;
+    private Executor chargeExecutor;
+    private Thread dispatcher;
+    private ScheduledExecutorService retryScheduler;
+    private volatile boolean running;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        meterRegistry.gaugeCollectionSize("payments.pipeline.queue.size", Tags.empty(), queue);
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "payment-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        inFlight = new Semaphore(concurrency);
+        dbSlots = new Semaphore(dbConcurrency, true);
+        meterRegistry.gauge("payments.pipeline.in-flight", Tags.empty(), inFlight,
+                permits -> concurrency - permits.availablePermits());
+        chargeExecutor = virtualThreads ? virtualThreadExecutor() : platformThreadExecutor();
+        running = true;
+        dispatcher = new Thread(this::dispatch, "payment-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+        }
+        if (chargeExecutor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        } else if (chargeExecutor instanceof SimpleAsyncTaskExecutor taskExecutor) {
+            taskExecutor.close();
+        }
+        if (retryScheduler != null) {
+            retryScheduler.shutdownNow();
+        }
+    }
+
+    private static Executor virtualThreadExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("payment-charge-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+
+    // Threads are started on demand up to the concurrency limit; the dispatcher never queues more than that
+    private ExecutorService platformThreadExecutor() {
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "payment-charge-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Queue a freshly saved payment, after the surrounding transaction (if any) has committed
+    public void submit(Long paymentId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    offer(new Job(paymentId, 1));
+                }
+            });
+        } else {
+            offer(new Job(paymentId, 1));
+        }
+    }
+
+    // Re-queue payments the pipeline lost track of
+    @Scheduled(fixedDelayString = "${payments.pipeline.sweep-interval:30s}",
+               initialDelayString = "${payments.pipeline.sweep-interval:30s}")
+    public void sweep() {
+        if (!running) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minus(stuckAfter);
+        int released = paymentRepository.releaseStuck(cutoff);
+        if (released > 0) {
+            log.warn("Released {} payments stuck in PROCESSING since before {}", released, cutoff);
+        }
+        // Give freshly created payments a moment to arrive through submit() before sweeping them
+        List<Long> pending = paymentRepository.findPendingIdsBefore(
+                LocalDateTime.now().minusSeconds(10), PageRequest.of(0, sweepBatchSize));
+        for (Long id : pending) {
+            if (!offer(new Job(id, 1))) {
+                break;
+            }
+        }
+    }
+
+    private boolean offer(Job job) {
+        if (!running || !queue.offer(job)) {
+            // stays PENDING/PROCESSING in the database; the sweeper will queue it again
+            meterRegistry.counter("payments.pipeline.rejected").increment();
+            return false;
+        }
+        return true;
+    }
+
+    // Holds the next job until a slot frees up, so a slow gateway backs up into the bounded queue.
+    // The job is taken before the slot: an idle pipeline holds no permit and the in-flight gauge reads 0.
+    private void dispatch() {
+        while (running) {
+            try {
+                Job job = queue.take();
+                // interrupted here only on shutdown; the job's payment stays PENDING for the sweeper
+                inFlight.acquire();
+                chargeExecutor.execute(() -> {
+                    try {
+                        process(job);
+                    } catch (RuntimeException e) {
+                        log.error("Payment {} charge failed", job.paymentId(), e);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // executor rejected the job (shutting down); the payment stays PENDING for the sweeper
+                inFlight.release();
+                log.warn("Payment dispatcher could not hand off a job", e);
+            }
+        }
+    }
+
+    private void process(Job job) {
+        Long id = job.paymentId();
+        // Retries already own the payment; first attempts must win the claim
+        if (job.attempt() == 1 && withDb(() -> paymentRepository.claimForProcessing(id, LocalDateTime.now())) == 0) {
+            return;
+        }
+        Optional<Payment> payment = withDb(() -> paymentRepository.findById(id));
+        if (payment.isEmpty()) {
+            return;
+        }
+
+        GatewayResult result;
+        try {
+            result = paymentGateway.charge(id, payment.get().getAmount(), payment.get().getPaymentMethod(), "payment-" + id);
+        } catch (RuntimeException e) {
+            result = GatewayResult.error(e.getMessage());
+        }
+        meterRegistry.counter("payments.pipeline.attempts", "outcome", result.getOutcome().name()).increment();
+
+        switch (result.getOutcome()) {
+            case APPROVED -> finish(payment.get(), PaymentStatus.COMPLETED, DomainEventType.PAYMENT_COMPLETED);
+            case DECLINED -> finish(payment.get(), PaymentStatus.FAILED, DomainEventType.PAYMENT_FAILED);
+            case ERROR -> {
+                if (job.attempt() >= maxAttempts) {
+                    log.warn("Payment {} failed after {} attempts: {}", id, job.attempt(), result.getMessage());
+                    finish(payment.get(), PaymentStatus.FAILED, DomainEventType.PAYMENT_FAILED);
+                } else {
+                    retryLater(new Job(id, job.attempt() + 1));
+                }
+            }
+        }
+    }
+
+    // Guarded PROCESSING -> status, with its outbox event in the same transaction
+    private void finish(Payment payment, PaymentStatus status, DomainEventType event) {
+        withDb(() -> transactionTemplate.execute(tx -> {
+            if (paymentRepository.transition(payment.getId(), PaymentStatus.PROCESSING, status) == 1) {
+                payment.setStatus(status);
+                outboxService.recordPayment(event, payment);
+            }
+            return null;
+        }));
+    }
+
+    // Runs one short database step inside a db-concurrency slot
+    private <T> T withDb(Supplier<T> step) {
+        dbSlots.acquireUninterruptibly();
+        try {
+            return step.get();
+        } finally {
+            dbSlots.release();
+        }
+    }
+
+    // backoff * 2^(attempt-2), plus up to 50% jitter so retries of a burst do not line up
+    private void retryLater(Job job) {
+        long delay = backoff.toMillis() << Math.min(job.attempt() - 2, 16);
+        delay += ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+        retryScheduler.schedule(() -> {
+            offer(job);
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.demo.service.payment;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Local stand-in for a real provider: random latency, transient errors and declines at configurable rates
+@Component
+@ConditionalOnProperty(name = "payments.gateway", havingValue = "simulated", matchIfMissing = true)
+public class SimulatedPaymentGateway implements PaymentGateway {
+
+    private final long minLatencyMillis;
+    private final long maxLatencyMillis;
+    private final double errorRate;
+    private final double declineRate;
+
+    public SimulatedPaymentGateway(
+            @Value("${payments.gateway.simulated.min-latency:20ms}") Duration minLatency,
+            @Value("${payments.gateway.simulated.max-latency:80ms}") Duration maxLatency,
+            @Value("${payments.gateway.simulated.error-rate:0.05}") double errorRate,
+            @Value("${payments.gateway.simulated.decline-rate:0.02}") double declineRate) {
+        this.minLatencyMillis = minLatency.toMillis();
+        this.maxLatencyMillis = Math.max(minLatency.toMillis(), maxLatency.toMillis());
+        this.errorRate = errorRate;
+        this.declineRate = declineRate;
+    }
+
+    @Override
+    public GatewayResult charge(Long paymentId, BigDecimal amount, String paymentMethod, String idempotencyKey) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try {
+            Thread.sleep(random.nextLong(minLatencyMillis, maxLatencyMillis + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return GatewayResult.error("interrupted");
+        }
+        if (amount == null || amount.signum() <= 0) {
+            return GatewayResult.declined("invalid amount");
+        }
+        double roll = random.nextDouble();
+        if (roll < errorRate) {
+            return GatewayResult.error("simulated provider timeout");
+        }
+        if (roll < errorRate + declineRate) {
+            return GatewayResult.declined("simulated decline");
+        }
+        return GatewayResult.approved();
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.demo.service.pricing;
+
+import java.time.LocalDate;
+
+// An active offer parsed once into its price rule
+public final class CompiledOffer {
+
+    private final Long offerId;
+    private final String title;
+    private final LocalDate validTill; // inclusive; null = no end date
+    private final PriceRule rule;
+
+    public CompiledOffer(Long offerId, String title, LocalDate validTill, PriceRule rule) {
+        this.offerId = offerId;
+        this.title = title;
+        this.validTill = validTill;
+        this.rule = rule;
+    }
+
+    public boolean isValidOn(LocalDate day) {
+        return validTill == null || !day.isAfter(validTill);
+    }
+
+    public Long getOfferId() { return offerId; }
+    public String getTitle() { return title; }
+    public LocalDate getValidTill() { return validTill; }
+    public PriceRule getRule() { return rule; }
+}
@@ -0,0 +1,20 @@
+package com.example.demo.service.pricing;
+
+import java.math.BigDecimal;
+
+// Applies the wrapped discount only to users without any earlier (non-rejected) rental
+public final class FirstTimeUserRule implements PriceRule {
+
+    private final PriceRule discount;
+
+    public FirstTimeUserRule(PriceRule discount) {
+        this.discount = discount;
+    }
+
+    @Override
+    public BigDecimal discountFor(QuoteContext context) {
+        return context.isFirstTimeUser() ? discount.discountFor(context) : BigDecimal.ZERO;
+    }
+
+    public PriceRule getDiscount() { return discount; }
+}
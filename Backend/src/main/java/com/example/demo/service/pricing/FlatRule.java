@@ -0,0 +1,23 @@
+package com.example.demo.service.pricing;
+
+import java.math.BigDecimal;
+
+// "₹500" or "500" -> a fixed amount off, capped at the base amount
+public final class FlatRule implements PriceRule {
+
+    private final BigDecimal amount;
+
+    public FlatRule(BigDecimal amount) {
+        if (amount.signum() <= 0) {
+            throw new IllegalArgumentException("Flat discount must be positive: " + amount);
+        }
+        this.amount = amount;
+    }
+
+    @Override
+    public BigDecimal discountFor(QuoteContext context) {
+        return amount.min(context.getBaseAmount());
+    }
+
+    public BigDecimal getAmount() { return amount; }
+}
@@ -0,0 +1,72 @@
+package com.example.demo.service.pricing;
+
+import com.example.demo.model.Offer;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Turns the free-form Offer.discount / Offer.title strings into price rules.
+ *
+ * discount: "15%" or "15 %" is a percentage; "500", "₹500", "Rs 500", "INR 500 off" is a flat amount.
+ * title: contains "weekend" -> weekend days only; "first time", "first-time" or "new user" -> first-time users only.
+ * Offers whose discount cannot be parsed are skipped rather than priced wrongly.
+ */
+public final class OfferRuleCompiler {
+
+    private static final Pattern PERCENTAGE = Pattern.compile("^(\\d{1,3}(?:\\.\\d+)?)\\s*%(?:\\s*off)?$");
+    private static final Pattern FLAT = Pattern.compile("^(?:₹|rs\\.?|inr)?\\s*(\\d+(?:\\.\\d+)?)(?:\\s*off)?$");
+
+    private OfferRuleCompiler() {
+    }
+
+    public static List<CompiledOffer> compileAll(List<Offer> offers) {
+        List<CompiledOffer> compiled = new ArrayList<>(offers.size());
+        for (Offer offer : offers) {
+            CompiledOffer rule = compile(offer);
+            if (rule != null) {
+                compiled.add(rule);
+            }
+        }
+        return List.copyOf(compiled);
+    }
+
+    // Null if the offer is inactive or its discount is not understood
+    public static CompiledOffer compile(Offer offer) {
+        if (!offer.isActive() || offer.getDiscount() == null) {
+            return null;
+        }
+        PriceRule rule = parseDiscount(offer.getDiscount());
+        if (rule == null) {
+            return null;
+        }
+        String title = offer.getTitle() == null ? "" : offer.getTitle().toLowerCase(Locale.ROOT);
+        if (title.contains("weekend")) {
+            rule = new WeekendRule(rule);
+        } else if (title.contains("first time") || title.contains("first-time") || title.contains("new user")) {
+            rule = new FirstTimeUserRule(rule);
+        }
+        return new CompiledOffer(offer.getId(), offer.getTitle(), offer.getValidTill(), rule);
+    }
+
+    static PriceRule parseDiscount(String discount) {
+        String text = discount.trim().toLowerCase(Locale.ROOT);
+        try {
+            Matcher percentage = PERCENTAGE.matcher(text);
+            if (percentage.matches()) {
+                return new PercentageRule(new BigDecimal(percentage.group(1)));
+            }
+            Matcher flat = FLAT.matcher(text);
+            if (flat.matches()) {
+                return new FlatRule(new BigDecimal(flat.group(1)));
+            }
+        } catch (IllegalArgumentException e) {
+            // out-of-range value such as "0%" or "150%"
+        }
+        return null;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.demo.service.pricing;
+
+import java.math.BigDecimal;
+
+// "15%" -> 15% off the base amount
+public final class PercentageRule implements PriceRule {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private final BigDecimal percent;
+
+    public PercentageRule(BigDecimal percent) {
+        if (percent.signum() <= 0 || percent.compareTo(HUNDRED) > 0) {
+            throw new IllegalArgumentException("Percentage must be in (0, 100]: " + percent);
+        }
+        this.percent = percent;
+    }
+
+    @Override
+    public BigDecimal discountFor(QuoteContext context) {
+        return context.getBaseAmount().multiply(percent).divide(HUNDRED);
+    }
+
+    public BigDecimal getPercent() { return percent; }
+}
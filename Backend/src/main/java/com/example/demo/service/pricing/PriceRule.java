@@ -0,0 +1,10 @@
+package com.example.demo.service.pricing;
+
+import java.math.BigDecimal;
+
+// A compiled offer discount. Implementations are immutable and safe to share between threads.
+public interface PriceRule {
+
+    // Discount off the context's base amount, or zero when the rule does not apply; never more than the base
+    BigDecimal discountFor(QuoteContext context);
+}
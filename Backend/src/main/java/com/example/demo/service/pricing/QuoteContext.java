@@ -0,0 +1,59 @@
+package com.example.demo.service.pricing;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+// Inputs to a price calculation; start and end dates are both inclusive, like rentals
+public final class QuoteContext {
+
+    private final BigDecimal dailyRate;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final boolean firstTimeUser;
+    private final BigDecimal baseAmount;
+
+    public QuoteContext(BigDecimal dailyRate, LocalDate startDate, LocalDate endDate, boolean firstTimeUser) {
+        this(dailyRate, startDate, endDate, firstTimeUser,
+                dailyRate.multiply(BigDecimal.valueOf(ChronoUnit.DAYS.between(startDate, endDate) + 1)));
+    }
+
+    private QuoteContext(BigDecimal dailyRate, LocalDate startDate, LocalDate endDate,
+                         boolean firstTimeUser, BigDecimal baseAmount) {
+        this.dailyRate = dailyRate;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.firstTimeUser = firstTimeUser;
+        this.baseAmount = baseAmount;
+    }
+
+    public long days() {
+        return ChronoUnit.DAYS.between(startDate, endDate) + 1;
+    }
+
+    // Saturdays and Sundays inside the range, counted without iterating day by day
+    public long weekendDays() {
+        long days = days();
+        long weekends = (days / 7) * 2;
+        DayOfWeek day = startDate.getDayOfWeek();
+        for (long i = 0; i < days % 7; i++) {
+            if (day == DayOfWeek.SATURDAY || day == DayOfWeek.SUNDAY) {
+                weekends++;
+            }
+            day = day.plus(1);
+        }
+        return weekends;
+    }
+
+    // Same rental, but rules see a different amount to discount (e.g. only the weekend days)
+    public QuoteContext withBaseAmount(BigDecimal amount) {
+        return new QuoteContext(dailyRate, startDate, endDate, firstTimeUser, amount);
+    }
+
+    public BigDecimal getDailyRate() { return dailyRate; }
+    public LocalDate getStartDate() { return startDate; }
+    public LocalDate getEndDate() { return endDate; }
+    public boolean isFirstTimeUser() { return firstTimeUser; }
+    public BigDecimal getBaseAmount() { return baseAmount; }
+}
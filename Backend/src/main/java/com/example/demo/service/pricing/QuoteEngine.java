@@ -0,0 +1,115 @@
+package com.example.demo.service.pricing;
+
+import com.example.demo.dto.QuoteRequest;
+import com.example.demo.dto.QuoteResponse;
+import com.example.demo.dto.VehicleResponse;
+import com.example.demo.repository.OfferRepository;
+import com.example.demo.service.AvailabilityService;
+import com.example.demo.service.UserService;
+import com.example.demo.service.VehicleService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Server-side rental pricing.
+ *
+ * Active offers are compiled into rules once and held as an immutable snapshot
+ * that is swapped atomically on reload, so a quote reads no database rows: the
+ * vehicle comes from the catalog cache and first-time-user status from the
+ * availability index. That status always belongs to the authenticated caller
+ * (resolved through the user cache), never to an id in the request. The single
+ * best applicable offer is applied (offers do not stack); amounts are rounded
+ * HALF_UP to 2 decimals.
+ */
+@Service
+public class QuoteEngine {
+
+    static final int MAX_DAYS = 366;
+
+    @Autowired
+    private OfferRepository offerRepository;
+
+    @Autowired
+    private VehicleService vehicleService;
+
+    @Autowired
+    private AvailabilityService availabilityService;
+
+    @Autowired
+    private UserService userService;
+
+    private final AtomicReference<List<CompiledOffer>> offers = new AtomicReference<>(List.of());
+
+    // Recompile the active offers; called at startup and whenever an offer is created or changed
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        offers.set(OfferRuleCompiler.compileAll(offerRepository.findByActive(true)));
+    }
+
+    // Quote for the authenticated caller
+    public QuoteResponse quote(QuoteRequest request, String userEmail) {
+        return quote(request, isFirstTimeUser(userEmail, null));
+    }
+
+    public QuoteResponse quote(QuoteRequest request, boolean firstTimeUser) {
+        if (request.getVehicleId() == null || request.getStartDate() == null || request.getEndDate() == null) {
+            throw new IllegalArgumentException("vehicleId, startDate and endDate are required");
+        }
+        VehicleResponse vehicle = vehicleService.getVehicleById(request.getVehicleId())
+                .orElseThrow(() -> new IllegalArgumentException("Vehicle not found with id: " + request.getVehicleId()));
+        return price(offers.get(), vehicle, request.getStartDate(), request.getEndDate(), firstTimeUser, LocalDate.now());
+    }
+
+    // True when the user has no date-blocking rental besides exceptRentalId (the rental being repriced, if any)
+    public boolean isFirstTimeUser(String userEmail, Long exceptRentalId) {
+        if (userEmail == null) {
+            return false;
+        }
+        return userService.getUserByEmail(userEmail)
+                .map(user -> !availabilityService.hasRentalsOtherThan(user.getId(), exceptRentalId))
+                .orElse(false);
+    }
+
+    static QuoteResponse price(List<CompiledOffer> offers, VehicleResponse vehicle, LocalDate startDate, LocalDate endDate,
+                               boolean firstTimeUser, LocalDate today) {
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("endDate must not be before startDate");
+        }
+        if (ChronoUnit.DAYS.between(startDate, endDate) + 1 > MAX_DAYS) {
+            throw new IllegalArgumentException("Rentals are limited to " + MAX_DAYS + " days");
+        }
+        if (vehicle.getRentCost() == null) {
+            throw new IllegalArgumentException("Vehicle has no rent cost: " + vehicle.getId());
+        }
+
+        QuoteContext context = new QuoteContext(vehicle.getRentCost(), startDate, endDate, firstTimeUser);
+        BigDecimal best = BigDecimal.ZERO;
+        CompiledOffer applied = null;
+        for (CompiledOffer offer : offers) {
+            if (!offer.isValidOn(today)) {
+                continue;
+            }
+            BigDecimal discount = offer.getRule().discountFor(context);
+            if (discount.compareTo(best) > 0) {
+                best = discount;
+                applied = offer;
+            }
+        }
+
+        BigDecimal base = context.getBaseAmount().setScale(2, RoundingMode.HALF_UP);
+        BigDecimal discount = best.min(context.getBaseAmount()).setScale(2, RoundingMode.HALF_UP);
+        return new QuoteResponse(vehicle.getId(), startDate, endDate, context.days(),
+                vehicle.getRentCost(), base, discount, base.subtract(discount),
+                applied == null ? null : applied.getOfferId(),
+                applied == null ? null : applied.getTitle());
+    }
+}
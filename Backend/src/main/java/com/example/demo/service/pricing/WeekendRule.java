@@ -0,0 +1,25 @@
+package com.example.demo.service.pricing;
+
+import java.math.BigDecimal;
+
+// Applies the wrapped discount to the Saturday and Sunday days of the rental only
+public final class WeekendRule implements PriceRule {
+
+    private final PriceRule discount;
+
+    public WeekendRule(PriceRule discount) {
+        this.discount = discount;
+    }
+
+    @Override
+    public BigDecimal discountFor(QuoteContext context) {
+        long weekendDays = context.weekendDays();
+        if (weekendDays == 0) {
+            return BigDecimal.ZERO;
+        }
+        BigDecimal weekendAmount = context.getDailyRate().multiply(BigDecimal.valueOf(weekendDays));
+        return discount.discountFor(context.withBaseAmount(weekendAmount));
+    }
+
+    public PriceRule getDiscount() { return discount; }
+}
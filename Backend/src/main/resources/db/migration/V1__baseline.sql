@@ -0,0 +1,78 @@
+-- Baseline: the schema as Hibernate (ddl-auto=update) created it before migrations were introduced.
+-- Existing databases are baselined at version 1 and skip this script (spring.flyway.baseline-on-migrate),
+-- so everything added since then belongs in V2+ and must not rely on the constraint names used here.
+
+create table users (
+    id bigint not null auto_increment,
+    name varchar(255),
+    email varchar(255),
+    password varchar(255),
+    role varchar(255),
+    primary key (id),
+    constraint uk_users_email unique (email)
+);
+
+create table vehicles (
+    id bigint not null auto_increment,
+    name varchar(255),
+    model varchar(255),
+    number varchar(255),
+    rent_cost decimal(38,2),
+    type enum('CAR','BIKE'),
+    available bit not null,
+    damaged bit not null,
+    primary key (id),
+    constraint uk_vehicles_number unique (number)
+);
+
+create table offers (
+    id bigint not null auto_increment,
+    title varchar(255),
+    discount varchar(255),
+    valid_till date,
+    active bit not null,
+    primary key (id)
+);
+
+create table rentals (
+    id bigint not null auto_increment,
+    user_id bigint,
+    user_name varchar(255),
+    user_email varchar(255),
+    vehicle_id bigint,
+    vehicle_name varchar(255),
+    vehicle_type varchar(255),
+    start_date date,
+    end_date date,
+    total_cost float(53),
+    status varchar(255),
+    pickup_location varchar(255),
+    booking_date date,
+    primary key (id)
+);
+
+create table bookings (
+    id bigint not null auto_increment,
+    user_id bigint,
+    vehicle_id bigint,
+    booking_date datetime(6),
+    start_date datetime(6),
+    end_date datetime(6),
+    status enum('PENDING','CONFIRMED','ACTIVE','COMPLETED','CANCELLED'),
+    primary key (id),
+    constraint fk_bookings_user foreign key (user_id) references users (id),
+    constraint fk_bookings_vehicle foreign key (vehicle_id) references vehicles (id)
+);
+
+create table payments (
+    id bigint not null auto_increment,
+    user_id bigint,
+    booking_id bigint,
+    amount decimal(38,2),
+    payment_date datetime(6),
+    status enum('PENDING','COMPLETED','FAILED','REFUNDED','REJECTED','CANCELLED'),
+    payment_method varchar(255),
+    primary key (id),
+    constraint fk_payments_user foreign key (user_id) references users (id),
+    constraint fk_payments_booking foreign key (booking_id) references bookings (id)
+);
@@ -0,0 +1,95 @@
+-- Everything the entities gained between the V1 baseline and the introduction of Flyway:
+-- optimistic-lock versions, the payment pipeline state, the outbox and the read-model tables.
+
+-- @Version columns; existing rows start at 0 so Hibernate never sees a null version
+alter table vehicles add column version bigint default 0;
+alter table rentals add column version bigint default 0;
+
+-- Payment pipeline: PROCESSING while a worker holds the payment, and when it claimed it
+alter table payments modify column status enum('PENDING','PROCESSING','COMPLETED','FAILED','REFUNDED','REJECTED','CANCELLED');
+alter table payments add column processing_started_at datetime(6);
+
+create table outbox_events (
+    id bigint not null auto_increment,
+    event_type varchar(64) not null,
+    aggregate_type varchar(32) not null,
+    aggregate_id bigint,
+    payload text,
+    created_at datetime(6) not null,
+    published_at datetime(6),
+    primary key (id)
+);
+
+create table user_summaries (
+    user_id bigint not null,
+    total_bookings integer not null,
+    active_rental text,
+    lifetime_spend decimal(12,2),
+    pending_payments integer not null,
+    pending_amount decimal(12,2),
+    recent_rentals text,
+    updated_at datetime(6),
+    primary key (user_id)
+);
+
+create table analytics_daily_rollups (
+    id bigint not null auto_increment,
+    dimension enum('FLEET','VEHICLE','VEHICLE_TYPE','LOCATION') not null,
+    dim_key varchar(100) not null,
+    rollup_date date not null,
+    rentals_started integer not null,
+    rentals_completed integer not null,
+    rented_days integer not null,
+    rental_revenue decimal(14,2),
+    payment_revenue decimal(14,2),
+    damage_reports integer not null,
+    fleet_size integer,
+    primary key (id),
+    constraint uk_rollups_dimension_key_date unique (dimension, dim_key, rollup_date)
+);
+
+create table analytics_rental_facts (
+    rental_id bigint not null,
+    vehicle_id bigint,
+    vehicle_type varchar(255),
+    pickup_location varchar(255),
+    start_date date,
+    end_date date,
+    status varchar(255),
+    total_cost decimal(12,2),
+    primary key (rental_id)
+);
+
+create table analytics_payment_facts (
+    payment_id bigint not null,
+    vehicle_id bigint,
+    vehicle_type varchar(255),
+    status enum('PENDING','PROCESSING','COMPLETED','FAILED','REFUNDED','REJECTED','CANCELLED'),
+    amount decimal(12,2),
+    revenue_date date,
+    primary key (payment_id)
+);
+
+create table analytics_damage_facts (
+    event_id bigint not null,
+    vehicle_id bigint,
+    vehicle_type varchar(255),
+    reported_on date,
+    primary key (event_id)
+);
+
+-- Indexes that were declared on the entities (keyset listings, outbox relay, rollup reads)
+create index idx_users_role_id on users (role, id);
+create index idx_rentals_status_id on rentals (status, id);
+create index idx_rentals_user_id on rentals (user_id, id);
+create index idx_rentals_vehicle_id on rentals (vehicle_id, id);
+create index idx_rentals_booking_date_id on rentals (booking_date, id);
+create index idx_bookings_status_id on bookings (status, id);
+create index idx_bookings_user_id on bookings (user_id, id);
+create index idx_bookings_vehicle_id on bookings (vehicle_id, id);
+create index idx_bookings_booking_date_id on bookings (booking_date, id);
+create index idx_payments_status_id on payments (status, id);
+create index idx_payments_user_id on payments (user_id, id);
+create index idx_payments_payment_date_id on payments (payment_date, id);
+create index idx_outbox_published_id on outbox_events (published_at, id);
+create index idx_rollups_dimension_date on analytics_daily_rollups (dimension, rollup_date);
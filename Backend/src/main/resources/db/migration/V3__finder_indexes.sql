@@ -0,0 +1,26 @@
+-- One index per repository finder that was still scanning; FinderIndexCoverageTest keeps this honest.
+
+-- RentalRepository: findByUserIdAndStatus, findFirstByUserIdAndStatusOrderByIdDesc
+create index idx_rentals_user_status on rentals (user_id, status);
+-- RentalRepository.existsOverlapping, findByVehicleId
+create index idx_rentals_vehicle_dates on rentals (vehicle_id, start_date, end_date);
+-- RentalRepository.findByStatusOrderByBookingDateDesc (admin "pending rentals" list)
+create index idx_rentals_status_booking_date on rentals (status, booking_date desc);
+
+-- BookingRepository.existsOverlapping
+create index idx_bookings_vehicle_dates on bookings (vehicle_id, start_date, end_date);
+
+-- PaymentRepository: per-user counts and sums by status (user summary)
+create index idx_payments_user_status on payments (user_id, status);
+-- PaymentRepository.findPendingIdsBefore (pipeline sweeper)
+create index idx_payments_status_payment_date on payments (status, payment_date);
+-- PaymentRepository.releaseStuck
+create index idx_payments_status_processing on payments (status, processing_started_at);
+
+-- VehicleRepository: findByType, findByTypeAndAvailable, findByAvailable, findByDamaged
+create index idx_vehicles_type_available on vehicles (type, available);
+create index idx_vehicles_available on vehicles (available);
+create index idx_vehicles_damaged on vehicles (damaged);
+
+-- OfferRepository.findByActive
+create index idx_offers_active on offers (active);
@@ -0,0 +1,24 @@
+-- Rental status moves from free text to the numeric codes of RentalStatus.
+-- Missing or unrecognised values become PENDING (1), the only status every transition can start from.
+
+update rentals set status = case upper(status)
+    when 'PENDING' then '1'
+    when 'CONFIRMED' then '2'
+    when 'COMPLETED' then '3'
+    when 'REJECTED' then '4'
+    when 'CANCELLED' then '5'
+    else '1'
+end;
+
+alter table rentals modify column status tinyint not null;
+
+update analytics_rental_facts set status = case upper(status)
+    when 'PENDING' then '1'
+    when 'CONFIRMED' then '2'
+    when 'COMPLETED' then '3'
+    when 'REJECTED' then '4'
+    when 'CANCELLED' then '5'
+    else '1'
+end;
+
+alter table analytics_rental_facts modify column status tinyint;
@@ -0,0 +1,9 @@
+-- Revoked token ids and session families (RevokedTokenStore); rows are purged once expires_at has passed
+
+create table revoked_tokens (
+    token_id varchar(64) not null,
+    expires_at datetime(6) not null,
+    primary key (token_id)
+);
+
+create index idx_revoked_tokens_expires_at on revoked_tokens (expires_at);
@@ -0,0 +1,22 @@
+-- Outbox relay (OutboxRelay): events get publish_seq when they are published, because
+-- auto-increment ids can commit out of order. Events that keep failing delivery are
+-- parked. One row in outbox_relay_lease is locked by the node that is relaying.
+
+alter table outbox_events add column publish_seq bigint;
+alter table outbox_events add column attempts integer not null default 0;
+alter table outbox_events add column last_error varchar(1000);
+alter table outbox_events add column parked_at datetime(6);
+
+create unique index idx_outbox_publish_seq on outbox_events (publish_seq);
+
+create table outbox_relay_lease (
+    id integer not null,
+    last_publish_seq bigint not null,
+    primary key (id)
+);
+
+-- Events published before this migration keep their id as their sequence
+update outbox_events set publish_seq = id where published_at is not null;
+
+insert into outbox_relay_lease (id, last_publish_seq)
+select 1, coalesce(max(publish_seq), 0) from outbox_events;
@@ -0,0 +1,11 @@
+-- Versions behind the vehicle and offer ETags (CatalogVersions). Writers bump their row in the
+-- same transaction as the change, so every instance derives the same tag from committed state.
+
+create table catalog_versions (
+    name varchar(32) not null,
+    version bigint not null,
+    primary key (name)
+);
+
+insert into catalog_versions (name, version) values ('vehicles', 0);
+insert into catalog_versions (name, version) values ('offers', 0);
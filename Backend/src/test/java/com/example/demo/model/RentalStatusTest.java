@@ -0,0 +1,53 @@
+package com.example.demo.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RentalStatusTest {
+
+    @Test
+    void allowsOnlyTheDocumentedTransitions() {
+        assertAllowed(RentalStatus.PENDING, EnumSet.of(RentalStatus.CONFIRMED, RentalStatus.REJECTED, RentalStatus.CANCELLED));
+        assertAllowed(RentalStatus.CONFIRMED, EnumSet.of(RentalStatus.COMPLETED, RentalStatus.CANCELLED));
+        assertAllowed(RentalStatus.COMPLETED, EnumSet.noneOf(RentalStatus.class));
+        assertAllowed(RentalStatus.REJECTED, EnumSet.noneOf(RentalStatus.class));
+        assertAllowed(RentalStatus.CANCELLED, EnumSet.noneOf(RentalStatus.class));
+    }
+
+    @Test
+    void onlyRejectedAndCancelledReleaseDates() {
+        assertTrue(RentalStatus.PENDING.blocksDates());
+        assertTrue(RentalStatus.CONFIRMED.blocksDates());
+        assertTrue(RentalStatus.COMPLETED.blocksDates());
+        assertFalse(RentalStatus.REJECTED.blocksDates());
+        assertFalse(RentalStatus.CANCELLED.blocksDates());
+    }
+
+    @Test
+    void codesRoundTripThroughTheConverter() {
+        RentalStatusConverter converter = new RentalStatusConverter();
+        for (RentalStatus status : RentalStatus.values()) {
+            assertEquals(status, converter.convertToEntityAttribute(converter.convertToDatabaseColumn(status)));
+        }
+        // V4__rental_status_codes.sql relies on these exact values
+        assertEquals(1, RentalStatus.PENDING.getCode());
+        assertEquals(5, RentalStatus.CANCELLED.getCode());
+        assertNull(converter.convertToDatabaseColumn(null));
+        assertNull(converter.convertToEntityAttribute(null));
+        assertThrows(IllegalArgumentException.class, () -> RentalStatus.fromCode(0));
+    }
+
+    private static void assertAllowed(RentalStatus from, Set<RentalStatus> allowed) {
+        for (RentalStatus to : RentalStatus.values()) {
+            assertEquals(allowed.contains(to), from.canTransitionTo(to), from + " -> " + to);
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Booking;
+import com.example.demo.model.PaymentStatus;
+import com.example.demo.model.Payment;
+import com.example.demo.model.Rental;
+import com.example.demo.model.RentalStatus;
+import com.example.demo.model.RollupDimension;
+import com.example.demo.model.User;
+import com.example.demo.model.Vehicle;
+import com.example.demo.model.VehicleType;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs each repository finder against the Flyway-migrated schema (H2 in MySQL
+ * mode), EXPLAINs every statement it issued with the same parameters, and fails
+ * on a table scan or an index walked without a condition.
+ *
+ * Reads that are whole-table by design are not listed: findAll and the
+ * findAll*Responses listings, the export streams, findBlockingIntervals
+ * (startup load of the availability index), findAllNumbers (bulk import) and
+ * findAllEmails (email filter rebuild).
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:finders;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(FinderIndexCoverageTest.RecordingConfig.class)
+class FinderIndexCoverageTest {
+
+    // "/* public.rentals.tableScan */" or "/* public.idx_rentals_user_status: user_id = ?1 */"
+    private static final Pattern PLAN_ACCESS = Pattern.compile("/\\* ([\\w.]+)(: [^*]*)? \\*/");
+
+    private static final List<Recorded> RECORDED = new CopyOnWriteArrayList<>();
+    private static volatile boolean recording;
+
+    private record Recorded(String sql, List<ParameterSetOperation> parameters) {}
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OfferRepository offerRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private DailyRollupRepository dailyRollupRepository;
+
+    private Long userId;
+    private Long vehicleId;
+    private Long bookingId;
+    private Long rentalId;
+    private Long paymentId;
+
+    @BeforeEach
+    void seed() {
+        User user = new User();
+        user.setName("Finder");
+        user.setEmail("finder@example.com");
+        user.setRole("USER");
+        entityManager.persist(user);
+
+        Vehicle vehicle = new Vehicle("Finder", "2024", "FIND-1", new BigDecimal("50"), VehicleType.CAR);
+        entityManager.persist(vehicle);
+
+        Booking booking = new Booking(user, vehicle, LocalDateTime.of(2030, 1, 1, 10, 0), LocalDateTime.of(2030, 1, 3, 10, 0));
+        entityManager.persist(booking);
+
+        Payment payment = new Payment(user, booking, new BigDecimal("100"));
+        entityManager.persist(payment);
+
+        Rental rental = new Rental();
+        rental.setUserId(user.getId());
+        rental.setVehicleId(vehicle.getId());
+        rental.setStartDate(LocalDate.of(2030, 2, 1));
+        rental.setEndDate(LocalDate.of(2030, 2, 3));
+        rental.setStatus(RentalStatus.PENDING);
+        rental.setBookingDate(LocalDate.of(2030, 1, 15));
+        entityManager.persist(rental);
+
+        entityManager.flush();
+        entityManager.clear();
+        userId = user.getId();
+        vehicleId = vehicle.getId();
+        bookingId = booking.getId();
+        rentalId = rental.getId();
+        paymentId = payment.getId();
+    }
+
+    @Test
+    void everyFinderUsesAnIndex() {
+        LocalDate start = LocalDate.of(2030, 2, 2);
+        LocalDate end = LocalDate.of(2030, 2, 5);
+        LocalDateTime now = LocalDateTime.now();
+        List<PaymentStatus> pending = List.of(PaymentStatus.PENDING, PaymentStatus.PROCESSING);
+
+        Map<String, Runnable> finders = new LinkedHashMap<>();
+        finders.put("RentalRepository.findByStatus", () -> rentalRepository.findByStatus(RentalStatus.PENDING));
+        finders.put("RentalRepository.findByUserId", () -> rentalRepository.findByUserId(userId));
+        finders.put("RentalRepository.findByVehicleId", () -> rentalRepository.findByVehicleId(vehicleId));
+        finders.put("RentalRepository.findByStatusOrderByBookingDateDesc",
+                () -> rentalRepository.findByStatusOrderByBookingDateDesc(RentalStatus.PENDING));
+        finders.put("RentalRepository.findByUserIdAndStatus", () -> rentalRepository.findByUserIdAndStatus(userId, RentalStatus.PENDING));
+        finders.put("RentalRepository.countByUserId", () -> rentalRepository.countByUserId(userId));
+        finders.put("RentalRepository.findFirstByUserIdAndStatusOrderByIdDesc",
+                () -> rentalRepository.findFirstByUserIdAndStatusOrderByIdDesc(userId, RentalStatus.CONFIRMED));
+        finders.put("RentalRepository.findByUserIdOrderByIdDesc",
+                () -> rentalRepository.findByUserIdOrderByIdDesc(userId, PageRequest.of(0, 5)));
+        finders.put("RentalRepository.existsOverlapping", () -> rentalRepository.existsOverlapping(vehicleId, start, end, null));
+        finders.put("RentalRepository.lockAllById", () -> rentalRepository.lockAllById(List.of(rentalId)));
+        finders.put("RentalRepository.transition",
+                () -> rentalRepository.transition(rentalId, RentalStatus.CONFIRMED, RentalStatus.COMPLETED));
+
+        finders.put("BookingRepository.findByUserId", () -> bookingRepository.findByUserId(userId));
+        finders.put("BookingRepository.findResponsesByUserId", () -> bookingRepository.findResponsesByUserId(userId));
+        finders.put("BookingRepository.countByUserId", () -> bookingRepository.countByUserId(userId));
+        finders.put("BookingRepository.existsOverlapping", () -> bookingRepository.existsOverlapping(vehicleId,
+                start.atStartOfDay(), end.atStartOfDay()));
+        finders.put("BookingRepository.findVehicleByBookingId", () -> bookingRepository.findVehicleByBookingId(bookingId));
+
+        finders.put("PaymentRepository.findByStatus", () -> paymentRepository.findByStatus(PaymentStatus.PENDING));
+        finders.put("PaymentRepository.findByUserId", () -> paymentRepository.findByUserId(userId));
+        finders.put("PaymentRepository.findResponsesByStatus", () -> paymentRepository.findResponsesByStatus(PaymentStatus.PENDING));
+        finders.put("PaymentRepository.findResponsesByUserId", () -> paymentRepository.findResponsesByUserId(userId));
+        finders.put("PaymentRepository.countByUserIdAndStatusIn", () -> paymentRepository.countByUserIdAndStatusIn(userId, pending));
+        finders.put("PaymentRepository.sumAmountByUserIdAndStatusIn", () -> paymentRepository.sumAmountByUserIdAndStatusIn(userId, pending));
+        finders.put("PaymentRepository.lockAllById", () -> paymentRepository.lockAllById(List.of(paymentId)));
+        finders.put("PaymentRepository.findPendingIdsBefore", () -> paymentRepository.findPendingIdsBefore(now, PageRequest.of(0, 100)));
+        finders.put("PaymentRepository.releaseStuck", () -> paymentRepository.releaseStuck(now));
+        finders.put("PaymentRepository.claimForProcessing", () -> paymentRepository.claimForProcessing(paymentId, now));
+
+        finders.put("UserRepository.findByEmail", () -> userRepository.findByEmail("finder@example.com"));
+        finders.put("UserRepository.existsByEmail", () -> userRepository.existsByEmail("finder@example.com"));
+
+        finders.put("VehicleRepository.findByType", () -> vehicleRepository.findByType(VehicleType.CAR));
+        finders.put("VehicleRepository.findByAvailable", () -> vehicleRepository.findByAvailable(true));
+        finders.put("VehicleRepository.findByDamaged", () -> vehicleRepository.findByDamaged(true));
+        finders.put("VehicleRepository.findByTypeAndAvailable", () -> vehicleRepository.findByTypeAndAvailable(VehicleType.CAR, true));
+
+        finders.put("OfferRepository.findByActive", () -> offerRepository.findByActive(true));
+
+        finders.put("OutboxEventRepository.findUnpublished", () -> outboxEventRepository.findUnpublished(PageRequest.of(0, 100)));
+        finders.put("OutboxEventRepository.findPublishedAfter",
+                () -> outboxEventRepository.findPublishedAfter(0L, PageRequest.of(0, 100)));
+        finders.put("OutboxEventRepository.deletePublishedBefore", () -> outboxEventRepository.deletePublishedBefore(now));
+
+        finders.put("DailyRollupRepository.totals",
+                () -> dailyRollupRepository.totals(RollupDimension.VEHICLE_TYPE, start, end));
+        finders.put("DailyRollupRepository.dailyRevenue",
+                () -> dailyRollupRepository.dailyRevenue(RollupDimension.VEHICLE_TYPE, start, end));
+
+        List<String> scans = new ArrayList<>();
+        finders.forEach((name, finder) -> {
+            List<Recorded> statements = run(finder);
+            assertFalse(statements.isEmpty(), name + " issued no SQL");
+            for (Recorded statement : statements) {
+                String plan = explain(statement);
+                if (scans(plan)) {
+                    scans.add(name + ":\n  " + plan);
+                }
+            }
+        });
+        assertTrue(scans.isEmpty(), "Finders without index support:\n" + String.join("\n", scans));
+    }
+
+    @Test
+    void detectsTableScans() {
+        // guards the plan parsing itself: an unindexed column must be reported
+        List<Recorded> statements = run(() -> entityManager.getEntityManager()
+                .createQuery("SELECT r FROM Rental r WHERE r.pickupLocation = :location", Rental.class)
+                .setParameter("location", "Airport")
+                .getResultList());
+        assertTrue(scans(explain(statements.get(0))));
+    }
+
+    private List<Recorded> run(Runnable finder) {
+        entityManager.clear();
+        RECORDED.clear();
+        recording = true;
+        try {
+            finder.run();
+            entityManager.flush();
+        } finally {
+            recording = false;
+        }
+        List<Recorded> statements = new ArrayList<>();
+        for (Recorded statement : RECORDED) {
+            String sql = statement.sql().trim().toLowerCase();
+            if (sql.startsWith("select") || sql.startsWith("update") || sql.startsWith("delete")) {
+                statements.add(statement);
+            }
+        }
+        return statements;
+    }
+
+    private String explain(Recorded statement) {
+        return new JdbcTemplate(dataSource).query("EXPLAIN " + statement.sql(), ps -> {
+            for (ParameterSetOperation operation : statement.parameters()) {
+                Object[] args = operation.getArgs();
+                int index = (Integer) args[0];
+                if ("setNull".equals(operation.getMethod().getName())) {
+                    ps.setNull(index, (Integer) args[1]);
+                } else {
+                    ps.setObject(index, args[1]);
+                }
+            }
+        }, rs -> {
+            StringBuilder plan = new StringBuilder();
+            while (rs.next()) {
+                plan.append(rs.getString(1).replaceAll("\\s+", " "));
+            }
+            return plan.toString();
+        });
+    }
+
+    // A table scan, or an index used only for ordering (no condition after the index name)
+    private static boolean scans(String plan) {
+        Matcher access = PLAN_ACCESS.matcher(plan);
+        while (access.find()) {
+            if (access.group(1).endsWith(".tableScan") || access.group(2) == null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @TestConfiguration
+    static class RecordingConfig {
+
+        @Bean
+        static BeanPostProcessor recordingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                        return ProxyDataSourceBuilder.create(dataSource).name("finders").listener(new Recorder()).build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    private static final class Recorder implements QueryExecutionListener {
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            if (!recording) {
+                return;
+            }
+            for (QueryInfo query : queryInfoList) {
+                if (query.getParametersList().isEmpty()) {
+                    RECORDED.add(new Recorded(query.getQuery(), List.of()));
+                }
+                for (List<ParameterSetOperation> parameters : query.getParametersList()) {
+                    RECORDED.add(new Recorded(query.getQuery(), List.copyOf(parameters)));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.CursorPage;
+import com.example.demo.model.Rental;
+import com.example.demo.model.RentalStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Walks rental pages the way RentalService.findPage does. Rows are inserted out
+ * of booking-date order, so id order and date order disagree.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class ListingKeysetTest {
+
+    // Booking day offsets in insertion order; repeats exercise the id tie-breaker
+    private static final int[] DAYS = {5, 1, 9, 1, 7, 3, 9, 0, 5, 2, 8, 1};
+    private static final LocalDate DAY_ZERO = LocalDate.of(2030, 3, 1);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Test
+    void dateFilteredPagesFollowBookingDateThenId() {
+        List<Rental> seeded = seed();
+        List<Long> expected = seeded.stream()
+                .sorted(Comparator.comparing(Rental::getBookingDate).thenComparing(Rental::getId).reversed())
+                .map(Rental::getId)
+                .toList();
+
+        List<Long> walked = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPage<Rental> page = page(cursor, true);
+            page.getItems().forEach(rental -> walked.add(rental.getId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(expected, walked);
+        assertEquals(3, pages);
+    }
+
+    @Test
+    void unfilteredPagesFollowId() {
+        List<Rental> seeded = seed();
+        List<Long> expected = seeded.stream().map(Rental::getId).sorted(Comparator.reverseOrder()).toList();
+
+        List<Long> walked = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<Rental> page = page(cursor, false);
+            page.getItems().forEach(rental -> walked.add(rental.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(expected, walked);
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> page("abc", false));
+        assertThrows(IllegalArgumentException.class, () -> page("42", true));
+        assertThrows(IllegalArgumentException.class, () -> page("not-a-date~42", true));
+        assertThrows(IllegalArgumentException.class, () -> page("2030-03-01~x", true));
+    }
+
+    private CursorPage<Rental> page(String cursor, boolean dateFiltered) {
+        int pageSize = 5;
+        ListingSpecifications.Keyset<Rental> keyset = dateFiltered
+                ? ListingSpecifications.byDate("bookingDate", cursor, LocalDate::parse,
+                        Rental::getBookingDate, Rental::getId)
+                : ListingSpecifications.byId(cursor, Rental::getId);
+        Specification<Rental> spec = ListingSpecifications.allOf(
+                keyset.seek(),
+                dateFiltered ? ListingSpecifications.dateBetween("bookingDate", DAY_ZERO, null) : null);
+        List<Rental> rows = rentalRepository.findBy(spec,
+                q -> q.sortBy(keyset.sort()).limit(pageSize + 1).all());
+        return CursorPage.of(rows, pageSize, keyset::cursorOf, rental -> rental);
+    }
+
+    private List<Rental> seed() {
+        List<Rental> rentals = new ArrayList<>();
+        for (int i = 0; i < DAYS.length; i++) {
+            Rental rental = new Rental();
+            rental.setUserId(1L);
+            rental.setVehicleId((long) i);
+            rental.setStartDate(DAY_ZERO.plusDays(30));
+            rental.setEndDate(DAY_ZERO.plusDays(31));
+            rental.setStatus(RentalStatus.PENDING);
+            rental.setBookingDate(DAY_ZERO.plusDays(DAYS[i]));
+            rentals.add(entityManager.persist(rental));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return rentals;
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.BookingResponse;
+import com.example.demo.dto.PaymentResponse;
+import com.example.demo.model.Booking;
+import com.example.demo.model.Payment;
+import com.example.demo.model.User;
+import com.example.demo.model.Vehicle;
+import com.example.demo.model.VehicleType;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Booking and payment listings must cost one SQL statement no matter how many
+ * rows (and distinct users and vehicles) they return.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class ListingQueryCountTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    private Statistics statistics;
+    private int seeded;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void bookingListingIsOneStatement() {
+        seed(3);
+        assertEquals(1, statementsFor(() -> bookingRepository.findAllResponses(), 3));
+        seed(30);
+        assertEquals(1, statementsFor(() -> bookingRepository.findAllResponses(), 33));
+    }
+
+    @Test
+    void paymentListingIsOneStatement() {
+        seed(3);
+        assertEquals(1, statementsFor(() -> paymentRepository.findAllResponses(), 3));
+        seed(30);
+        assertEquals(1, statementsFor(() -> paymentRepository.findAllResponses(), 33));
+    }
+
+    @Test
+    void entityGraphFindersAreOneStatement() {
+        seed(10);
+        Long userId = bookingRepository.findAllResponses().get(0).getUserId();
+        assertEquals(1, statementsFor(() -> {
+            List<Booking> bookings = bookingRepository.findByUserId(userId);
+            bookings.forEach(b -> b.getVehicle().getName());
+            return bookings;
+        }, 1));
+        assertEquals(1, statementsFor(() -> {
+            List<Payment> payments = paymentRepository.findByUserId(userId);
+            payments.forEach(p -> p.getBooking().getVehicle().getName());
+            return payments;
+        }, 1));
+    }
+
+    @Test
+    void paymentResponseCarriesJoinedDetails() {
+        seed(1);
+        PaymentResponse response = paymentRepository.findAllResponses().get(0);
+        BookingResponse booking = bookingRepository.findAllResponses().get(0);
+        assertEquals("User 0", response.getUserName());
+        assertEquals("Vehicle 0", booking.getVehicleName());
+        assertEquals(VehicleType.CAR, booking.getVehicleType());
+    }
+
+    // Every row gets its own user and vehicle, so lazy loading would show up as extra selects
+    private void seed(int rows) {
+        for (int i = 0; i < rows; i++) {
+            int n = seeded++;
+            User user = new User();
+            user.setName("User " + n);
+            user.setEmail("user" + n + "@example.com");
+            user.setPassword("secret");
+            user.setRole("USER");
+            entityManager.persist(user);
+
+            Vehicle vehicle = new Vehicle("Vehicle " + n, "2024", "NUM" + n, new BigDecimal("50"), VehicleType.CAR);
+            entityManager.persist(vehicle);
+
+            LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0).plusDays(n);
+            Booking booking = new Booking(user, vehicle, start, start.plusDays(1));
+            entityManager.persist(booking);
+            entityManager.persist(new Payment(user, booking, new BigDecimal("50")));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private long statementsFor(Supplier<List<?>> listing, int expectedRows) {
+        entityManager.clear();
+        statistics.clear();
+        List<?> rows = listing.get();
+        assertEquals(expectedRows, rows.size());
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Rental;
+import com.example.demo.model.RentalStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Upgrades a database created by the pre-migration app (ddl-auto=update): it is
+ * baselined at V1, gets V2+ applied, and Hibernate's schema validation has to
+ * pass on the result, with the existing rows still readable.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:preseries;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(PreSeriesMigrationTest.PreSeriesSchema.class)
+class PreSeriesMigrationTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Test
+    void baselinesAtV1AndAppliesEverythingAfterIt() {
+        List<Map<String, Object>> history = new JdbcTemplate(dataSource).queryForList(
+                // Flyway also writes a TABLE marker row (rank 0, no version) when it creates the history table
+                "select version, type, success from flyway_schema_history where type <> 'TABLE' order by installed_rank");
+
+        assertEquals("1", history.get(0).get("version"));
+        assertEquals("BASELINE", history.get(0).get("type"));
+        List<String> applied = history.stream().skip(1).map(row -> (String) row.get("version")).toList();
+        assertEquals(List.of("2", "3", "4", "5", "6", "7"), applied);
+        history.forEach(row -> assertEquals(Boolean.TRUE, row.get("success")));
+    }
+
+    @Test
+    void existingRowsSurviveTheUpgrade() {
+        Rental confirmed = rentalRepository.findById(1L).orElseThrow();
+        assertEquals(RentalStatus.CONFIRMED, confirmed.getStatus());
+        assertEquals(0L, confirmed.getVersion());
+        assertEquals(RentalStatus.PENDING, rentalRepository.findById(2L).orElseThrow().getStatus());
+
+        assertEquals(0L, vehicleRepository.findById(1L).orElseThrow().getVersion());
+        // PROCESSING and processing_started_at only exist after V2
+        assertEquals(1, paymentRepository.claimForProcessing(1L, LocalDateTime.now()));
+        assertEquals(0, outboxEventRepository.count());
+    }
+
+    @TestConfiguration
+    static class PreSeriesSchema {
+
+        // Lays down the old schema first, so Flyway finds a non-empty database without a history table
+        @Bean
+        FlywayMigrationStrategy preSeriesSchemaFirst() {
+            return flyway -> {
+                new ResourceDatabasePopulator(new ClassPathResource("db/pre-series-schema.sql"))
+                        .execute(flyway.getConfiguration().getDataSource());
+                flyway.migrate();
+            };
+        }
+    }
+}
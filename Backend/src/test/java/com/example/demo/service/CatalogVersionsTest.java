@@ -0,0 +1,143 @@
+package com.example.demo.service;
+
+import com.example.demo.config.CachingConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Catalog tags against a Flyway-migrated H2: bumped with the writing transaction,
+ * served from memory, picked up by other instances on refresh, and the vehicle
+ * cache cleared only after the commit.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:catalogversions;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({CatalogVersions.class, CatalogVersionsTest.Caches.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CatalogVersionsTest {
+
+    @Autowired
+    private CatalogVersions versions;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @TestConfiguration
+    static class Caches {
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager(CachingConfig.VEHICLES);
+        }
+    }
+
+    @Test
+    void writesChangeOnlyTheirOwnTag() {
+        String vehicles = versions.vehiclesTag();
+        String offers = versions.offersTag();
+
+        versions.offersChanged();
+
+        assertEquals(vehicles, versions.vehiclesTag());
+        assertNotEquals(offers, versions.offersTag());
+        assertNotEquals(versions.vehiclesTag(1), versions.vehiclesTag(2));
+    }
+
+    @Test
+    void otherInstancesPickUpWritesOnRefresh() {
+        // a second instance shares nothing with the first but the database
+        CatalogVersions otherNode = new CatalogVersions();
+        ConcurrentMapCacheManager otherCaches = new ConcurrentMapCacheManager(CachingConfig.VEHICLES);
+        ReflectionTestUtils.setField(otherNode, "jdbcTemplate", ReflectionTestUtils.getField(versions, "jdbcTemplate"));
+        ReflectionTestUtils.setField(otherNode, "cacheManager", otherCaches);
+        otherNode.refresh();
+        assertEquals(versions.vehiclesTag(), otherNode.vehiclesTag());
+        Cache otherCache = otherCaches.getCache(CachingConfig.VEHICLES);
+        otherCache.put("all", "stale");
+
+        String before = otherNode.vehiclesTag();
+        versions.vehiclesChanged();
+        // until its next refresh the other instance keeps serving the old tag with the old data
+        assertEquals(before, otherNode.vehiclesTag());
+        assertNotNull(otherCache.get("all"));
+
+        otherNode.refresh();
+        assertEquals(versions.vehiclesTag(), otherNode.vehiclesTag());
+        assertNull(otherCache.get("all"));
+
+        otherNode.offersChanged();
+        versions.refresh();
+        assertEquals(otherNode.offersTag(), versions.offersTag());
+    }
+
+    @Test
+    void tagsAreServedWithoutTheDatabase() {
+        Object jdbcTemplate = ReflectionTestUtils.getField(versions, "jdbcTemplate");
+        String vehicles = versions.vehiclesTag();
+        ReflectionTestUtils.setField(versions, "jdbcTemplate", null);
+        try {
+            assertEquals(vehicles, versions.vehiclesTag());
+            versions.offersTag();
+            versions.vehiclesTag(3);
+        } finally {
+            ReflectionTestUtils.setField(versions, "jdbcTemplate", jdbcTemplate);
+        }
+    }
+
+    @Test
+    void tagAndCacheChangeOnlyWhenTheWriteCommits() {
+        Cache cache = cacheManager.getCache(CachingConfig.VEHICLES);
+        String before = versions.vehiclesTag();
+
+        transactionTemplate.executeWithoutResult(tx -> {
+            cache.put("all", "stale");
+            versions.vehiclesChanged();
+            // readers outside the transaction still see the old tag and the cached data
+            assertEquals(before, readElsewhere());
+            assertNotNull(cache.get("all"));
+        });
+        assertNotEquals(before, versions.vehiclesTag());
+        assertNull(cache.get("all"));
+
+        String committed = versions.vehiclesTag();
+        cache.put("all", "fresh");
+        transactionTemplate.executeWithoutResult(tx -> {
+            versions.vehiclesChanged();
+            tx.setRollbackOnly();
+        });
+        assertEquals(committed, versions.vehiclesTag());
+        assertNotNull(cache.get("all"));
+    }
+
+    private String readElsewhere() {
+        try {
+            return CompletableFuture.supplyAsync(versions::vehiclesTag).get(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
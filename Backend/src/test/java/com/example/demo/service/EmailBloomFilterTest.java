@@ -0,0 +1,54 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmailBloomFilterTest {
+
+    @Test
+    void neverRejectsAnAddedEmail() {
+        List<String> emails = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            emails.add("user" + i + "@example.com");
+        }
+        EmailBloomFilter filter = EmailBloomFilter.of(emails, 10_000, 0.01);
+
+        for (String email : emails) {
+            assertTrue(filter.mightContain(email), email);
+        }
+        // lookups are case- and whitespace-insensitive, like the email column
+        assertTrue(filter.mightContain(" User42@Example.COM "));
+        assertFalse(filter.isSaturated());
+    }
+
+    @Test
+    void keepsFalsePositivesNearTheTargetRate() {
+        EmailBloomFilter filter = new EmailBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("user" + i + "@example.com");
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("stranger" + i + "@example.org")) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void reportsSaturationOnceOverCapacity() {
+        EmailBloomFilter filter = new EmailBloomFilter(2, 0.01);
+        filter.put("a@example.com");
+        filter.put("b@example.com");
+        assertFalse(filter.isSaturated());
+        filter.put("c@example.com");
+        assertTrue(filter.isSaturated());
+        assertFalse(filter.mightContain(null));
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Booking;
+import com.example.demo.model.User;
+import com.example.demo.model.Vehicle;
+import com.example.demo.model.VehicleType;
+import com.example.demo.repository.BookingRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.repository.VehicleRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Exports a million rows through ExportService, i.e. JPA, Hibernate and the JDBC
+ * result set. Surefire runs this class in its own fork with -Xmx256m (see the
+ * export-memory execution in the POM), so collecting the rows anywhere on the
+ * way fails the test. The database is a file-backed H2 with lazy query
+ * execution, so it does not hold the table in the same heap.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:file:./target/h2/export-memory;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+                + "LAZY_QUERY_EXECUTION=1;CACHE_SIZE=8192",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "export.fetch-size=1000"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import(ExportService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ExportMemoryTest {
+
+    private static final int ROWS = 1_000_000;
+    private static final int CHUNK = 100_000;
+    private static final LocalDate FIRST_BOOKING_DAY = LocalDate.of(2029, 1, 1);
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    // Seeded with INSERT ... SELECT in autocommitted chunks; only the export goes through JPA
+    @BeforeAll
+    void seed() {
+        User user = new User();
+        user.setName("Exporter");
+        user.setEmail("exporter@example.com");
+        user.setPassword("secret");
+        user.setRole("USER");
+        user = userRepository.save(user);
+        Vehicle vehicle = vehicleRepository.save(
+                new Vehicle("Vehicle", "2024", "EXP-1", new BigDecimal("50"), VehicleType.CAR));
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        Booking booking = bookingRepository.save(new Booking(user, vehicle, start, start.plusDays(1)));
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        for (int first = 1; first <= ROWS; first += CHUNK) {
+            String range = "system_range(" + first + ", " + (first + CHUNK - 1) + ")";
+            jdbcTemplate.update("insert into rentals (user_id, user_name, user_email, vehicle_id, vehicle_name, "
+                    + "vehicle_type, start_date, end_date, total_cost, status, pickup_location, booking_date, version) "
+                    + "select x, concat('User ', x), concat('user', x, '@example.com'), mod(x, 4), "
+                    + "concat('Vehicle ', mod(x, 4)), 'CAR', date '2030-01-01', date '2030-01-03', 150.0, 2, "
+                    + "'Main Station', dateadd('DAY', mod(x, 365), date '2029-01-01'), 0 from " + range);
+            jdbcTemplate.update("insert into payments (user_id, booking_id, amount, payment_date, status, "
+                    + "payment_method) select " + user.getId() + ", " + booking.getId() + ", 50.00, "
+                    + "dateadd('MINUTE', x, timestamp '2030-01-01 00:00:00'), 'COMPLETED', 'CARD' from " + range);
+        }
+    }
+
+    @Test
+    void exportsMillionRentalsAsNdjson() throws Exception {
+        LineCountingOutputStream out = new LineCountingOutputStream();
+        long written = exportService.exportRentals(out, ExportFormat.NDJSON, null, null);
+
+        assertEquals(ROWS, written);
+        assertEquals(ROWS, out.lines);
+    }
+
+    @Test
+    void exportsMillionPaymentsAsCsv() throws Exception {
+        LineCountingOutputStream out = new LineCountingOutputStream();
+        long written = exportService.exportPayments(out, ExportFormat.CSV, null, null);
+
+        assertEquals(ROWS, written);
+        assertEquals(ROWS + 1, out.lines); // header
+    }
+
+    @Test
+    void dateBoundedExportKeepsOnlyTheRange() throws Exception {
+        // booking_date is FIRST_BOOKING_DAY + (x mod 365); the first ten days
+        long expected = LongStream.rangeClosed(1, ROWS).filter(x -> x % 365 < 10).count();
+
+        LineCountingOutputStream out = new LineCountingOutputStream();
+        long written = exportService.exportRentals(out, ExportFormat.NDJSON,
+                FIRST_BOOKING_DAY, FIRST_BOOKING_DAY.plusDays(9));
+
+        assertEquals(expected, written);
+        assertEquals(expected, out.lines);
+        assertEquals(ROWS - expected, exportService.exportRentals(OutputStream.nullOutputStream(),
+                ExportFormat.NDJSON, FIRST_BOOKING_DAY.plusDays(10), null));
+    }
+
+    private static final class LineCountingOutputStream extends OutputStream {
+        long lines;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RentalIntervalIndexTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 1);
+
+    @Test
+    void boundariesAreInclusive() {
+        RentalIntervalIndex index = RentalIntervalIndex.EMPTY.with(1L, day(10), day(12));
+
+        assertTrue(index.overlaps(day(12), day(14)));
+        assertTrue(index.overlaps(day(8), day(10)));
+        assertTrue(index.overlaps(day(11), day(11)));
+        assertFalse(index.overlaps(day(13), day(20)));
+        assertFalse(index.overlaps(day(1), day(9)));
+        assertFalse(RentalIntervalIndex.EMPTY.overlaps(day(1), day(30)));
+    }
+
+    @Test
+    void longEarlyIntervalCoversLaterGaps() {
+        // starts sorted as 1, 5, 20; the first one runs to day 30 and must still be found
+        RentalIntervalIndex index = RentalIntervalIndex.EMPTY
+                .with(1L, day(1), day(30))
+                .with(2L, day(5), day(6))
+                .with(3L, day(20), day(21));
+
+        assertTrue(index.overlaps(day(10), day(12)));
+        assertFalse(index.without(1L).overlaps(day(10), day(12)));
+    }
+
+    @Test
+    void withReplacesTheRentalsPreviousInterval() {
+        RentalIntervalIndex index = RentalIntervalIndex.EMPTY
+                .with(1L, day(1), day(3))
+                .with(1L, day(10), day(12));
+
+        assertEquals(1, index.size());
+        assertFalse(index.overlaps(day(1), day(3)));
+        assertTrue(index.overlaps(day(11), day(11)));
+    }
+
+    @Test
+    void withoutLeavesTheOriginalUntouched() {
+        RentalIntervalIndex index = RentalIntervalIndex.EMPTY
+                .with(1L, day(1), day(3))
+                .with(2L, day(5), day(7));
+
+        RentalIntervalIndex smaller = index.without(2L);
+
+        assertEquals(1, smaller.size());
+        assertFalse(smaller.overlaps(day(5), day(7)));
+        assertTrue(index.overlaps(day(5), day(7)));
+        assertSame(index, index.without(99L));
+        assertSame(RentalIntervalIndex.EMPTY, smaller.without(1L));
+    }
+
+    @Test
+    void bulkBuildMatchesIncrementalInserts() {
+        long[] ids = {1, 2, 3, 4};
+        long[] starts = {day(20).toEpochDay(), day(1).toEpochDay(), day(12).toEpochDay(), day(5).toEpochDay()};
+        long[] ends = {day(22).toEpochDay(), day(2).toEpochDay(), day(15).toEpochDay(), day(9).toEpochDay()};
+        RentalIntervalIndex bulk = RentalIntervalIndex.of(ids, starts, ends);
+
+        RentalIntervalIndex incremental = RentalIntervalIndex.EMPTY;
+        for (int i = 0; i < ids.length; i++) {
+            incremental = incremental.with(ids[i], LocalDate.ofEpochDay(starts[i]), LocalDate.ofEpochDay(ends[i]));
+        }
+
+        for (int from = 0; from < 25; from++) {
+            for (int to = from; to < 25; to++) {
+                assertEquals(incremental.overlaps(day(from), day(to)), bulk.overlaps(day(from), day(to)),
+                        "range " + from + ".." + to);
+            }
+        }
+        assertFalse(bulk.overlaps(day(10), day(11)));
+        assertFalse(bulk.overlaps(day(3), day(4)));
+    }
+
+    private static LocalDate day(int offset) {
+        return DAY.plusDays(offset);
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.demo.service;
+
+import com.example.demo.exception.BookingConflictException;
+import com.example.demo.model.Rental;
+import com.example.demo.model.RentalStatus;
+import com.example.demo.model.Vehicle;
+import com.example.demo.model.VehicleType;
+import com.example.demo.repository.BookingRepository;
+import com.example.demo.repository.RentalRepository;
+import com.example.demo.repository.VehicleRepository;
+import com.example.demo.service.events.OutboxService;
+import com.example.demo.service.pricing.QuoteEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verify;
+
+/**
+ * The reservation path against a real (H2, Flyway-migrated) database, where the
+ * in-process lock stripes and availability index cannot help: two RentalService
+ * instances stand in for two application nodes sharing one database.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reservations;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({RentalService.class, AvailabilityService.class, VehicleLockStripes.class, OutboxService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RentalReservationIntegrationTest {
+
+    private static final LocalDate DAY_ZERO = LocalDate.of(2031, 1, 1);
+
+    @Autowired
+    private RentalService nodeA;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    // A mock bean, so the real engine's own dependencies (VehicleService, offers) stay out of this slice
+    @MockitoBean
+    private QuoteEngine quoteEngine;
+
+    @BeforeEach
+    void fixedPricing() {
+        RentalServiceConcurrencyTest.stubFixedPrice(quoteEngine);
+    }
+
+    @Test
+    void twoNodesNeverDoubleBookAVehicle() throws Exception {
+        Long vehicleId = vehicleRepository.save(
+                new Vehicle("Race", "2024", "RACE-1", new BigDecimal("40"), VehicleType.BIKE)).getId();
+        RentalService nodeB = secondNode();
+        int rounds = 20;
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < rounds; round++) {
+                LocalDate start = DAY_ZERO.plusDays(3L * round);
+                CountDownLatch gate = new CountDownLatch(1);
+                List<Future<Rental>> attempts = new ArrayList<>();
+                for (RentalService node : List.of(nodeA, nodeB)) {
+                    Callable<Rental> attempt = () -> {
+                        gate.await();
+                        return node.createRental(rental(vehicleId, start, start.plusDays(1)), null);
+                    };
+                    attempts.add(executor.submit(attempt));
+                }
+                gate.countDown();
+
+                int accepted = 0;
+                for (Future<Rental> attempt : attempts) {
+                    try {
+                        attempt.get(30, TimeUnit.SECONDS);
+                        accepted++;
+                    } catch (ExecutionException e) {
+                        assertInstanceOf(BookingConflictException.class, e.getCause());
+                    }
+                }
+                assertEquals(1, accepted, "round " + round);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(rounds, rentalRepository.findByVehicleId(vehicleId).size());
+    }
+
+    @Test
+    void staleRentalVersionIsRejected() {
+        Long vehicleId = vehicleRepository.save(
+                new Vehicle("Stale", "2024", "STALE-1", new BigDecimal("40"), VehicleType.BIKE)).getId();
+        Long rentalId = nodeA.createRental(rental(vehicleId, DAY_ZERO, DAY_ZERO), null).getId();
+
+        // two detached copies of the same version, as two concurrent editors would hold them
+        Rental first = rentalRepository.findById(rentalId).orElseThrow();
+        Rental second = rentalRepository.findById(rentalId).orElseThrow();
+
+        first.setPickupLocation("Airport");
+        rentalRepository.save(first);
+
+        second.setPickupLocation("Station");
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> rentalRepository.save(second));
+    }
+
+    @Test
+    void totalCostIsQuotedForTheCallerNotTakenFromTheClient() {
+        Long vehicleId = vehicleRepository.save(
+                new Vehicle("Priced", "2024", "PRICE-1", new BigDecimal("40"), VehicleType.BIKE)).getId();
+        Rental request = rental(vehicleId, DAY_ZERO.plusDays(200), DAY_ZERO.plusDays(201));
+        request.setTotalCost(0.01);
+
+        Long rentalId = nodeA.createRental(request, "caller@example.com").getId();
+        assertEquals(100.0, rentalRepository.findById(rentalId).orElseThrow().getTotalCost());
+        verify(quoteEngine).isFirstTimeUser("caller@example.com", null);
+
+        Rental changes = rental(vehicleId, DAY_ZERO.plusDays(210), DAY_ZERO.plusDays(212));
+        changes.setTotalCost(0.01);
+        nodeA.updateRental(rentalId, changes, "caller@example.com");
+        assertEquals(100.0, rentalRepository.findById(rentalId).orElseThrow().getTotalCost());
+        // the rental being repriced does not cost its owner the first-time offer
+        verify(quoteEngine).isFirstTimeUser("caller@example.com", rentalId);
+    }
+
+    @Test
+    void newRentalsStartPendingWhateverTheClientSends() {
+        Long vehicleId = vehicleRepository.save(
+                new Vehicle("Status", "2024", "STATUS-1", new BigDecimal("40"), VehicleType.BIKE)).getId();
+        Rental confirmed = rental(vehicleId, DAY_ZERO.plusDays(300), DAY_ZERO.plusDays(301));
+        confirmed.setStatus(RentalStatus.CONFIRMED);
+        assertThrows(IllegalArgumentException.class, () -> nodeA.createRental(confirmed, null));
+
+        Rental pending = rental(vehicleId, DAY_ZERO.plusDays(300), DAY_ZERO.plusDays(301));
+        pending.setStatus(RentalStatus.PENDING);
+        Long rentalId = nodeA.createRental(pending, null).getId();
+        assertEquals(RentalStatus.PENDING, rentalRepository.findById(rentalId).orElseThrow().getStatus());
+    }
+
+    // Same database, its own lock stripes and availability index
+    private RentalService secondNode() {
+        AvailabilityService availability = new AvailabilityService();
+        ReflectionTestUtils.setField(availability, "rentalRepository", rentalRepository);
+        ReflectionTestUtils.setField(availability, "bookingRepository", bookingRepository);
+
+        RentalService node = new RentalService();
+        ReflectionTestUtils.setField(node, "rentalRepository", rentalRepository);
+        ReflectionTestUtils.setField(node, "vehicleRepository", vehicleRepository);
+        ReflectionTestUtils.setField(node, "bookingRepository", bookingRepository);
+        ReflectionTestUtils.setField(node, "availabilityService", availability);
+        ReflectionTestUtils.setField(node, "vehicleLocks", new VehicleLockStripes());
+        ReflectionTestUtils.setField(node, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(node, "outboxService", outboxService);
+        ReflectionTestUtils.setField(node, "quoteEngine", quoteEngine);
+        return node;
+    }
+
+    private static Rental rental(Long vehicleId, LocalDate start, LocalDate end) {
+        Rental rental = new Rental();
+        rental.setVehicleId(vehicleId);
+        rental.setStartDate(start);
+        rental.setEndDate(end);
+        return rental;
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.QuoteRequest;
+import com.example.demo.dto.QuoteResponse;
+import com.example.demo.exception.BookingConflictException;
+import com.example.demo.model.Rental;
+import com.example.demo.model.Vehicle;
+import com.example.demo.repository.BookingRepository;
+import com.example.demo.repository.RentalRepository;
+import com.example.demo.repository.VehicleRepository;
+import com.example.demo.service.events.OutboxService;
+import com.example.demo.service.pricing.QuoteEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Stress test for the in-process locking of RentalService's reservation path.
+ *
+ * Repositories are replaced by an in-memory store whose insert sleeps for a
+ * millisecond, which widens the check-then-insert window a real database has.
+ * The database side (overlap query, vehicle and rental versions) is covered by
+ * RentalReservationIntegrationTest.
+ */
+class RentalServiceConcurrencyTest {
+
+    private static final LocalDate DAY_ZERO = LocalDate.of(2030, 1, 1);
+
+    private final Map<Long, Rental> store = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+
+    // Inserts for this vehicle signal insideInsert and then wait for release
+    private volatile Long stalledVehicle;
+    private final CountDownLatch insideInsert = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private RentalService rentalService;
+
+    @BeforeEach
+    void setUp() {
+        RentalRepository rentalRepository = mock(RentalRepository.class);
+        when(rentalRepository.save(any(Rental.class))).thenAnswer(inv -> {
+            Rental rental = inv.getArgument(0);
+            if (rental.getVehicleId().equals(stalledVehicle)) {
+                insideInsert.countDown();
+                release.await(10, TimeUnit.SECONDS);
+            }
+            Thread.sleep(1);
+            if (rental.getId() == null) {
+                rental.setId(ids.incrementAndGet());
+            }
+            store.put(rental.getId(), rental);
+            return rental;
+        });
+        when(rentalRepository.existsOverlapping(anyLong(), any(), any(), any())).thenAnswer(inv ->
+                store.values().stream().anyMatch(r -> r.getVehicleId().equals(inv.getArgument(0))
+                        && overlaps(r, inv.getArgument(1), inv.getArgument(2))));
+
+        VehicleRepository vehicleRepository = mock(VehicleRepository.class);
+        when(vehicleRepository.findForReservation(anyLong())).thenReturn(Optional.of(new Vehicle()));
+
+        BookingRepository bookingRepository = mock(BookingRepository.class);
+        when(bookingRepository.existsOverlapping(anyLong(), any(), any())).thenReturn(false);
+
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(inv ->
+                inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
+        rentalService = new RentalService();
+        ReflectionTestUtils.setField(rentalService, "rentalRepository", rentalRepository);
+        ReflectionTestUtils.setField(rentalService, "vehicleRepository", vehicleRepository);
+        ReflectionTestUtils.setField(rentalService, "bookingRepository", bookingRepository);
+        ReflectionTestUtils.setField(rentalService, "availabilityService", new AvailabilityService());
+        ReflectionTestUtils.setField(rentalService, "vehicleLocks", new VehicleLockStripes());
+        ReflectionTestUtils.setField(rentalService, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(rentalService, "outboxService", mock(OutboxService.class));
+        ReflectionTestUtils.setField(rentalService, "quoteEngine", fixedPriceQuotes());
+    }
+
+    // Every rental is quoted at 100; the pricing itself is covered by QuoteEngineTest
+    static QuoteEngine fixedPriceQuotes() {
+        QuoteEngine quoteEngine = mock(QuoteEngine.class);
+        stubFixedPrice(quoteEngine);
+        return quoteEngine;
+    }
+
+    // Every quote costs 100.00, whatever the dates
+    static void stubFixedPrice(QuoteEngine quoteEngine) {
+        BigDecimal price = new BigDecimal("100.00");
+        when(quoteEngine.quote(any(QuoteRequest.class), anyBoolean())).thenAnswer(inv -> {
+            QuoteRequest request = inv.getArgument(0);
+            return new QuoteResponse(request.getVehicleId(), request.getStartDate(), request.getEndDate(), 1,
+                    price, price, BigDecimal.ZERO, price, null, null);
+        });
+    }
+
+    @Test
+    void overlappingRequestsNeverDoubleBook() throws Exception {
+        int threads = 32;
+        int attemptsPerThread = 50;
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        runConcurrently(threads, t -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < attemptsPerThread; i++) {
+                LocalDate start = DAY_ZERO.plusDays(random.nextInt(60));
+                try {
+                    rentalService.createRental(
+                            rental(1L + random.nextInt(4), start, start.plusDays(random.nextInt(5))), null);
+                    accepted.incrementAndGet();
+                } catch (BookingConflictException e) {
+                    rejected.incrementAndGet();
+                }
+            }
+        });
+
+        assertEquals(threads * attemptsPerThread, accepted.get() + rejected.get());
+        assertEquals(accepted.get(), store.size());
+        assertTrue(accepted.get() > 0);
+
+        Map<Long, List<Rental>> byVehicle = store.values().stream()
+                .collect(Collectors.groupingBy(Rental::getVehicleId));
+        for (List<Rental> rentals : byVehicle.values()) {
+            for (int i = 0; i < rentals.size(); i++) {
+                for (int j = i + 1; j < rentals.size(); j++) {
+                    assertFalse(overlaps(rentals.get(i), rentals.get(j).getStartDate(), rentals.get(j).getEndDate()),
+                            "double booking: " + rentals.get(i).getId() + " and " + rentals.get(j).getId());
+                }
+            }
+        }
+    }
+
+    @Test
+    void differentVehiclesDoNotContend() throws Exception {
+        // Vehicle 1's reservation stalls inside its insert while holding that vehicle's stripe
+        stalledVehicle = 1L;
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            Future<Rental> stalled = executor.submit(() -> rentalService.createRental(rental(1L, DAY_ZERO, DAY_ZERO), null));
+            assertTrue(insideInsert.await(10, TimeUnit.SECONDS));
+
+            // vehicle 2 is on another stripe and goes straight through
+            Future<Rental> otherVehicle = executor.submit(() -> rentalService.createRental(rental(2L, DAY_ZERO, DAY_ZERO), null));
+            assertEquals(2L, otherVehicle.get(10, TimeUnit.SECONDS).getVehicleId());
+
+            // a second reservation on vehicle 1 has to wait for the first, even for other dates
+            LocalDate later = DAY_ZERO.plusDays(10);
+            Future<Rental> sameVehicle = executor.submit(() -> rentalService.createRental(rental(1L, later, later), null));
+            assertThrows(TimeoutException.class, () -> sameVehicle.get(200, TimeUnit.MILLISECONDS));
+            assertFalse(stalled.isDone());
+
+            release.countDown();
+            stalled.get(10, TimeUnit.SECONDS);
+            sameVehicle.get(10, TimeUnit.SECONDS);
+            assertEquals(3, store.size());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private void runConcurrently(int threads, ThreadTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch startGate = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int index = t;
+            futures.add(executor.submit(() -> {
+                startGate.await();
+                task.run(index);
+                return null;
+            }));
+        }
+        startGate.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+    }
+
+    private static Rental rental(Long vehicleId, LocalDate start, LocalDate end) {
+        Rental rental = new Rental();
+        rental.setVehicleId(vehicleId);
+        rental.setStartDate(start);
+        rental.setEndDate(end);
+        return rental;
+    }
+
+    private static boolean overlaps(Rental rental, LocalDate start, LocalDate end) {
+        return !rental.getStartDate().isAfter(end) && !rental.getEndDate().isBefore(start);
+    }
+
+    @FunctionalInterface
+    private interface ThreadTask {
+        void run(int threadIndex) throws Exception;
+    }
+}
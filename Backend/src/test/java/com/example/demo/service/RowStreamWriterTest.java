@@ -0,0 +1,106 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Rental;
+import com.example.demo.model.RentalStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Surefire runs this class in the -Xmx256m export-memory execution; a million
+ * rentals held in memory would not fit, so these tests fail if the writer ever
+ * collects the stream. ExportMemoryTest does the same through JPA.
+ */
+class RowStreamWriterTest {
+
+    private static final int ROWS = 1_000_000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    void exportsMillionRowsAsNdjson() throws Exception {
+        LineCountingOutputStream out = new LineCountingOutputStream();
+        long written = ExportService.rentalWriter(objectMapper).write(syntheticRentals(), ExportFormat.NDJSON, out);
+
+        assertEquals(ROWS, written);
+        assertEquals(ROWS, out.lines);
+    }
+
+    @Test
+    void exportsMillionRowsAsCsv() throws Exception {
+        LineCountingOutputStream out = new LineCountingOutputStream();
+        long written = ExportService.rentalWriter(objectMapper).write(syntheticRentals(), ExportFormat.CSV, out);
+
+        assertEquals(ROWS, written);
+        assertEquals(ROWS + 1, out.lines); // header
+    }
+
+    @Test
+    void writesRowsInOrderWithEscaping() throws Exception {
+        Rental rental = rental(7);
+        rental.setPickupLocation("Gate 2, \"North\"");
+        rental.setUserName("=HYPERLINK(\"x\")");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        ExportService.rentalWriter(objectMapper).write(Stream.of(rental), ExportFormat.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals("id,userId,userName,userEmail,vehicleId,vehicleName,vehicleType,startDate,endDate,"
+                + "totalCost,status,pickupLocation,bookingDate", lines[0]);
+        assertEquals("7,7,\"'=HYPERLINK(\"\"x\"\")\",user7@example.com,3,Vehicle 3,CAR,2030-01-01,2030-01-03,"
+                + "150.0,CONFIRMED,\"Gate 2, \"\"North\"\"\",2029-12-01", lines[1]);
+    }
+
+    // Generated lazily, one row at a time
+    private static Stream<Rental> syntheticRentals() {
+        return Stream.iterate(1L, id -> id + 1).limit(ROWS).map(RowStreamWriterTest::rental);
+    }
+
+    private static Rental rental(long id) {
+        Rental rental = new Rental();
+        rental.setId(id);
+        rental.setUserId(id);
+        rental.setUserName("User " + id);
+        rental.setUserEmail("user" + id + "@example.com");
+        rental.setVehicleId(id % 4);
+        rental.setVehicleName("Vehicle " + id % 4);
+        rental.setVehicleType("CAR");
+        rental.setStartDate(LocalDate.of(2030, 1, 1));
+        rental.setEndDate(LocalDate.of(2030, 1, 3));
+        rental.setTotalCost(150.0);
+        rental.setStatus(RentalStatus.CONFIRMED);
+        rental.setPickupLocation("Main Station");
+        rental.setBookingDate(LocalDate.of(2029, 12, 1));
+        return rental;
+    }
+
+    private static final class LineCountingOutputStream extends OutputStream {
+        long lines;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.demo.service;
+
+import com.example.demo.model.User;
+import com.example.demo.repository.OutboxEventRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.service.events.OutboxRelay;
+import com.example.demo.service.events.OutboxService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two UserService instances on one Flyway-migrated H2, kept in step by the
+ * USER_* outbox events: the email filter and the user cache on one node follow
+ * writes made on the other.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:usersync;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({OutboxService.class, OutboxRelay.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserServiceSyncTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void passwordAndRoleChangesReachTheOtherNodesCache() {
+        UserService nodeA = node();
+        UserService nodeB = node();
+        User user = nodeA.saveUser(user("cached@example.com", "hash-1", "USER"));
+        propagate(nodeB);
+        assertEquals("hash-1", nodeB.getUserByEmail("cached@example.com").orElseThrow().getPassword());
+
+        User changed = nodeA.getUserById(user.getId()).orElseThrow();
+        changed.setPassword("hash-2");
+        changed.setRole("ADMIN");
+        nodeA.saveUser(changed);
+        propagate(nodeB);
+
+        User seen = nodeB.getUserByEmail("cached@example.com").orElseThrow();
+        assertEquals("hash-2", seen.getPassword());
+        assertEquals("ADMIN", seen.getRole());
+    }
+
+    @Test
+    void accountsRegisteredElsewhereArriveThroughTheFeed() {
+        UserService nodeA = node();
+        UserService nodeB = node();
+
+        nodeA.saveUser(user("new@example.com", "hash", "USER"));
+        // registration checks always confirm in the database
+        assertTrue(nodeB.emailExists("new@example.com"));
+        // until the event is relayed and read, B's filter has not seen the email
+        assertFalse(nodeB.getUserByEmail("new@example.com").isPresent());
+
+        propagate(nodeB);
+        assertTrue(nodeB.getUserByEmail("new@example.com").isPresent());
+        assertFalse(nodeB.getUserByEmail("never@example.com").isPresent());
+    }
+
+    @Test
+    void filterNegativesAreNotTrustedWhileTheFeedIsBehind() {
+        UserService nodeA = node();
+        UserService nodeB = node();
+        ReflectionTestUtils.setField(nodeB, "feedCurrentAt", 0L);
+
+        nodeA.saveUser(user("lagging@example.com", "hash", "USER"));
+        assertTrue(nodeB.getUserByEmail("lagging@example.com").isPresent());
+    }
+
+    @Test
+    void deletedUsersLeaveTheOtherNodesCache() {
+        UserService nodeA = node();
+        UserService nodeB = node();
+        User user = nodeA.saveUser(user("deleted@example.com", "hash", "USER"));
+        propagate(nodeB);
+        assertTrue(nodeB.getUserById(user.getId()).isPresent());
+
+        nodeA.deleteUser(user.getId());
+        propagate(nodeB);
+        assertFalse(nodeB.getUserById(user.getId()).isPresent());
+    }
+
+    private void propagate(UserService node) {
+        outboxRelay.relay();
+        node.syncFromOutbox();
+    }
+
+    // An instance with its own filter, cache and feed position, as on a separate node
+    private UserService node() {
+        UserService node = new UserService();
+        ReflectionTestUtils.setField(node, "userRepository", userRepository);
+        ReflectionTestUtils.setField(node, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(node, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(node, "outboxService", outboxService);
+        ReflectionTestUtils.setField(node, "outboxEventRepository", outboxEventRepository);
+        ReflectionTestUtils.setField(node, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(node, "cacheMaxSize", 1000L);
+        ReflectionTestUtils.setField(node, "cacheTtl", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(node, "falsePositiveRate", 0.01);
+        ReflectionTestUtils.setField(node, "maxFeedLag", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(node, "syncBatchSize", 1000);
+        node.initCaches();
+        outboxRelay.relay();
+        node.rebuildEmailFilter();
+        return node;
+    }
+
+    private static User user(String email, String password, String role) {
+        User user = new User();
+        user.setName(email);
+        user.setEmail(email);
+        user.setPassword(password);
+        user.setRole(role);
+        return user;
+    }
+}
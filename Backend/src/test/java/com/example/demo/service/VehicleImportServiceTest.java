@@ -0,0 +1,169 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.VehicleImportResult;
+import com.example.demo.model.Vehicle;
+import com.example.demo.model.VehicleType;
+import com.example.demo.repository.VehicleRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * CSV cell parsing, and the import pipeline against a Flyway-migrated H2:
+ * validation, duplicate numbers (within the file and against the fleet),
+ * batching and the per-row error report.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:imports;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "vehicles.import.batch-size=2"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({VehicleImportService.class, CatalogVersions.class, VehicleImportServiceTest.Caches.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class VehicleImportServiceTest {
+
+    @Autowired
+    private VehicleImportService importService;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @TestConfiguration
+    static class Caches {
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager();
+        }
+    }
+
+    @Test
+    void parsesPlainQuotedAndEscapedCells() {
+        assertEquals(List.of("a", "b", "c"), VehicleImportService.parseCsvLine("a,b,c"));
+        assertEquals(List.of("Swift, VXi", "2024"), VehicleImportService.parseCsvLine("\"Swift, VXi\",2024"));
+        assertEquals(List.of("say \"hi\"", "x"), VehicleImportService.parseCsvLine("\"say \"\"hi\"\"\",x"));
+        assertEquals(List.of("\"", ""), VehicleImportService.parseCsvLine("\"\"\"\","));
+        assertEquals(List.of("", "", ""), VehicleImportService.parseCsvLine(",,"));
+        assertEquals(List.of(""), VehicleImportService.parseCsvLine(""));
+        // a quote inside an unquoted cell toggles quoting instead of being rejected
+        assertEquals(List.of("ab,c"), VehicleImportService.parseCsvLine("a\"b,c\""));
+    }
+
+    @Test
+    void importsCsvAndReportsEveryRejectedRow() throws Exception {
+        vehicleRepository.save(
+                new Vehicle("Fleet car", "2020", "CSV-FLEET-1", new BigDecimal("500"), VehicleType.CAR));
+
+        VehicleImportResult result = importService.importCsv(csv(
+                "\uFEFFnumber,name,model,rentCost,type,available",
+                "CSV-1,\"Swift, VXi\",\"2024 \"\"Sport\"\"\",1200,car,",
+                "CSV-2,Activa,2023,300,BIKE,false",
+                "csv-1,Copy,2023,300,BIKE,",
+                "CSV-FLEET-1,Again,2020,500,CAR,",
+                "CSV-3,Broken,2020,abc,CAR,",
+                "",
+                "CSV-4,No type,2020,100,,",
+                "CSV-5,Scooter,2022,250,bike,yes",
+                "CSV-6,City,2022,900,CAR,true"));
+
+        assertEquals(8, result.getReceived()); // the blank line is skipped
+        assertEquals(3, result.getImported());
+        assertEquals(5, result.getFailed());
+        assertFalse(result.isErrorsTruncated());
+        assertError(result.getErrors().get(0), 4, "csv-1", "Duplicate vehicle number");
+        assertError(result.getErrors().get(1), 5, "CSV-FLEET-1", "Duplicate vehicle number");
+        assertError(result.getErrors().get(2), 6, "CSV-3", "rentCost must be a number");
+        assertError(result.getErrors().get(3), 8, "CSV-4", "type must be CAR or BIKE");
+        assertError(result.getErrors().get(4), 9, "CSV-5", "available must be true or false");
+
+        Vehicle swift = vehicleByNumber("CSV-1");
+        assertEquals("Swift, VXi", swift.getName());
+        assertEquals("2024 \"Sport\"", swift.getModel());
+        assertEquals(VehicleType.CAR, swift.getType());
+        assertTrue(swift.isAvailable());
+        assertFalse(vehicleByNumber("CSV-2").isAvailable());
+        assertEquals(0, new BigDecimal("900").compareTo(vehicleByNumber("CSV-6").getRentCost()));
+    }
+
+    @Test
+    void importsJsonAndStopsAtMalformedInput() throws Exception {
+        VehicleImportResult result = importService.importJson(json(
+                "[{\"name\":\"Ola S1\",\"number\":\"JSON-1\",\"rentCost\":400,\"type\":\"BIKE\"},"
+                        + "{\"name\":\"No cost\",\"number\":\"JSON-2\",\"type\":\"CAR\"},"
+                        + "{\"name\":\"Nexon\",\"number\":\"JSON-3\",\"rentCost\":\"1500\",\"type\":\"CAR\"},"
+                        + "{\"name\":"));
+
+        assertEquals(3, result.getReceived());
+        assertEquals(2, result.getImported());
+        assertEquals(2, result.getFailed());
+        assertError(result.getErrors().get(0), 2, "JSON-2", "rentCost is required");
+        assertEquals(4, result.getErrors().get(1).getRow());
+        assertTrue(result.getErrors().get(1).getMessage().startsWith("Malformed JSON"));
+        assertEquals("Nexon", vehicleByNumber("JSON-3").getName());
+    }
+
+    @Test
+    void truncatesTheErrorReport() throws Exception {
+        ReflectionTestUtils.setField(importService, "maxReportedErrors", 2);
+        try {
+            VehicleImportResult result = importService.importCsv(csv(
+                    "name,number,rentCost,type",
+                    ",TRUNC-1,100,CAR",
+                    ",TRUNC-2,100,CAR",
+                    ",TRUNC-3,100,CAR"));
+
+            assertEquals(3, result.getFailed());
+            assertEquals(2, result.getErrors().size());
+            assertTrue(result.isErrorsTruncated());
+        } finally {
+            ReflectionTestUtils.setField(importService, "maxReportedErrors", 1000);
+        }
+    }
+
+    private Vehicle vehicleByNumber(String number) {
+        return vehicleRepository.findAll().stream()
+                .filter(vehicle -> number.equals(vehicle.getNumber()))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static void assertError(VehicleImportResult.RowError error, long row, String number, String message) {
+        assertEquals(row, error.getRow());
+        assertEquals(number, error.getNumber());
+        assertEquals(message, error.getMessage());
+    }
+
+    private static InputStream csv(String... lines) {
+        return utf8(String.join("\r\n", lines));
+    }
+
+    private static InputStream json(String text) {
+        return utf8(text);
+    }
+
+    private static InputStream utf8(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.demo.service.analytics;
+
+import com.example.demo.model.DamageFact;
+import com.example.demo.model.PaymentFact;
+import com.example.demo.model.PaymentStatus;
+import com.example.demo.model.RentalFact;
+import com.example.demo.model.RentalStatus;
+import com.example.demo.model.RollupDimension;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RollupBatchTest {
+
+    private static final LocalDate MON = LocalDate.of(2025, 1, 6);
+
+    @Test
+    void confirmedRentalOccupiesEveryDayInEveryDimension() {
+        RollupBatch batch = new RollupBatch();
+        batch.rental(rental(RentalStatus.CONFIRMED), 1);
+        Map<RollupBatch.Key, RollupBatch.Delta> changes = batch.changes();
+
+        // 3 days x 4 dimensions
+        assertEquals(12, changes.size());
+        RollupBatch.Delta first = changes.get(new RollupBatch.Key(RollupDimension.LOCATION, "Airport", MON));
+        assertEquals(1, first.rentalsStarted);
+        assertEquals(1, first.rentedDays);
+        RollupBatch.Delta last = changes.get(new RollupBatch.Key(RollupDimension.VEHICLE, "7", MON.plusDays(2)));
+        assertEquals(0, last.rentalsStarted);
+        assertEquals(0, last.rentalsCompleted);
+        assertEquals(BigDecimal.ZERO, last.rentalRevenue);
+    }
+
+    @Test
+    void reapplyingTheSameStateNetsToZero() {
+        RollupBatch batch = new RollupBatch();
+        batch.rental(rental(RentalStatus.CONFIRMED), -1);
+        batch.rental(rental(RentalStatus.CONFIRMED), 1);
+        assertTrue(batch.changes().isEmpty());
+    }
+
+    @Test
+    void completingMovesRevenueToTheEndDate() {
+        RollupBatch batch = new RollupBatch();
+        batch.rental(rental(RentalStatus.CONFIRMED), -1);
+        batch.rental(rental(RentalStatus.COMPLETED), 1);
+        Map<RollupBatch.Key, RollupBatch.Delta> changes = batch.changes();
+
+        // only the end date changes, in all 4 dimensions
+        assertEquals(4, changes.size());
+        RollupBatch.Delta end = changes.get(new RollupBatch.Key(RollupDimension.VEHICLE_TYPE, "CAR", MON.plusDays(2)));
+        assertEquals(1, end.rentalsCompleted);
+        assertEquals(new BigDecimal("7500.00"), end.rentalRevenue);
+        assertEquals(0, end.rentedDays);
+    }
+
+    @Test
+    void pendingAndRejectedRentalsContributeNothing() {
+        RollupBatch batch = new RollupBatch();
+        batch.rental(rental(RentalStatus.PENDING), 1);
+        batch.rental(rental(RentalStatus.REJECTED), 1);
+        assertTrue(batch.changes().isEmpty());
+    }
+
+    @Test
+    void refundRemovesCapturedPaymentRevenue() {
+        PaymentFact captured = payment(PaymentStatus.COMPLETED);
+        PaymentFact refunded = payment(PaymentStatus.REFUNDED);
+
+        RollupBatch capture = new RollupBatch();
+        capture.payment(captured, 1);
+        RollupBatch.Delta fleet = capture.changes().get(new RollupBatch.Key(RollupDimension.FLEET, RollupBatch.FLEET_KEY, MON));
+        assertEquals(new BigDecimal("999.50"), fleet.paymentRevenue);
+        // payments have no pickup location
+        assertEquals(3, capture.changes().size());
+
+        RollupBatch refund = new RollupBatch();
+        refund.payment(captured, -1);
+        refund.payment(refunded, 1);
+        RollupBatch.Delta reversed = refund.changes().get(new RollupBatch.Key(RollupDimension.FLEET, RollupBatch.FLEET_KEY, MON));
+        assertEquals(new BigDecimal("-999.50"), reversed.paymentRevenue);
+    }
+
+    @Test
+    void damageCountsOncePerDimension() {
+        RollupBatch batch = new RollupBatch();
+        batch.damage(new DamageFact(42L, 7L, "CAR", MON));
+        assertEquals(3, batch.changes().size());
+        assertEquals(1, batch.changes().get(new RollupBatch.Key(RollupDimension.VEHICLE, "7", MON)).damageReports);
+        assertNull(batch.changes().get(new RollupBatch.Key(RollupDimension.LOCATION, "Airport", MON)));
+    }
+
+    @Test
+    void longRentalsAreCapped() {
+        RentalFact fact = rental(RentalStatus.CONFIRMED);
+        fact.setEndDate(MON.plusYears(5));
+        RollupBatch batch = new RollupBatch();
+        batch.rental(fact, 1);
+        long fleetDays = batch.changes().keySet().stream()
+                .filter(key -> key.dimension() == RollupDimension.FLEET).count();
+        assertEquals(RollupBatch.MAX_DAYS, fleetDays);
+    }
+
+    private static RentalFact rental(RentalStatus status) {
+        RentalFact fact = new RentalFact(1L);
+        fact.setVehicleId(7L);
+        fact.setVehicleType("CAR");
+        fact.setPickupLocation("Airport");
+        fact.setStartDate(MON);
+        fact.setEndDate(MON.plusDays(2));
+        fact.setStatus(status);
+        fact.setTotalCost(new BigDecimal("7500.00"));
+        return fact;
+    }
+
+    private static PaymentFact payment(PaymentStatus status) {
+        PaymentFact fact = new PaymentFact(3L);
+        fact.setVehicleId(7L);
+        fact.setVehicleType("CAR");
+        fact.setStatus(status);
+        fact.setAmount(new BigDecimal("999.50"));
+        fact.setRevenueDate(MON);
+        return fact;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.demo.service.auth;
+
+import com.example.demo.exception.LoginThrottledException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoginThrottleTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void bucketAllowsABurstThenRefillsOneTokenPerInterval() {
+        TokenBucket bucket = new TokenBucket(3, SECOND, 0);
+        assertEquals(0, bucket.tryTake(0));
+        assertEquals(0, bucket.tryTake(0));
+        assertEquals(0, bucket.tryTake(0));
+        assertEquals(SECOND, bucket.tryTake(0));
+
+        // half an interval later half a token has come back
+        assertEquals(SECOND / 2, bucket.tryTake(SECOND / 2));
+        assertEquals(0, bucket.tryTake(SECOND));
+        assertTrue(bucket.tryTake(SECOND) > 0);
+
+        // never refills beyond capacity
+        long later = 100 * SECOND;
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryTake(later));
+        }
+        assertTrue(bucket.tryTake(later) > 0);
+    }
+
+    @Test
+    void throttlesPerEmailAndPerIpIndependently() {
+        LoginThrottle throttle = new LoginThrottle(new SimpleMeterRegistry(),
+                2, Duration.ofMinutes(1), 3, Duration.ofMinutes(1), 1000);
+
+        throttle.acquire("a@example.com", "10.0.0.1");
+        throttle.acquire("A@Example.com ", "10.0.0.2");
+        LoginThrottledException byEmail = assertThrows(LoginThrottledException.class,
+                () -> throttle.acquire("a@example.com", "10.0.0.3"));
+        assertTrue(byEmail.getRetryAfterSeconds() >= 1);
+
+        // a different account from a fresh address is unaffected
+        assertDoesNotThrow(() -> throttle.acquire("b@example.com", "10.0.0.4"));
+
+        // one address spraying many accounts runs out of its own bucket
+        throttle.acquire("c@example.com", "10.0.0.9");
+        throttle.acquire("d@example.com", "10.0.0.9");
+        throttle.acquire("e@example.com", "10.0.0.9");
+        assertThrows(LoginThrottledException.class, () -> throttle.acquire("f@example.com", "10.0.0.9"));
+    }
+
+    @Test
+    void calibratesTheHighestCostWithinTheTarget() {
+        long ms = TimeUnit.MILLISECONDS.toNanos(1);
+        assertEquals(10, PasswordHasher.costFor(80 * ms, 100 * ms, 10, 14));
+        assertEquals(11, PasswordHasher.costFor(50 * ms, 100 * ms, 10, 14));
+        assertEquals(12, PasswordHasher.costFor(60 * ms, 250 * ms, 10, 14));
+        // slow machines stay at the minimum, fast ones stop at the maximum
+        assertEquals(10, PasswordHasher.costFor(400 * ms, 250 * ms, 10, 14));
+        assertEquals(14, PasswordHasher.costFor(ms, 250 * ms, 10, 14));
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.demo.service.auth;
+
+import com.example.demo.exception.InvalidTokenException;
+import com.example.demo.model.User;
+import com.example.demo.security.JwtAuthenticationFilter;
+import com.example.demo.security.JwtUtil;
+import com.example.demo.security.RevokedTokenStore;
+import com.example.demo.security.VerifiedClaimsCache;
+import com.example.demo.service.UserService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TokenServiceTest {
+
+    private static final String OLD_SECRET = "old_secret_key_of_at_least_32_bytes_long";
+    private static final String NEW_SECRET = "new_secret_key_of_at_least_32_bytes_long";
+
+    private JwtUtil jwtUtil;
+    private JdbcTemplate jdbcTemplate;
+    private RevokedTokenStore revokedTokens;
+    private TokenService tokenService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = jwtUtil(new MockEnvironment().withProperty("jwt.keys.k1", OLD_SECRET), "k1");
+
+        jdbcTemplate = mock(JdbcTemplate.class);
+        revokedTokens = new RevokedTokenStore();
+        ReflectionTestUtils.setField(revokedTokens, "jdbcTemplate", jdbcTemplate);
+
+        user = new User();
+        user.setId(1L);
+        user.setEmail("user@example.com");
+        user.setRole("USER");
+        UserService userService = mock(UserService.class);
+        when(userService.getUserByEmail(anyString())).thenReturn(Optional.of(user));
+
+        tokenService = new TokenService();
+        ReflectionTestUtils.setField(tokenService, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(tokenService, "revokedTokens", revokedTokens);
+        ReflectionTestUtils.setField(tokenService, "userService", userService);
+    }
+
+    @Test
+    void refreshRotatesWithinTheSameFamily() {
+        TokenPair login = tokenService.issue(user);
+        TokenPair refreshed = tokenService.refresh(login.refreshToken());
+
+        Claims first = jwtUtil.parseClaims(login.refreshToken());
+        Claims second = jwtUtil.parseClaims(refreshed.refreshToken());
+        assertEquals(first.get(JwtUtil.FAMILY), second.get(JwtUtil.FAMILY));
+        assertNotEquals(first.getId(), second.getId());
+        assertEquals("USER", refreshed.role());
+        assertEquals(900, refreshed.expiresInSeconds());
+
+        // the access token is not accepted as a refresh token
+        assertThrows(InvalidTokenException.class, () -> tokenService.refresh(refreshed.accessToken()));
+        assertFalse(JwtUtil.isRefreshToken(jwtUtil.parseClaims(refreshed.accessToken())));
+    }
+
+    @Test
+    void replayingARotatedTokenRevokesTheWholeFamily() {
+        TokenPair login = tokenService.issue(user);
+        TokenPair refreshed = tokenService.refresh(login.refreshToken());
+
+        assertThrows(InvalidTokenException.class, () -> tokenService.refresh(login.refreshToken()));
+
+        // the legitimate holder's newer tokens are cut off too
+        assertTrue(revokedTokens.isRevoked(jwtUtil.parseClaims(refreshed.accessToken())));
+        assertThrows(InvalidTokenException.class, () -> tokenService.refresh(refreshed.refreshToken()));
+    }
+
+    @Test
+    void logoutRevokesTheSession() {
+        TokenPair login = tokenService.issue(user);
+        TokenPair other = tokenService.issue(user);
+
+        tokenService.logout(login.accessToken(), null);
+
+        assertTrue(revokedTokens.isRevoked(jwtUtil.parseClaims(login.accessToken())));
+        assertThrows(InvalidTokenException.class, () -> tokenService.refresh(login.refreshToken()));
+        // other sessions of the same user are unaffected
+        assertFalse(revokedTokens.isRevoked(jwtUtil.parseClaims(other.accessToken())));
+        tokenService.refresh(other.refreshToken());
+    }
+
+    @Test
+    void familyRevokedOnAnotherInstanceIsRefusedOnRefresh() {
+        TokenPair login = tokenService.issue(user);
+        String family = jwtUtil.parseClaims(login.refreshToken()).get(JwtUtil.FAMILY, String.class);
+        // logged out elsewhere: the row is in revoked_tokens before this instance reloads it
+        when(jdbcTemplate.query(anyString(), ArgumentMatchers.<RowMapper<Timestamp>>any(), eq("family:" + family)))
+                .thenReturn(List.of(Timestamp.from(Instant.now().plus(Duration.ofDays(1)))));
+        assertFalse(revokedTokens.isRevoked(jwtUtil.parseClaims(login.accessToken())));
+
+        assertThrows(InvalidTokenException.class, () -> tokenService.refresh(login.refreshToken()));
+        // the confirmed revocation is kept, so the family's access tokens are refused from now on
+        assertTrue(revokedTokens.isRevoked(jwtUtil.parseClaims(login.accessToken())));
+    }
+
+    @Test
+    void streamTokenOpensOnlyTheStreamAndEndsWithTheSession() throws Exception {
+        TokenPair login = tokenService.issue(user);
+        Claims access = jwtUtil.parseClaims(login.accessToken());
+        String streamToken = tokenService.issueStreamToken(access);
+
+        Claims stream = jwtUtil.parseClaims(streamToken);
+        assertTrue(JwtUtil.isStreamToken(stream));
+        assertEquals(access.get(JwtUtil.FAMILY), stream.get(JwtUtil.FAMILY));
+        assertTrue(stream.getExpiration().getTime() - System.currentTimeMillis() <= 60_000);
+        assertThrows(InvalidTokenException.class, () -> tokenService.refresh(streamToken));
+
+        assertTrue(authenticates(streamRequest(streamToken)));
+        assertFalse(authenticates(streamRequest(login.accessToken())));
+        MockHttpServletRequest bearer = new MockHttpServletRequest("GET", "/api/rentals");
+        bearer.addHeader("Authorization", "Bearer " + streamToken);
+        assertFalse(authenticates(bearer));
+
+        tokenService.logout(login.accessToken(), null);
+        assertFalse(authenticates(streamRequest(streamToken)));
+    }
+
+    @Test
+    void tokensSignedWithARetiredActiveKeyStillVerifyAfterRotation() {
+        String oldToken = jwtUtil.generateToken("user@example.com", "USER");
+
+        JwtUtil rotated = jwtUtil(new MockEnvironment()
+                .withProperty("jwt.keys.k1", OLD_SECRET)
+                .withProperty("jwt.keys.k2", NEW_SECRET), "k2");
+        assertEquals("user@example.com", rotated.extractEmail(oldToken));
+        String newToken = rotated.generateToken("user@example.com", "USER");
+
+        // once k1 is removed its tokens stop verifying, and k1-only nodes cannot read k2 tokens
+        JwtUtil k2Only = jwtUtil(new MockEnvironment().withProperty("jwt.keys.k2", NEW_SECRET), "k2");
+        assertThrows(JwtException.class, () -> k2Only.parseClaims(oldToken));
+        assertThrows(JwtException.class, () -> jwtUtil.parseClaims(newToken));
+    }
+
+    private static MockHttpServletRequest streamRequest(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/admin/stream");
+        request.addParameter("stream_token", token);
+        return request;
+    }
+
+    private boolean authenticates(MockHttpServletRequest request) throws Exception {
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(new VerifiedClaimsCache(jwtUtil, 100), revokedTokens);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication() != null;
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private static JwtUtil jwtUtil(MockEnvironment environment, String activeKeyId) {
+        JwtUtil util = new JwtUtil();
+        ReflectionTestUtils.setField(util, "environment", environment);
+        ReflectionTestUtils.setField(util, "secret", "");
+        ReflectionTestUtils.setField(util, "activeKeyId", activeKeyId);
+        ReflectionTestUtils.setField(util, "accessTokenTtl", Duration.ofMinutes(15));
+        ReflectionTestUtils.setField(util, "refreshTokenTtl", Duration.ofDays(14));
+        ReflectionTestUtils.setField(util, "streamTokenTtl", Duration.ofSeconds(60));
+        util.init();
+        return util;
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.demo.service.events;
+
+import com.example.demo.model.OutboxEvent;
+import com.example.demo.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * OutboxRelay against a Flyway-migrated H2: publish sequence versus commit
+ * order, the relay lease, and parking an event that keeps failing.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outboxrelay;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "outbox.relay.max-attempts=3"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({OutboxRelay.class, OutboxRelayTest.Recording.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxRelayTest {
+
+    private static final long POISON = 13L;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private RecordingSubscriber subscriber;
+
+    @TestConfiguration
+    static class Recording {
+        @Bean
+        RecordingSubscriber recordingSubscriber() {
+            return new RecordingSubscriber();
+        }
+    }
+
+    // Records delivered event ids; any batch containing the POISON aggregate fails
+    static final class RecordingSubscriber implements DomainEventSubscriber {
+        final List<Long> delivered = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void onEvents(List<DomainEvent> events) {
+            if (events.stream().anyMatch(event -> Long.valueOf(POISON).equals(event.getAggregateId()))) {
+                throw new IllegalStateException("cannot apply " + POISON);
+            }
+            events.forEach(event -> delivered.add(event.getId()));
+        }
+    }
+
+    @BeforeEach
+    void drain() {
+        outboxRelay.relay();
+        subscriber.delivered.clear();
+    }
+
+    @Test
+    void eventCommittedLateIsPublishedWithTheNextSequence() throws Exception {
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<Long> late = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(tx -> {
+            Long id = outboxEventRepository.saveAndFlush(event(1L)).getId();
+            inserted.countDown();
+            await(commit);
+            return id;
+        }));
+        assertTrue(inserted.await(10, TimeUnit.SECONDS));
+        Long early = outboxEventRepository.save(event(2L)).getId();
+
+        outboxRelay.relay();
+        commit.countDown();
+        Long lateId = late.get(10, TimeUnit.SECONDS);
+        outboxRelay.relay();
+
+        assertTrue(lateId < early);
+        assertEquals(List.of(early, lateId), subscriber.delivered);
+        assertTrue(published(lateId).getPublishSeq() > published(early).getPublishSeq());
+    }
+
+    @Test
+    void runIsSkippedWhileAnotherNodeHoldsTheLease() throws Exception {
+        Long id = outboxEventRepository.save(event(3L)).getId();
+        CountDownLatch leased = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> otherNode = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(tx -> {
+            assertEquals(1, outboxEventRepository.lockRelayLease().size());
+            leased.countDown();
+            await(release);
+        }));
+        assertTrue(leased.await(10, TimeUnit.SECONDS));
+
+        outboxRelay.relay();
+        assertTrue(subscriber.delivered.isEmpty());
+        assertNull(outboxEventRepository.findById(id).orElseThrow().getPublishedAt());
+
+        release.countDown();
+        otherNode.get(10, TimeUnit.SECONDS);
+        outboxRelay.relay();
+        assertEquals(List.of(id), subscriber.delivered);
+    }
+
+    @Test
+    void failingEventIsParkedAfterMaxAttemptsAndTheRestFlow() {
+        Long before = outboxEventRepository.save(event(4L)).getId();
+        Long poison = outboxEventRepository.save(event(POISON)).getId();
+        Long after = outboxEventRepository.save(event(5L)).getId();
+
+        outboxRelay.relay();
+        // everything ahead of the failing event goes out; nothing overtakes it
+        assertEquals(List.of(before), subscriber.delivered);
+        assertEquals(1, outboxEventRepository.findById(poison).orElseThrow().getAttempts());
+        assertNull(outboxEventRepository.findById(after).orElseThrow().getPublishedAt());
+
+        outboxRelay.relay();
+        outboxRelay.relay();
+        OutboxEvent parked = outboxEventRepository.findById(poison).orElseThrow();
+        assertEquals(3, parked.getAttempts());
+        assertNotNull(parked.getParkedAt());
+        assertTrue(parked.getLastError().contains("cannot apply"));
+
+        outboxRelay.relay();
+        assertEquals(List.of(before, after), subscriber.delivered);
+        assertNull(outboxEventRepository.findById(poison).orElseThrow().getPublishedAt());
+    }
+
+    private OutboxEvent published(Long id) {
+        OutboxEvent event = outboxEventRepository.findById(id).orElseThrow();
+        assertNotNull(event.getPublishedAt());
+        return event;
+    }
+
+    private static OutboxEvent event(Long aggregateId) {
+        return new OutboxEvent(DomainEventType.VEHICLE_DAMAGED.name(), OutboxService.VEHICLE, aggregateId, "{}");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package com.example.demo.service.payment;
+
+import com.example.demo.exception.InvalidStatusTransitionException;
+import com.example.demo.model.Payment;
+import com.example.demo.model.PaymentStatus;
+import com.example.demo.repository.PaymentRepository;
+import com.example.demo.service.PaymentService;
+import com.example.demo.service.events.OutboxService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * The payment pipeline against a Flyway-migrated H2 with a scripted gateway:
+ * the PENDING -> PROCESSING claim, retries and their final outcome, the
+ * sweeper, admin actions racing the pipeline, and how many charges wait on
+ * the gateway at once. The pipeline is started by ApplicationReadyEvent;
+ * the scheduled sweep is not enabled here and is called directly.
+ */
+@DataJpaTest(showSql = false, properties = {
+        "spring.datasource.url=jdbc:h2:mem:payments;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "payments.pipeline.concurrency=64",
+        "payments.pipeline.max-attempts=3",
+        "payments.pipeline.backoff=1ms",
+        "payments.pipeline.stuck-after=1m"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({PaymentProcessor.class, PaymentService.class, OutboxService.class, PaymentProcessorTest.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PaymentProcessorTest {
+
+    @Autowired
+    private PaymentProcessor paymentProcessor;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private ScriptedGateway gateway;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        ScriptedGateway scriptedGateway() {
+            return new ScriptedGateway();
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @BeforeEach
+    void resetGateway() {
+        gateway.reset();
+    }
+
+    @Test
+    void approvedChargeCompletesThePayment() {
+        Payment payment = paymentService.createPayment(newPayment());
+
+        awaitStatus(payment.getId(), PaymentStatus.COMPLETED);
+        assertEquals(List.of("payment-" + payment.getId()), gateway.keys(payment.getId()));
+    }
+
+    @Test
+    void transientErrorsAreRetriedWithTheSameIdempotencyKey() {
+        Payment payment = pending();
+        gateway.script(payment.getId(), GatewayResult.error("timeout"), GatewayResult.error("timeout"));
+        paymentProcessor.submit(payment.getId());
+
+        awaitStatus(payment.getId(), PaymentStatus.COMPLETED);
+        String key = "payment-" + payment.getId();
+        assertEquals(List.of(key, key, key), gateway.keys(payment.getId()));
+    }
+
+    @Test
+    void errorsPastMaxAttemptsFailThePayment() {
+        Payment payment = pending();
+        gateway.script(payment.getId(),
+                GatewayResult.error("down"), GatewayResult.error("down"), GatewayResult.error("down"));
+        paymentProcessor.submit(payment.getId());
+
+        awaitStatus(payment.getId(), PaymentStatus.FAILED);
+        assertEquals(3, gateway.keys(payment.getId()).size());
+    }
+
+    @Test
+    void declineFailsThePaymentWithoutRetrying() {
+        Payment payment = pending();
+        gateway.script(payment.getId(), GatewayResult.declined("insufficient funds"));
+        paymentProcessor.submit(payment.getId());
+
+        awaitStatus(payment.getId(), PaymentStatus.FAILED);
+        awaitIdle();
+        assertEquals(1, gateway.keys(payment.getId()).size());
+    }
+
+    @Test
+    void onlyOneJobWinsTheClaim() {
+        Payment payment = pending();
+        for (int i = 0; i < 5; i++) {
+            paymentProcessor.submit(payment.getId());
+        }
+
+        awaitStatus(payment.getId(), PaymentStatus.COMPLETED);
+        awaitIdle();
+        assertEquals(1, gateway.keys(payment.getId()).size());
+    }
+
+    @Test
+    void adminActionAndPipelineNeverOverwriteEachOther() {
+        Payment rejected = pending();
+        paymentService.rejectPayment(rejected.getId());
+        paymentProcessor.submit(rejected.getId());
+        awaitIdle();
+        assertEquals(PaymentStatus.REJECTED, status(rejected.getId()));
+        assertTrue(gateway.keys(rejected.getId()).isEmpty());
+
+        Payment claimed = pending();
+        assertEquals(1, paymentRepository.claimForProcessing(claimed.getId(), LocalDateTime.now()));
+        assertThrows(InvalidStatusTransitionException.class, () -> paymentService.approvePayment(claimed.getId()));
+        assertThrows(InvalidStatusTransitionException.class, () -> paymentService.updatePayment(claimed.getId(), newPayment()));
+        assertEquals(PaymentStatus.PROCESSING, status(claimed.getId()));
+    }
+
+    @Test
+    void sweepReleasesStuckPaymentsAndQueuesForgottenOnes() {
+        Payment stuck = newPayment();
+        stuck.setPaymentDate(LocalDateTime.now().minusMinutes(10));
+        stuck.setStatus(PaymentStatus.PROCESSING);
+        stuck.setProcessingStartedAt(LocalDateTime.now().minusMinutes(5));
+        stuck = paymentRepository.save(stuck);
+
+        Payment forgotten = newPayment();
+        forgotten.setPaymentDate(LocalDateTime.now().minusMinutes(1));
+        forgotten = paymentRepository.save(forgotten);
+
+        Payment recent = pending(); // younger than the sweep's grace period, so left for submit()
+
+        paymentProcessor.sweep();
+
+        awaitStatus(stuck.getId(), PaymentStatus.COMPLETED);
+        awaitStatus(forgotten.getId(), PaymentStatus.COMPLETED);
+        awaitIdle();
+        assertEquals(PaymentStatus.PENDING, status(recent.getId()));
+    }
+
+    @Test
+    void slowGatewayCallsFillEveryInFlightSlotAndNoMore() {
+        int payments = 100;
+        List<Long> ids = new ArrayList<>(payments);
+        List<Payment> batch = new ArrayList<>(payments);
+        for (int i = 0; i < payments; i++) {
+            batch.add(newPayment());
+        }
+        paymentRepository.saveAll(batch).forEach(payment -> ids.add(payment.getId()));
+
+        gateway.hold();
+        ids.forEach(paymentProcessor::submit);
+        // 16 blocking workers would stop at 16 calls; the pipeline waits on the gateway with all 64 slots
+        await(() -> gateway.inFlight.get() == 64, 30_000);
+        assertEquals(64.0, gauge("payments.pipeline.in-flight"));
+        gateway.release();
+
+        await(() -> ids.stream().allMatch(id -> gateway.keys(id).size() == 1), 30_000);
+        awaitIdle();
+        ids.forEach(id -> assertEquals(PaymentStatus.COMPLETED, status(id)));
+        assertEquals(64, gateway.peakInFlight.get());
+    }
+
+    private Payment pending() {
+        return paymentRepository.save(newPayment());
+    }
+
+    private static Payment newPayment() {
+        Payment payment = new Payment(null, null, new BigDecimal("49.90"));
+        payment.setPaymentMethod("CARD");
+        return payment;
+    }
+
+    private PaymentStatus status(Long id) {
+        return paymentRepository.findById(id).orElseThrow().getStatus();
+    }
+
+    private void awaitStatus(Long id, PaymentStatus status) {
+        await(() -> status(id) == status, 10_000);
+    }
+
+    // Nothing queued and nothing being charged (retries wait on the scheduler, so check status first)
+    private void awaitIdle() {
+        await(() -> gauge("payments.pipeline.queue.size") == 0 && gauge("payments.pipeline.in-flight") == 0, 10_000);
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).gauge().value();
+    }
+
+    private static void await(BooleanSupplier condition, long timeoutMillis) {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("condition not met within " + timeoutMillis + "ms");
+            }
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail("interrupted");
+            }
+        }
+    }
+
+    // Replays scripted results per payment (then approves) and records every call
+    static final class ScriptedGateway implements PaymentGateway {
+        private final Map<Long, Queue<GatewayResult>> scripts = new ConcurrentHashMap<>();
+        private final Map<Long, List<String>> keys = new ConcurrentHashMap<>();
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger peakInFlight = new AtomicInteger();
+        private volatile CountDownLatch gate = new CountDownLatch(0);
+
+        @Override
+        public GatewayResult charge(Long paymentId, BigDecimal amount, String paymentMethod, String idempotencyKey) {
+            peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            keys.computeIfAbsent(paymentId, id -> new CopyOnWriteArrayList<>()).add(idempotencyKey);
+            GatewayResult scripted = scripts.getOrDefault(paymentId, new ConcurrentLinkedQueue<>()).poll();
+            return scripted == null ? GatewayResult.approved() : scripted;
+        }
+
+        void script(Long paymentId, GatewayResult... results) {
+            scripts.put(paymentId, new ConcurrentLinkedQueue<>(List.of(results)));
+        }
+
+        List<String> keys(Long paymentId) {
+            return keys.getOrDefault(paymentId, List.of());
+        }
+
+        // Charges block until release(), like a gateway that has stopped answering
+        void hold() {
+            gate = new CountDownLatch(1);
+        }
+
+        void release() {
+            gate.countDown();
+        }
+
+        void reset() {
+            release();
+            scripts.clear();
+            keys.clear();
+            peakInFlight.set(0);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.demo.service.pricing;
+
+import com.example.demo.dto.QuoteResponse;
+import com.example.demo.dto.VehicleResponse;
+import com.example.demo.model.Offer;
+import com.example.demo.model.VehicleType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Reference prices worked out by hand. 2025-01-06 is a Monday.
+ */
+class QuoteEngineTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 1, 1);
+
+    // The three offers DataInitializer seeds
+    private static final List<CompiledOffer> SEEDED = OfferRuleCompiler.compileAll(List.of(
+            offer(1L, "New Year Offer", "15%", TODAY.plusDays(30)),
+            offer(2L, "Weekend Special", "10%", TODAY.plusDays(15)),
+            offer(3L, "First Time User", "20%", TODAY.plusDays(60))));
+
+    @ParameterizedTest(name = "{0} x {1}..{2} first={3} -> {4} - {5} = {6}")
+    @CsvSource({
+            // rate,  start,       end,        firstTime, base,     discount, total,    offerId
+            "2500,    2025-01-06,  2025-01-08, false,     7500.00,  1125.00,  6375.00,  1",
+            "2500,    2025-01-06,  2025-01-08, true,      7500.00,  1500.00,  6000.00,  3",
+            "1200,    2025-01-10,  2025-01-12, false,     3600.00,  540.00,   3060.00,  1",
+            "999.99,  2025-01-06,  2025-01-06, false,     999.99,   150.00,   849.99,   1",
+            "0.05,    2025-01-06,  2025-01-06, false,     0.05,     0.01,     0.04,     1",
+    })
+    void pricesAgainstReferenceTable(BigDecimal rate, LocalDate start, LocalDate end, boolean firstTime,
+                                     String base, String discount, String total, Long offerId) {
+        QuoteResponse quote = QuoteEngine.price(SEEDED, vehicle(rate), start, end, firstTime, TODAY);
+
+        assertEquals(new BigDecimal(base), quote.getBaseAmount());
+        assertEquals(new BigDecimal(discount), quote.getDiscount());
+        assertEquals(new BigDecimal(total), quote.getTotalCost());
+        assertEquals(offerId, quote.getOfferId());
+    }
+
+    @Test
+    void weekendOfferOnlyDiscountsWeekendDays() {
+        List<CompiledOffer> offers = OfferRuleCompiler.compileAll(List.of(
+                offer(2L, "Weekend Special", "10%", null)));
+
+        // Fri..Sun: 2 weekend days x 1200 x 10%
+        QuoteResponse quote = QuoteEngine.price(offers, vehicle(new BigDecimal("1200")),
+                LocalDate.of(2025, 1, 10), LocalDate.of(2025, 1, 12), false, TODAY);
+        assertEquals(new BigDecimal("240.00"), quote.getDiscount());
+        assertEquals(new BigDecimal("3360.00"), quote.getTotalCost());
+
+        // Mon..Fri: no weekend day, no discount
+        QuoteResponse weekdays = QuoteEngine.price(offers, vehicle(new BigDecimal("1200")),
+                LocalDate.of(2025, 1, 6), LocalDate.of(2025, 1, 10), false, TODAY);
+        assertEquals(new BigDecimal("0.00"), weekdays.getDiscount());
+        assertNull(weekdays.getOfferId());
+    }
+
+    @Test
+    void countsWeekendDaysOverLongRanges() {
+        // two full weeks starting on a Monday
+        QuoteContext context = new QuoteContext(BigDecimal.ONE, LocalDate.of(2025, 1, 6), LocalDate.of(2025, 1, 19), false);
+        assertEquals(14, context.days());
+        assertEquals(4, context.weekendDays());
+
+        // Sunday..Saturday
+        QuoteContext shifted = new QuoteContext(BigDecimal.ONE, LocalDate.of(2025, 1, 5), LocalDate.of(2025, 1, 11), false);
+        assertEquals(2, shifted.weekendDays());
+    }
+
+    @Test
+    void flatDiscountIsCappedAtTheBaseAmount() {
+        List<CompiledOffer> offers = OfferRuleCompiler.compileAll(List.of(offer(7L, "Monsoon", "₹500", null)));
+
+        QuoteResponse quote = QuoteEngine.price(offers, vehicle(new BigDecimal("300")),
+                LocalDate.of(2025, 1, 6), LocalDate.of(2025, 1, 6), false, TODAY);
+        assertEquals(new BigDecimal("300.00"), quote.getDiscount());
+        assertEquals(new BigDecimal("0.00"), quote.getTotalCost());
+    }
+
+    @Test
+    void expiredOffersAreIgnored() {
+        QuoteResponse quote = QuoteEngine.price(SEEDED, vehicle(new BigDecimal("2500")),
+                LocalDate.of(2025, 3, 3), LocalDate.of(2025, 3, 5), false, TODAY.plusDays(31));
+        // New Year expired, weekday range, not first-time -> nothing applies
+        assertEquals(new BigDecimal("0.00"), quote.getDiscount());
+        assertNull(quote.getOfferId());
+    }
+
+    @Test
+    void parsesDiscountFormats() {
+        assertEquals(new BigDecimal("15"), ((PercentageRule) OfferRuleCompiler.parseDiscount("15%")).getPercent());
+        assertEquals(new BigDecimal("12.5"), ((PercentageRule) OfferRuleCompiler.parseDiscount(" 12.5 % off ")).getPercent());
+        assertEquals(new BigDecimal("500"), ((FlatRule) OfferRuleCompiler.parseDiscount("₹500")).getAmount());
+        assertEquals(new BigDecimal("200"), ((FlatRule) OfferRuleCompiler.parseDiscount("Rs. 200")).getAmount());
+        assertEquals(new BigDecimal("750"), ((FlatRule) OfferRuleCompiler.parseDiscount("INR 750 off")).getAmount());
+
+        assertNull(OfferRuleCompiler.parseDiscount("0%"));
+        assertNull(OfferRuleCompiler.parseDiscount("150%"));
+        assertNull(OfferRuleCompiler.parseDiscount("buy one get one"));
+        assertNull(OfferRuleCompiler.compile(offer(9L, "Broken", "free!", null)));
+    }
+
+    @Test
+    void rejectsInvalidRanges() {
+        assertThrows(IllegalArgumentException.class, () -> QuoteEngine.price(SEEDED, vehicle(BigDecimal.TEN),
+                LocalDate.of(2025, 1, 8), LocalDate.of(2025, 1, 6), false, TODAY));
+        assertThrows(IllegalArgumentException.class, () -> QuoteEngine.price(SEEDED, vehicle(BigDecimal.TEN),
+                LocalDate.of(2025, 1, 1), LocalDate.of(2026, 6, 1), false, TODAY));
+    }
+
+    private static Offer offer(Long id, String title, String discount, LocalDate validTill) {
+        Offer offer = new Offer(title, discount, validTill);
+        offer.setId(id);
+        return offer;
+    }
+
+    private static VehicleResponse vehicle(BigDecimal rentCost) {
+        return new VehicleResponse(1L, "Test", "Model", "KA-01-0001", rentCost, VehicleType.CAR, true, false);
+    }
+}
@@ -0,0 +1,27 @@
+-- A database as the pre-migration app left it: the DDL Hibernate's ddl-auto=update generated for the
+-- entities at that point (generated constraint names, columns in Hibernate's order) plus a few rows.
+
+create table users (id bigint not null auto_increment, email varchar(255), name varchar(255), password varchar(255), role varchar(255), primary key (id));
+create table vehicles (id bigint not null auto_increment, available bit not null, damaged bit not null, model varchar(255), name varchar(255), number varchar(255), rent_cost decimal(38,2), type enum ('CAR','BIKE'), primary key (id));
+create table offers (id bigint not null auto_increment, active bit not null, discount varchar(255), title varchar(255), valid_till date, primary key (id));
+create table rentals (id bigint not null auto_increment, booking_date date, end_date date, pickup_location varchar(255), start_date date, status varchar(255), total_cost float(53), user_email varchar(255), user_id bigint, user_name varchar(255), vehicle_id bigint, vehicle_name varchar(255), vehicle_type varchar(255), primary key (id));
+create table bookings (id bigint not null auto_increment, booking_date datetime(6), end_date datetime(6), start_date datetime(6), status enum ('PENDING','CONFIRMED','ACTIVE','COMPLETED','CANCELLED'), user_id bigint, vehicle_id bigint, primary key (id));
+create table payments (id bigint not null auto_increment, amount decimal(38,2), payment_date datetime(6), payment_method varchar(255), status enum ('PENDING','COMPLETED','FAILED','REFUNDED','REJECTED','CANCELLED'), booking_id bigint, user_id bigint, primary key (id));
+alter table users add constraint UK6dotkott2kjsp8vw4d0m25fb7 unique (email);
+alter table vehicles add constraint UKlw6g4o1w3w7rijn5sp0ka9b1q unique (number);
+alter table bookings add constraint FKeyog2oic85xg7hsu2je2lx3s6 foreign key (user_id) references users (id);
+alter table bookings add constraint FK2yhr3nxqqeogmwvkkwqlvcp9o foreign key (vehicle_id) references vehicles (id);
+alter table payments add constraint FKc52o2b1jkxttngufqp3t7jr3h foreign key (booking_id) references bookings (id);
+alter table payments add constraint FKj94hgy9v5fw1munb90tar2eje foreign key (user_id) references users (id);
+
+insert into users (id, email, name, password, role) values (1, 'old@example.com', 'Old User', 'x', 'USER');
+insert into vehicles (id, available, damaged, model, name, number, rent_cost, type) values (1, 1, 0, '2019', 'Swift', 'KA-01-1111', 1500.00, 'CAR');
+insert into offers (id, active, discount, title, valid_till) values (1, 1, '10%', 'Old Offer', '2030-01-01');
+insert into rentals (id, booking_date, end_date, start_date, status, total_cost, user_id, vehicle_id, vehicle_type)
+    values (1, '2024-05-01', '2024-05-04', '2024-05-02', 'confirmed', 4500.0, 1, 1, 'CAR');
+insert into rentals (id, booking_date, end_date, start_date, status, total_cost, user_id, vehicle_id, vehicle_type)
+    values (2, '2024-05-01', '2024-05-10', '2024-05-08', null, 4500.0, 1, 1, 'CAR');
+insert into bookings (id, booking_date, end_date, start_date, status, user_id, vehicle_id)
+    values (1, '2024-05-01 10:00:00', '2024-05-04 10:00:00', '2024-05-02 10:00:00', 'CONFIRMED', 1, 1);
+insert into payments (id, amount, payment_date, payment_method, status, booking_id, user_id)
+    values (1, 4500.00, '2024-05-01 10:05:00', 'CARD', 'PENDING', 1, 1);